@@ -0,0 +1,61 @@
+"""
+Power allocation contention benchmark
+
+Hammers a handful of hot systems (like life_support_section_N during a mass crew
+arrival) with small allocate/deallocate adjustments, so the allocation modes can be
+compared under contention. All requests go through the CORTEX BFF at /api/v1/*.
+
+Run it once per mode, with the same users and duration, restarting power-service with
+POWER_ALLOCATION_MODE set to ledger, pessimistic, optimistic and atomic in turn:
+
+    locust -f power_contention.py --headless -u 200 -r 50 -t 2m --host http://nexus.local
+
+Compare the /api/v1/power/allocate p50/p95/p99 and failure rates from Locust with the
+power-service metrics:
+- power_allocation_conflicts_total{mode}          conflicts retried (database modes)
+- power_allocation_retries_exhausted_total{mode}  allocations that returned 409
+- power_allocation_attempts{mode}                 attempts per allocation
+
+HOT_SYSTEMS controls how concentrated the load is; fewer systems means more contention.
+"""
+
+import os
+import random
+
+from locust import HttpUser, task, constant
+
+HOT_SYSTEMS = int(os.environ.get("HOT_SYSTEMS", "4"))
+
+
+class PowerContentionUser(HttpUser):
+    """Bursts small capacity adjustments against a few shared systems"""
+
+    wait_time = constant(0)
+
+    # Default host (overridden by --host or LOCUST_HOST env var)
+    host = "http://nexus.local"
+
+    def hot_system(self):
+        return f"life_support_section_{random.randint(1, HOT_SYSTEMS)}"
+
+    @task(4)
+    def adjust_up(self):
+        """Small increase on a hot system"""
+        with self.client.post("/api/v1/power/allocate",
+                              json={
+                                  "system": self.hot_system(),
+                                  "amountKw": random.randint(1, 5),
+                                  "priority": 1
+                              },
+                              name="/api/v1/power/allocate",
+                              catch_response=True) as response:
+            # A full grid is an expected outcome here; only conflicts and errors count as failures
+            if response.status_code == 400:
+                response.success()
+
+    @task(1)
+    def release(self):
+        """Occasionally release a hot system so the grid doesn't stay saturated"""
+        self.client.post("/api/v1/power/deallocate",
+                         json={"system": self.hot_system()},
+                         name="/api/v1/power/deallocate")
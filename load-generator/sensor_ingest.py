@@ -0,0 +1,54 @@
+"""
+Sensor reading ingestion load test
+
+Posts batches of environmental readings straight to life-support-service's
+POST /api/v1/life-support/readings (ingestion isn't proxied by CORTEX), e.g. through
+a port-forward:
+
+    kubectl port-forward svc/life-support-service 8080:8080
+    locust -f sensor_ingest.py --headless -u 50 -r 10 -t 2m --host http://localhost:8080
+
+Each request carries BATCH_SIZE readings spread over SECTIONS sections. 429s mean the
+ingest queue is full and are counted separately from failures. Watch throughput and
+backpressure with the life-support metrics:
+- lifesupport_readings_written_total          readings written (rate = sustained throughput)
+- lifesupport_readings_rejected_total         readings turned away with 429
+- lifesupport_readings_ingest_lag_seconds     accept-to-write delay
+- lifesupport_readings_flush_size             readings per JDBC batch
+- lifesupport_readings_queue_depth            readings waiting to be written
+"""
+
+import os
+import random
+
+from locust import HttpUser, task, constant
+
+BATCH_SIZE = int(os.environ.get("BATCH_SIZE", "500"))
+SECTIONS = int(os.environ.get("SECTIONS", "8"))
+
+
+class SensorIngestUser(HttpUser):
+    """A sensor gateway forwarding batches of readings"""
+
+    wait_time = constant(0)
+
+    host = "http://localhost:8080"
+
+    def reading(self):
+        return {
+            "sectionId": random.randint(1, SECTIONS),
+            "o2Level": round(random.gauss(21.0, 0.2), 2),
+            "co2Level": round(random.uniform(0.03, 0.05), 3),
+            "temperature": round(random.gauss(22.0, 0.5), 2),
+            "pressure": round(random.gauss(101.3, 0.2), 2),
+            "humidity": round(random.gauss(45.0, 2.0), 1),
+        }
+
+    @task
+    def ingest(self):
+        with self.client.post("/api/v1/life-support/readings",
+                              json={"readings": [self.reading() for _ in range(BATCH_SIZE)]},
+                              name="/api/v1/life-support/readings",
+                              catch_response=True) as response:
+            if response.status_code == 429:
+                response.failure("backpressure (429)")
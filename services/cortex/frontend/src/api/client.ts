@@ -2,7 +2,10 @@ import type {
   DashboardStatus,
   DockingBay,
   Ship,
-  DockingLog,
+  DockingLogPage,
+  DockingLogQuery,
+  DockResult,
+  DockingSaga,
   CrewMember,
   Section,
   EnvironmentStatus,
@@ -11,6 +14,8 @@ import type {
   PowerGridStatus,
   PowerSourceSummary,
   PowerAllocation,
+  PowerHistory,
+  PowerHistoryQuery,
   Supply,
   CargoManifest,
   ResupplyRequest,
@@ -74,6 +79,81 @@ export function extractErrorInfo(err: unknown, fallbackMessage: string): {
   return { message, traceId, status };
 }
 
+export type StreamTopic = 'dashboard' | 'docking' | 'power' | 'crew';
+
+/**
+ * Envelope pushed by /api/v1/stream/{topic}. Exactly one of data or error is set.
+ */
+export interface StreamEvent<T> {
+  data: T | null;
+  error: string | null;
+  traceId: string | null;
+  timestamp: string;
+}
+
+const STREAM_RETRY_MS = 30000;
+
+/**
+ * Subscribe to a server-pushed topic. Each handler receives the named event for one source.
+ *
+ * EventSource reconnects by itself after network blips. If the server refuses the stream
+ * (e.g. subscriber limit reached) the source is closed, so we fall back to polling with
+ * the given loader and periodically retry the stream. Returns an unsubscribe function.
+ */
+export function subscribeToStream(
+  topic: StreamTopic,
+  handlers: Record<string, (event: StreamEvent<any>) => void>,
+  fallback: () => void,
+  fallbackIntervalMs: number
+): () => void {
+  let source: EventSource | null = null;
+  let fallbackTimer: ReturnType<typeof setInterval> | null = null;
+  let retryTimer: ReturnType<typeof setTimeout> | null = null;
+  let closed = false;
+
+  const stopFallback = () => {
+    if (fallbackTimer) {
+      clearInterval(fallbackTimer);
+      fallbackTimer = null;
+    }
+  };
+
+  const connect = () => {
+    if (closed) return;
+    const eventSource = new EventSource(`${BASE_URL}/stream/${topic}`);
+    source = eventSource;
+    eventSource.onopen = () => stopFallback();
+    Object.entries(handlers).forEach(([name, handler]) => {
+      eventSource.addEventListener(name, (e) => handler(JSON.parse((e as MessageEvent).data)));
+    });
+    eventSource.onerror = () => {
+      if (eventSource.readyState !== EventSource.CLOSED) return;
+      source = null;
+      if (!fallbackTimer) {
+        fallback();
+        fallbackTimer = setInterval(fallback, fallbackIntervalMs);
+      }
+      retryTimer = setTimeout(connect, STREAM_RETRY_MS);
+    };
+  };
+
+  connect();
+
+  return () => {
+    closed = true;
+    source?.close();
+    stopFallback();
+    if (retryTimer) clearTimeout(retryTimer);
+  };
+}
+
+/**
+ * Convert a stream error into the same shape extractErrorInfo returns.
+ */
+export function streamErrorInfo<T>(event: StreamEvent<T>): { message: string; traceId: string | null } | null {
+  return event.error ? { message: event.error, traceId: event.traceId } : null;
+}
+
 export const api = {
   // Dashboard
   dashboard: {
@@ -93,7 +173,8 @@ export const api = {
     getShip: (id: number) => request<Ship>(`/docking/ships/${id}`),
     getIncomingShips: () => request<Ship[]>('/docking/ships/incoming'),
     dockShip: (shipId: number) =>
-      request<{ success: boolean; message: string }>(`/docking/dock/${shipId}`, { method: 'POST' }),
+      request<DockResult>(`/docking/dock/${shipId}`, { method: 'POST' }),
+    getSaga: (sagaId: number) => request<DockingSaga>(`/docking/sagas/${sagaId}`),
     undockShip: (shipId: number) =>
       request<{ success: boolean; message: string }>(`/docking/undock/${shipId}`, { method: 'POST' }),
     scheduleDelivery: (shipName: string, cargoType: string, estimatedArrival: string) =>
@@ -101,7 +182,14 @@ export const api = {
         method: 'POST',
         body: JSON.stringify({ shipName, cargoType, estimatedArrival }),
       }),
-    getLogs: () => request<DockingLog[]>('/docking/logs'),
+    getLogs: (query: DockingLogQuery = {}) => {
+      const params = new URLSearchParams();
+      Object.entries(query).forEach(([key, value]) => {
+        if (value !== undefined) params.set(key, String(value));
+      });
+      const qs = params.toString();
+      return request<DockingLogPage>(`/docking/logs${qs ? `?${qs}` : ''}`);
+    },
   },
 
   // Crew
@@ -143,6 +231,14 @@ export const api = {
     getSources: () => request<PowerGridStatus>('/power/sources'),
     getSource: (id: number) => request<PowerSourceSummary>(`/power/sources/${id}`),
     getAllocations: () => request<PowerAllocation[]>('/power/allocations'),
+    getHistory: (query: PowerHistoryQuery = {}) => {
+      const params = new URLSearchParams();
+      Object.entries(query).forEach(([key, value]) => {
+        if (value !== undefined) params.set(key, String(value));
+      });
+      const qs = params.toString();
+      return request<PowerHistory>(`/power/history${qs ? `?${qs}` : ''}`);
+    },
     allocate: (system: string, amountKw: number, priority?: number) =>
       request<PowerAllocation>('/power/allocate', {
         method: 'POST',
@@ -1,5 +1,6 @@
 import { useState, useEffect } from 'react';
-import { api, extractErrorInfo } from '../api/client';
+import { api, extractErrorInfo, streamErrorInfo, subscribeToStream } from '../api/client';
+import type { StreamEvent } from '../api/client';
 import type { CrewMember, Section } from '../types';
 import { Card } from '../components/ui/Card';
 import { ErrorAlert, type ErrorInfo } from '../components/ui/ErrorAlert';
@@ -34,10 +35,23 @@ function Crew() {
 
   useEffect(() => {
     loadData();
-    const interval = setInterval(() => loadData(false), 15000);
-    return () => clearInterval(interval);
+    // Server pushes updates; polling is only used if the stream is refused
+    return subscribeToStream('crew', {
+      roster: (event) => handleStreamEvent(event, setCrew),
+      sections: (event) => handleStreamEvent(event, setSections),
+    }, () => loadData(false), 15000);
   }, []);
 
+  function handleStreamEvent<T>(event: StreamEvent<T>, setter: (data: T) => void) {
+    const errorInfo = streamErrorInfo(event);
+    if (errorInfo) {
+      setLoadError(errorInfo);
+      showError(errorInfo);
+    } else if (event.data) {
+      setter(event.data);
+    }
+  }
+
   async function loadData(init = true) {
     try {
       if (init) setLoading(true);
@@ -1,6 +1,8 @@
 import { useState, useEffect, useCallback } from 'react';
+import type { Dispatch, SetStateAction } from 'react';
 import { Link } from 'react-router-dom';
-import { api, extractErrorInfo } from '../api/client';
+import { api, extractErrorInfo, streamErrorInfo, subscribeToStream } from '../api/client';
+import type { StreamEvent } from '../api/client';
 import type { DockingSummary, CrewSummary, LifeSupportSummary, PowerSummary, InventorySummary } from '../types';
 import { Card, StatsCard } from '../components/ui/Card';
 import type { ErrorInfo } from '../components/ui/ErrorAlert';
@@ -144,8 +146,25 @@ function Dashboard() {
 
   useEffect(() => {
     loadAll(true);
-    const interval = setInterval(() => loadAll(false), 15000);
-    return () => clearInterval(interval);
+
+    // Each summary arrives as its own event; errors keep the last good data like polling did
+    const applyStreamEvent = <T,>(setter: Dispatch<SetStateAction<ServiceState<T>>>) =>
+      (event: StreamEvent<T>) => {
+        const errorInfo = streamErrorInfo(event);
+        setter(prev => errorInfo
+          ? { data: prev.data, loading: false, error: errorInfo }
+          : { data: event.data, loading: false, error: null });
+        setLastSync(new Date());
+      };
+
+    // Server pushes updates; polling is only used if the stream is refused
+    return subscribeToStream('dashboard', {
+      docking: applyStreamEvent(setDocking),
+      crew: applyStreamEvent(setCrew),
+      lifeSupport: applyStreamEvent(setLifeSupport),
+      power: applyStreamEvent(setPower),
+      inventory: applyStreamEvent(setInventory),
+    }, () => loadAll(false), 15000);
   }, [loadAll]);
 
   // Compute overall status based on available data
@@ -1,5 +1,6 @@
 import { useState, useEffect } from 'react';
-import { api, extractErrorInfo } from '../api/client';
+import { api, extractErrorInfo, streamErrorInfo, subscribeToStream } from '../api/client';
+import type { StreamEvent } from '../api/client';
 import type { DockingBay, Ship } from '../types';
 import { Card } from '../components/ui/Card';
 import type { ErrorInfo } from '../components/ui/ErrorAlert';
@@ -15,6 +16,9 @@ import {
 } from 'lucide-react';
 import { motion, AnimatePresence } from 'framer-motion';
 
+const SAGA_POLL_INTERVAL_MS = 1000;
+const SAGA_POLL_ATTEMPTS = 30;
+
 function Docking() {
   const [bays, setBays] = useState<DockingBay[]>([]);
   const [ships, setShips] = useState<Ship[]>([]);
@@ -25,10 +29,23 @@ function Docking() {
 
   useEffect(() => {
     loadData();
-    const interval = setInterval(() => loadData(false), 5000);
-    return () => clearInterval(interval);
+    // Server pushes updates; polling is only used if the stream is refused
+    return subscribeToStream('docking', {
+      bays: (event) => handleStreamEvent(event, setBays),
+      ships: (event) => handleStreamEvent(event, setShips),
+    }, () => loadData(false), 5000);
   }, []);
 
+  function handleStreamEvent<T>(event: StreamEvent<T>, setter: (data: T) => void) {
+    const errorInfo = streamErrorInfo(event);
+    if (errorInfo) {
+      setLoadError(errorInfo);
+      showError(errorInfo);
+    } else if (event.data) {
+      setter(event.data);
+    }
+  }
+
   async function loadData(init = true) {
     try {
       if (init) setLoading(true);
@@ -52,7 +69,10 @@ function Docking() {
   async function handleDock(shipId: number) {
     try {
       setActionLoading(prev => ({ ...prev, [shipId]: true }));
-      await api.docking.dockShip(shipId);
+      const result = await api.docking.dockShip(shipId);
+      if (!result.success && result.sagaId) {
+        await waitForDocking(result.sagaId);
+      }
       await loadData(false);
     } catch (err) {
       showError(extractErrorInfo(err, 'Failed to dock ship'));
@@ -61,6 +81,19 @@ function Docking() {
     }
   }
 
+  // Docking continues in the background when it takes longer than the request; follow it until it settles
+  async function waitForDocking(sagaId: number) {
+    for (let attempt = 0; attempt < SAGA_POLL_ATTEMPTS; attempt++) {
+      await new Promise(resolve => setTimeout(resolve, SAGA_POLL_INTERVAL_MS));
+      const saga = await api.docking.getSaga(sagaId);
+      if (saga.status === 'FAILED') {
+        showError({ message: saga.innerError ? `${saga.message}: ${saga.innerError}` : saga.message, traceId: null });
+        return;
+      }
+      if (saga.status === 'COMPLETED') return;
+    }
+  }
+
   async function handleUndock(shipId: number) {
     try {
       setActionLoading(prev => ({ ...prev, [shipId]: true }));
@@ -1,5 +1,6 @@
 import { useState, useEffect } from 'react';
-import { api, extractErrorInfo } from '../api/client';
+import { api, extractErrorInfo, streamErrorInfo, subscribeToStream } from '../api/client';
+import type { StreamEvent } from '../api/client';
 import type { PowerGridStatus, PowerAllocation } from '../types';
 import { Card } from '../components/ui/Card';
 import type { ErrorInfo } from '../components/ui/ErrorAlert';
@@ -37,10 +38,23 @@ function Power() {
 
   useEffect(() => {
     loadData();
-    const interval = setInterval(() => loadData(false), 15000);
-    return () => clearInterval(interval);
+    // Server pushes updates; polling is only used if the stream is refused
+    return subscribeToStream('power', {
+      grid: (event) => handleStreamEvent(event, setGrid),
+      allocations: (event) => handleStreamEvent(event, setAllocations),
+    }, () => loadData(false), 15000);
   }, []);
 
+  function handleStreamEvent<T>(event: StreamEvent<T>, setter: (data: T) => void) {
+    const errorInfo = streamErrorInfo(event);
+    if (errorInfo) {
+      setLoadError(errorInfo);
+      showError(errorInfo);
+    } else if (event.data) {
+      setter(event.data);
+    }
+  }
+
   async function loadData(init = true) {
     try {
       if (init) setLoading(true);
@@ -73,6 +73,25 @@ export interface Ship {
   arrivalTime: string | null;
 }
 
+export interface DockResult {
+  success: boolean;
+  message: string;
+  sagaId: number | null;
+  sagaStatus: DockingSaga['status'] | null;
+}
+
+export interface DockingSaga {
+  id: number;
+  shipId: number;
+  bayId: number;
+  status: 'PENDING' | 'POWER_ALLOCATED' | 'CARGO_UNLOADED' | 'COMPLETED' | 'FAILED';
+  message: string;
+  downstreamService: string | null;
+  innerError: string | null;
+  createdAt: string;
+  updatedAt: string;
+}
+
 export interface DockingLog {
   id: number;
   shipId: number;
@@ -83,6 +102,18 @@ export interface DockingLog {
   timestamp: string;
 }
 
+export interface DockingLogPage {
+  logs: DockingLog[];
+  nextCursor: string | null;
+}
+
+export interface DockingLogQuery {
+  from?: string;
+  to?: string;
+  cursor?: string;
+  limit?: number;
+}
+
 // Crew
 export interface CrewMember {
   id: number;
@@ -181,6 +212,33 @@ export interface PowerAllocation {
   sectionId: number | null;
 }
 
+export interface PowerHistoryPoint {
+  bucketStart: string;
+  systemName: string;
+  allocateCount: number;
+  deallocateCount: number;
+  preemptCount: number;
+  allocatedKw: number;
+  releasedKw: number;
+  peakKw: number;
+  closingKw: number;
+}
+
+export interface PowerHistory {
+  resolution: 'MINUTE' | 'HOUR';
+  from: string;
+  to: string;
+  asOf: string | null;
+  points: PowerHistoryPoint[];
+}
+
+export interface PowerHistoryQuery {
+  from?: string;
+  to?: string;
+  resolution?: 'minute' | 'hour' | 'auto';
+  system?: string;
+}
+
 // Inventory
 export interface Supply {
   id: number;
@@ -0,0 +1,157 @@
+package com.nexus.cortex.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight, short-TTL cache for downstream summaries.
+ *
+ * - Concurrent requests for the same key share one in-flight fetch (coalesced)
+ * - Results are served from memory for nexus.dashboard.cache.ttl (hit)
+ * - For a further nexus.dashboard.cache.stale-ttl the old value is served while a single
+ *   background fetch revalidates it (stale)
+ * - Failures are never cached; every waiter of a failed fetch sees the original exception
+ * - Coalesced callers wait at most nexus.dashboard.cache.wait-timeout for the shared fetch
+ *
+ * Lookups are counted in cortex.dashboard.cache.requests tagged by key and result.
+ */
+@Component
+public class SummaryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryCache.class);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Counter>> counters = new ConcurrentHashMap<>();
+    private final ExecutorService revalidateExecutor = Executors.newFixedThreadPool(2);
+    private final MeterRegistry meterRegistry;
+    private final long ttlNanos;
+    private final long staleTtlNanos;
+    private final Duration waitTimeout;
+
+    public SummaryCache(
+            MeterRegistry meterRegistry,
+            @Value("${nexus.dashboard.cache.ttl:1500ms}") Duration ttl,
+            @Value("${nexus.dashboard.cache.stale-ttl:5s}") Duration staleTtl,
+            @Value("${nexus.dashboard.cache.wait-timeout:3s}") Duration waitTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.ttlNanos = ttl.toNanos();
+        this.staleTtlNanos = staleTtl.toNanos();
+        this.waitTimeout = waitTimeout;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            long age = System.nanoTime() - entry.loadedAt();
+            if (age < ttlNanos) {
+                count(key, "hit");
+                return (T) entry.value();
+            }
+            if (age < ttlNanos + staleTtlNanos) {
+                count(key, "stale");
+                revalidate(key, loader);
+                return (T) entry.value();
+            }
+        }
+
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            count(key, "coalesced");
+            return (T) await(key, existing);
+        }
+
+        count(key, "miss");
+        // The leader fetches on the caller's thread so the downstream call stays in its trace
+        return (T) load(key, loader, created);
+    }
+
+    private void revalidate(String key, Supplier<?> loader) {
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, created) != null) {
+            return;
+        }
+        revalidateExecutor.execute(() -> {
+            try {
+                load(key, loader, created);
+            } catch (RuntimeException e) {
+                log.warn("Background refresh of {} failed, serving stale value: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    private Object load(String key, Supplier<?> loader, CompletableFuture<Object> future) {
+        try {
+            Object value = loader.get();
+            entries.put(key, new Entry(value, System.nanoTime()));
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Any failure, including an Error, must release the coalesced waiters
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private Object await(String key, CompletableFuture<Object> future) {
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new CacheWaitTimeoutException("Timed out after " + waitTimeout + " waiting for " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheWaitTimeoutException("Interrupted waiting for " + key);
+        }
+    }
+
+    private void count(String key, String result) {
+        counters.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(result, r -> Counter.builder("cortex.dashboard.cache.requests")
+                        .tag("key", key)
+                        .tag("result", result)
+                        .description("Dashboard summary lookups by cache outcome")
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        revalidateExecutor.shutdownNow();
+    }
+
+    private record Entry(Object value, long loadedAt) {}
+
+    public static class CacheWaitTimeoutException extends RuntimeException {
+        public CacheWaitTimeoutException(String message) {
+            super(message);
+        }
+    }
+}
@@ -33,7 +33,7 @@ public class CrewClient {
         
         try {
             Map<String, Object> summary = restClient.get()
-                    .uri("/api/v1/crew/count")
+                    .uri("/api/v1/crew/summary")
                     .retrieve()
                     .body(new ParameterizedTypeReference<>() {});
             
@@ -10,6 +10,7 @@ import org.springframework.web.client.RestClient;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class DockingClient {
@@ -32,39 +33,36 @@ public class DockingClient {
         log.debug("Fetching docking summary");
         
         try {
-            List<Map<String, Object>> bays = restClient.get()
-                    .uri("/api/v1/docking/bays")
+            Map<String, Object> summary = restClient.get()
+                    .uri("/api/v1/docking/summary")
                     .retrieve()
                     .body(new ParameterizedTypeReference<>() {});
             
-            List<Map<String, Object>> incomingShips = restClient.get()
-                    .uri("/api/v1/docking/ships/incoming")
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<>() {});
-            
-            int available = 0;
-            int occupied = 0;
-            int reserved = 0;
-            
-            if (bays != null) {
-                for (Map<String, Object> bay : bays) {
-                    String status = (String) bay.get("status");
-                    if ("AVAILABLE".equals(status)) available++;
-                    else if ("OCCUPIED".equals(status)) occupied++;
-                    else if ("RESERVED".equals(status)) reserved++;
-                }
+            if (summary == null) {
+                return new DockingSummary(0, 0, 0, 0, 0, 0);
             }
             
-            int incoming = incomingShips != null ? incomingShips.size() : 0;
-            int totalBays = bays != null ? bays.size() : 0;
-            
-            return new DockingSummary(totalBays, available, occupied, reserved, incoming, occupied);
+            return new DockingSummary(
+                    toInt(summary.get("totalBays")),
+                    toInt(summary.get("availableBays")),
+                    toInt(summary.get("occupiedBays")),
+                    toInt(summary.get("reservedBays")),
+                    toInt(summary.get("incomingShips")),
+                    toInt(summary.get("dockedShips"))
+            );
         } catch (Exception e) {
             log.error("Failed to fetch docking summary: {}", e.getMessage());
             throw e;
         }
     }
     
+    private int toInt(Object value) {
+        if (value == null) return 0;
+        if (value instanceof Integer) return (Integer) value;
+        if (value instanceof Number) return ((Number) value).intValue();
+        return 0;
+    }
+    
     // === Proxy Methods ===
     
     public List<Map<String, Object>> getAllBays() {
@@ -115,6 +113,14 @@ public class DockingClient {
                 .body(new ParameterizedTypeReference<>() {});
     }
     
+    public Map<String, Object> getDockingSaga(Long sagaId) {
+        log.debug("Fetching docking saga: {}", sagaId);
+        return restClient.get()
+                .uri("/api/v1/docking/sagas/{sagaId}", sagaId)
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {});
+    }
+    
     public Map<String, Object> undockShip(Long shipId) {
         log.info("Undocking ship: {}", shipId);
         return restClient.post()
@@ -123,10 +129,16 @@ public class DockingClient {
                 .body(new ParameterizedTypeReference<>() {});
     }
     
-    public List<Map<String, Object>> getDockingLogs() {
-        log.debug("Fetching docking logs");
+    public Map<String, Object> getDockingLogs(String from, String to, String cursor, Integer limit) {
+        log.debug("Fetching docking logs (cursor={}, limit={})", cursor, limit);
         return restClient.get()
-                .uri("/api/v1/docking/logs")
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/docking/logs")
+                        .queryParamIfPresent("from", Optional.ofNullable(from))
+                        .queryParamIfPresent("to", Optional.ofNullable(to))
+                        .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                        .queryParamIfPresent("limit", Optional.ofNullable(limit))
+                        .build())
                 .retrieve()
                 .body(new ParameterizedTypeReference<>() {});
     }
@@ -32,65 +32,32 @@ public class InventoryClient {
         log.debug("Fetching inventory summary");
         
         try {
-            List<Map<String, Object>> supplies = restClient.get()
-                    .uri("/api/v1/inventory/supplies")
+            Map<String, Object> summary = restClient.get()
+                    .uri("/api/v1/inventory/summary")
                     .retrieve()
                     .body(new ParameterizedTypeReference<>() {});
             
-            List<Map<String, Object>> resupplyRequests = restClient.get()
-                    .uri("/api/v1/inventory/resupply-requests")
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<>() {});
-            
-            List<Map<String, Object>> manifests = restClient.get()
-                    .uri("/api/v1/inventory/cargo-manifests")
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<>() {});
-            
-            int totalItems = supplies != null ? supplies.size() : 0;
-            int lowStockItems = 0;
-            if (supplies != null) {
-                for (Map<String, Object> supply : supplies) {
-                    Boolean isLowStock = (Boolean) supply.get("lowStock");
-                    if (Boolean.TRUE.equals(isLowStock)) {
-                        lowStockItems++;
-                    }
-                }
-            }
-            
-            int pendingResupply = 0;
-            if (resupplyRequests != null) {
-                for (Map<String, Object> request : resupplyRequests) {
-                    String status = (String) request.get("status");
-                    if ("PENDING".equals(status) || "IN_TRANSIT".equals(status)) {
-                        pendingResupply++;
-                    }
-                }
-            }
-            
-            int pendingManifests = 0;
-            if (manifests != null) {
-                for (Map<String, Object> manifest : manifests) {
-                    String status = (String) manifest.get("status");
-                    if ("PENDING".equals(status) || "UNLOADING".equals(status)) {
-                        pendingManifests++;
-                    }
-                }
+            if (summary == null) {
+                return new InventorySummary(0, 0, 0, 0);
             }
             
-            return new InventorySummary(totalItems, lowStockItems, pendingResupply, pendingManifests);
+            return new InventorySummary(
+                    toInt(summary.get("totalItems")),
+                    toInt(summary.get("lowStockItems")),
+                    toInt(summary.get("pendingResupply")),
+                    toInt(summary.get("pendingManifests"))
+            );
         } catch (Exception e) {
             log.error("Failed to fetch inventory summary: {}", e.getMessage());
             throw e;
         }
     }
     
-    private long toLong(Object value) {
-        if (value == null) return 0L;
-        if (value instanceof Long) return (Long) value;
-        if (value instanceof Integer) return ((Integer) value).longValue();
-        if (value instanceof Number) return ((Number) value).longValue();
-        return 0L;
+    private int toInt(Object value) {
+        if (value == null) return 0;
+        if (value instanceof Integer) return (Integer) value;
+        if (value instanceof Number) return ((Number) value).intValue();
+        return 0;
     }
     
     // === Proxy Methods ===
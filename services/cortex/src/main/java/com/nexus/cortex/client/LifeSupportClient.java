@@ -10,6 +10,7 @@ import org.springframework.web.client.RestClient;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class LifeSupportClient {
@@ -33,7 +34,7 @@ public class LifeSupportClient {
         
         try {
             Map<String, Object> summary = restClient.get()
-                    .uri("/api/v1/life-support/environment/summary")
+                    .uri("/api/v1/life-support/summary")
                     .retrieve()
                     .body(new ParameterizedTypeReference<>() {});
             
@@ -148,6 +149,25 @@ public class LifeSupportClient {
                 .body(new ParameterizedTypeReference<>() {});
     }
     
+    public Map<String, Object> submitSelfTest(Long sectionId) {
+        log.info("Submitting self-test job for {}", sectionId != null ? "section " + sectionId : "all sections");
+        return restClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/life-support/self-tests")
+                        .queryParamIfPresent("sectionId", Optional.ofNullable(sectionId))
+                        .build())
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {});
+    }
+    
+    public Map<String, Object> getSelfTest(String jobId) {
+        log.debug("Fetching self-test job: {}", jobId);
+        return restClient.get()
+                .uri("/api/v1/life-support/self-tests/{jobId}", jobId)
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {});
+    }
+    
     public record LifeSupportSummary(
         int totalSections,
         int sectionsNominal,
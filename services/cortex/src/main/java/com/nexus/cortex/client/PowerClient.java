@@ -10,6 +10,7 @@ import org.springframework.web.client.RestClient;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class PowerClient {
@@ -33,7 +34,7 @@ public class PowerClient {
         
         try {
             Map<String, Object> grid = restClient.get()
-                    .uri("/api/v1/power/grid")
+                    .uri("/api/v1/power/summary")
                     .retrieve()
                     .body(new ParameterizedTypeReference<>() {});
             
@@ -96,6 +97,17 @@ public class PowerClient {
                 .body(new ParameterizedTypeReference<>() {});
     }
     
+    public List<Map<String, Object>> getSourceTelemetry(int count) {
+        log.debug("Fetching power source telemetry (count={})", count);
+        return restClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/power/sources/telemetry")
+                        .queryParam("count", count)
+                        .build())
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {});
+    }
+    
     public Map<String, Object> getSourceById(Long id) {
         log.debug("Fetching power source: {}", id);
         return restClient.get()
@@ -140,6 +152,32 @@ public class PowerClient {
                 .body(new ParameterizedTypeReference<>() {});
     }
     
+    public Map<String, Object> getPowerHistory(String from, String to, String resolution, String system) {
+        log.debug("Fetching power history (from={}, to={}, resolution={})", from, to, resolution);
+        return restClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/power/history")
+                        .queryParamIfPresent("from", Optional.ofNullable(from))
+                        .queryParamIfPresent("to", Optional.ofNullable(to))
+                        .queryParamIfPresent("resolution", Optional.ofNullable(resolution))
+                        .queryParamIfPresent("system", Optional.ofNullable(system))
+                        .build())
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {});
+    }
+    
+    public Map<String, Object> getCapacityForecast(int minutes, Double amountKw) {
+        log.debug("Fetching capacity forecast (minutes={}, amountKw={})", minutes, amountKw);
+        return restClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/api/v1/power/forecast")
+                        .queryParam("minutes", minutes)
+                        .queryParamIfPresent("amountKw", Optional.ofNullable(amountKw))
+                        .build())
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {});
+    }
+    
     public record PowerSummary(
         double totalCapacityKw,
         double totalOutputKw,
@@ -0,0 +1,141 @@
+package com.nexus.cortex.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Shared, bounded executor for downstream fan-out calls (dashboard, health, admin).
+ *
+ * Every submitted call has a timeout and a fallback: a call that times out, fails or
+ * is rejected because the queue is full completes with its fallback instead of holding
+ * up the caller. A call that times out is cancelled (interrupted if running, skipped if
+ * still queued) so it doesn't take a thread from fresh work.
+ *
+ * The pool has a fixed nexus.fan-out.threads; a ThreadPoolExecutor only grows past its
+ * core size once the queue is full, so a core/max split would leave calls queued behind
+ * a few threads. Idle threads still time out after keep-alive.
+ *
+ * Pool size, queue depth and queue wait time are exported through Micrometer's
+ * executor metrics under name=fanout (executor.queued, executor.idle, ...).
+ *
+ * Java 17 has no virtual threads, so this is a platform-thread pool sized by
+ * nexus.fan-out.* rather than a thread per call.
+ */
+@Component
+public class FanOutExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(FanOutExecutor.class);
+
+    private final ThreadPoolExecutor threadPool;
+    private final ExecutorService executor;
+    private final Counter timeoutCounter;
+    private final Counter rejectedCounter;
+
+    public FanOutExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${nexus.fan-out.threads:64}") int threads,
+            @Value("${nexus.fan-out.queue-capacity:64}") int queueCapacity,
+            @Value("${nexus.fan-out.keep-alive:60s}") Duration keepAlive) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "fanout-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.threadPool = new ThreadPoolExecutor(threads, threads,
+                keepAlive.toMillis(), TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        this.threadPool.allowCoreThreadTimeOut(true);
+        // Wrapping records executor.idle (time spent queued) and executor (run time)
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, "fanout");
+
+        this.timeoutCounter = Counter.builder("cortex.fanout.timeouts")
+                .description("Fan-out calls that exceeded their timeout and used a fallback")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("cortex.fanout.rejected")
+                .description("Fan-out calls rejected because the executor queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the task on the fan-out pool. The returned future never completes exceptionally:
+     * timeouts, failures and rejections all complete it with the fallback.
+     */
+    public <T> CompletableFuture<T> submit(String name, Supplier<T> task, T fallback, Duration timeout) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> running;
+        try {
+            running = executor.submit(() -> {
+                // Timed out while queued; the caller already has its fallback
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(task.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Fan-out queue full, using fallback for {}", name);
+            rejectedCounter.increment();
+            return CompletableFuture.completedFuture(fallback);
+        }
+
+        return future
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    if (e instanceof TimeoutException || e.getCause() instanceof TimeoutException) {
+                        log.warn("{} did not respond within {}, using fallback", name, timeout);
+                        timeoutCounter.increment();
+                        running.cancel(true);
+                    } else {
+                        log.warn("{} failed, using fallback: {}", name, e.getMessage());
+                    }
+                    return fallback;
+                });
+    }
+
+    /**
+     * Wait for all futures up to the overall deadline. Futures still running after the
+     * deadline are left to complete on their own; read them with getNow(fallback).
+     */
+    public void awaitAll(Duration deadline, CompletableFuture<?>... futures) {
+        try {
+            CompletableFuture.allOf(futures).get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Fan-out deadline of {} exceeded, responding with partial results", deadline);
+            timeoutCounter.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Futures from submit() never fail; nothing to do
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        threadPool.shutdownNow();
+    }
+}
@@ -1,24 +1,139 @@
 package com.nexus.cortex.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.routing.RoutingSupport;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.URI;
 import java.time.Duration;
+import java.util.Map;
 
+/**
+ * Shared HTTP transport for all downstream RestClients.
+ *
+ * Uses a pooled Apache HttpClient 5 connection manager so that connections to
+ * each downstream service are kept alive and reused instead of being opened per request:
+ * - nexus.http-client.* controls global pool size, timeouts, keep-alive and idle eviction
+ * - services.{name}.max-connections caps the pool for an individual downstream route
+ * - Pool utilization is exported via Micrometer (httpcomponents.httpclient.pool.* and
+ *   http.client.pool.route.* tagged by downstream service)
+ */
 @Configuration
 public class RestClientConfig {
-    
+
+    private static final Logger log = LoggerFactory.getLogger(RestClientConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${nexus.http-client.max-total:200}") int maxTotal,
+            @Value("${nexus.http-client.max-per-route:50}") int maxPerRoute,
+            @Value("${nexus.http-client.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${nexus.http-client.read-timeout:30s}") Duration readTimeout,
+            @Value("${nexus.http-client.time-to-live:5m}") Duration timeToLive) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        // Per-downstream pool limits, keyed by the same services.{name}.url used by the clients
+        Map<String, DownstreamService> services = Binder.get(environment)
+                .bind("services", Bindable.mapOf(String.class, DownstreamService.class))
+                .orElse(Map.of());
+
+        services.forEach((name, service) -> {
+            if (service.url() == null || service.url().isBlank()) {
+                return;
+            }
+            HttpRoute route = new HttpRoute(RoutingSupport.normalize(
+                    HttpHost.create(URI.create(service.url())), DefaultSchemePortResolver.INSTANCE));
+            if (service.maxConnections() != null) {
+                connectionManager.setMaxPerRoute(route, service.maxConnections());
+            }
+            log.info("Downstream '{}' -> {} (max connections: {})", name, route.getTargetHost(),
+                    connectionManager.getMaxPerRoute(route));
+
+            Gauge.builder("http.client.pool.route.leased", connectionManager,
+                            cm -> cm.getStats(route).getLeased())
+                    .tag("service", name)
+                    .description("Connections currently leased to the downstream service")
+                    .register(meterRegistry);
+            Gauge.builder("http.client.pool.route.available", connectionManager,
+                            cm -> cm.getStats(route).getAvailable())
+                    .tag("service", name)
+                    .description("Idle keep-alive connections to the downstream service")
+                    .register(meterRegistry);
+            Gauge.builder("http.client.pool.route.pending", connectionManager,
+                            cm -> cm.getStats(route).getPending())
+                    .tag("service", name)
+                    .description("Requests waiting for a connection to the downstream service")
+                    .register(meterRegistry);
+            Gauge.builder("http.client.pool.route.max", connectionManager,
+                            cm -> cm.getMaxPerRoute(route))
+                    .tag("service", name)
+                    .description("Maximum connections to the downstream service")
+                    .register(meterRegistry);
+        });
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "downstream")
+                .bindTo(meterRegistry);
+
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            @Value("${nexus.http-client.connection-request-timeout:5s}") Duration connectionRequestTimeout,
+            @Value("${nexus.http-client.keep-alive:60s}") Duration keepAlive,
+            @Value("${nexus.http-client.idle-eviction:30s}") Duration idleEviction) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+    }
+
     @Bean
-    public RestClient.Builder restClientBuilder() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(Duration.ofSeconds(5));
-        factory.setReadTimeout(Duration.ofSeconds(30));
-        
+    public RestClient.Builder restClientBuilder(CloseableHttpClient httpClient) {
         return RestClient.builder()
-                .requestFactory(factory)
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
                 .defaultHeader("Content-Type", "application/json")
                 .defaultHeader("Accept", "application/json");
     }
+
+    public record DownstreamService(String url, Integer maxConnections) {}
 }
@@ -1,5 +1,6 @@
 package com.nexus.cortex.controller;
 
+import com.nexus.cortex.concurrent.FanOutExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,13 +11,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestClient;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 @RestController
 @RequestMapping("/api/v1/admin")
@@ -30,7 +30,8 @@ public class AdminController {
     private final String crewServiceUrl;
     private final String dockingServiceUrl;
     private final String inventoryServiceUrl;
-    private final ExecutorService executor = Executors.newFixedThreadPool(5);
+    private final FanOutExecutor fanOut;
+    private final Duration resetTimeout;
     
     public AdminController(
             RestClient.Builder restClientBuilder,
@@ -38,13 +39,17 @@ public class AdminController {
             @Value("${services.life-support.url}") String lifeSupportServiceUrl,
             @Value("${services.crew.url}") String crewServiceUrl,
             @Value("${services.docking.url}") String dockingServiceUrl,
-            @Value("${services.inventory.url}") String inventoryServiceUrl) {
+            @Value("${services.inventory.url}") String inventoryServiceUrl,
+            FanOutExecutor fanOut,
+            @Value("${nexus.admin.reset-timeout:60s}") Duration resetTimeout) {
         this.restClient = restClientBuilder.build();
         this.powerServiceUrl = powerServiceUrl;
         this.lifeSupportServiceUrl = lifeSupportServiceUrl;
         this.crewServiceUrl = crewServiceUrl;
         this.dockingServiceUrl = dockingServiceUrl;
         this.inventoryServiceUrl = inventoryServiceUrl;
+        this.fanOut = fanOut;
+        this.resetTimeout = resetTimeout;
     }
     
     @PostMapping("/resetAllTables")
@@ -72,7 +77,7 @@ public class AdminController {
         futures.add(resetServiceAsync("docking", dockingServiceUrl));
         futures.add(resetServiceAsync("inventory", inventoryServiceUrl));
         
-        // Wait for all to complete
+        // Each call completes with an error result on timeout, so this wait is bounded
         CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
         
         for (CompletableFuture<Map<String, Object>> future : futures) {
@@ -98,7 +103,7 @@ public class AdminController {
     }
     
     private CompletableFuture<Map<String, Object>> resetServiceAsync(String serviceName, String serviceUrl) {
-        return CompletableFuture.supplyAsync(() -> {
+        return fanOut.submit("reset " + serviceName, () -> {
             try {
                 log.info("Resetting tables for {} at {}", serviceName, serviceUrl);
                 Map<String, Object> result = restClient.post()
@@ -122,6 +127,10 @@ public class AdminController {
                     "message", e.getMessage()
                 );
             }
-        }, executor);
+        }, Map.of(
+            "service", serviceName,
+            "status", "error",
+            "message", "Reset did not complete within " + resetTimeout.toSeconds() + "s"
+        ), resetTimeout);
     }
 }
@@ -1,41 +1,53 @@
 package com.nexus.cortex.controller;
 
+import com.nexus.cortex.cache.SummaryCache;
 import com.nexus.cortex.client.*;
 import com.nexus.cortex.client.CrewClient.CrewSummary;
 import com.nexus.cortex.client.DockingClient.DockingSummary;
 import com.nexus.cortex.client.InventoryClient.InventorySummary;
 import com.nexus.cortex.client.LifeSupportClient.LifeSupportSummary;
 import com.nexus.cortex.client.PowerClient.PowerSummary;
+import com.nexus.cortex.concurrent.FanOutExecutor;
 import com.nexus.cortex.dto.DashboardStatus;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 @RestController
 @RequestMapping("/api/v1/dashboard")
 public class DashboardController {
     
     private static final Logger log = LoggerFactory.getLogger(DashboardController.class);
+
+    // Fallback summaries used when a service fails or misses its deadline
+    private static final DockingSummary EMPTY_DOCKING = new DockingSummary(0, 0, 0, 0, 0, 0);
+    private static final CrewSummary EMPTY_CREW = new CrewSummary(0L, 0L, 0L, 0L, 0L);
+    private static final LifeSupportSummary EMPTY_LIFE_SUPPORT = new LifeSupportSummary(0, 0, 0, 0, 0, 21.0, 22.0);
+    private static final PowerSummary EMPTY_POWER = new PowerSummary(0.0, 0.0, 0.0, 0.0, 0.0, 0, 0);
+    private static final InventorySummary EMPTY_INVENTORY = new InventorySummary(0, 0, 0, 0);
     
     private final DockingClient dockingClient;
     private final CrewClient crewClient;
     private final LifeSupportClient lifeSupportClient;
     private final PowerClient powerClient;
     private final InventoryClient inventoryClient;
+    private final SummaryCache summaryCache;
     private final Tracer tracer;
-    private final ExecutorService executorService;
+    private final FanOutExecutor fanOut;
+    private final Duration callTimeout;
+    private final Duration deadline;
     
     public DashboardController(
             DockingClient dockingClient,
@@ -43,14 +55,21 @@ public class DashboardController {
             LifeSupportClient lifeSupportClient,
             PowerClient powerClient,
             InventoryClient inventoryClient,
-            Tracer tracer) {
+            SummaryCache summaryCache,
+            FanOutExecutor fanOut,
+            Tracer tracer,
+            @Value("${nexus.dashboard.call-timeout:3s}") Duration callTimeout,
+            @Value("${nexus.dashboard.deadline:5s}") Duration deadline) {
         this.dockingClient = dockingClient;
         this.crewClient = crewClient;
         this.lifeSupportClient = lifeSupportClient;
         this.powerClient = powerClient;
         this.inventoryClient = inventoryClient;
+        this.summaryCache = summaryCache;
         this.tracer = tracer;
-        this.executorService = Executors.newFixedThreadPool(5);
+        this.fanOut = fanOut;
+        this.callTimeout = callTimeout;
+        this.deadline = deadline;
     }
     
     @GetMapping("/status")
@@ -61,91 +80,89 @@ public class DashboardController {
         Context parentContext = Context.current();
         
         // Fan-out: Make parallel calls to all 5 services
-        CompletableFuture<DockingSummary> dockingFuture = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<DockingSummary> dockingFuture = fanOut.submit("docking summary", () -> {
             Span span = tracer.spanBuilder("fetch-docking-summary")
                     .setParent(parentContext)
                     .startSpan();
             try {
-                return dockingClient.getSummary();
+                return summaryCache.get("docking", dockingClient::getSummary);
             } catch (Exception e) {
                 log.error("Failed to fetch docking summary", e);
                 span.recordException(e);
-                return new DockingSummary(0, 0, 0, 0, 0, 0);
+                return EMPTY_DOCKING;
             } finally {
                 span.end();
             }
-        }, executorService);
+        }, EMPTY_DOCKING, callTimeout);
         
-        CompletableFuture<CrewSummary> crewFuture = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<CrewSummary> crewFuture = fanOut.submit("crew summary", () -> {
             Span span = tracer.spanBuilder("fetch-crew-summary")
                     .setParent(parentContext)
                     .startSpan();
             try {
-                return crewClient.getSummary();
+                return summaryCache.get("crew", crewClient::getSummary);
             } catch (Exception e) {
                 log.error("Failed to fetch crew summary", e);
                 span.recordException(e);
-                return new CrewSummary(0L, 0L, 0L, 0L, 0L);
+                return EMPTY_CREW;
             } finally {
                 span.end();
             }
-        }, executorService);
+        }, EMPTY_CREW, callTimeout);
         
-        CompletableFuture<LifeSupportSummary> lifeSupportFuture = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<LifeSupportSummary> lifeSupportFuture = fanOut.submit("life support summary", () -> {
             Span span = tracer.spanBuilder("fetch-life-support-summary")
                     .setParent(parentContext)
                     .startSpan();
             try {
-                return lifeSupportClient.getSummary();
+                return summaryCache.get("lifeSupport", lifeSupportClient::getSummary);
             } catch (Exception e) {
                 log.error("Failed to fetch life support summary", e);
                 span.recordException(e);
-                return new LifeSupportSummary(0, 0, 0, 0, 0, 21.0, 22.0);
+                return EMPTY_LIFE_SUPPORT;
             } finally {
                 span.end();
             }
-        }, executorService);
+        }, EMPTY_LIFE_SUPPORT, callTimeout);
         
-        CompletableFuture<PowerSummary> powerFuture = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<PowerSummary> powerFuture = fanOut.submit("power summary", () -> {
             Span span = tracer.spanBuilder("fetch-power-summary")
                     .setParent(parentContext)
                     .startSpan();
             try {
-                return powerClient.getSummary();
+                return summaryCache.get("power", powerClient::getSummary);
             } catch (Exception e) {
                 log.error("Failed to fetch power summary", e);
                 span.recordException(e);
-                return new PowerSummary(0.0, 0.0, 0.0, 0.0, 0.0, 0, 0);
+                return EMPTY_POWER;
             } finally {
                 span.end();
             }
-        }, executorService);
+        }, EMPTY_POWER, callTimeout);
         
-        CompletableFuture<InventorySummary> inventoryFuture = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<InventorySummary> inventoryFuture = fanOut.submit("inventory summary", () -> {
             Span span = tracer.spanBuilder("fetch-inventory-summary")
                     .setParent(parentContext)
                     .startSpan();
             try {
-                return inventoryClient.getSummary();
+                return summaryCache.get("inventory", inventoryClient::getSummary);
             } catch (Exception e) {
                 log.error("Failed to fetch inventory summary", e);
                 span.recordException(e);
-                return new InventorySummary(0, 0, 0, 0);
+                return EMPTY_INVENTORY;
             } finally {
                 span.end();
             }
-        }, executorService);
+        }, EMPTY_INVENTORY, callTimeout);
         
-        // Fan-in: Wait for all futures to complete
-        CompletableFuture.allOf(
-                dockingFuture, crewFuture, lifeSupportFuture, powerFuture, inventoryFuture
-        ).join();
+        // Fan-in: Wait for all futures up to the request deadline; stragglers degrade to fallbacks
+        fanOut.awaitAll(deadline, dockingFuture, crewFuture, lifeSupportFuture, powerFuture, inventoryFuture);
         
-        DockingSummary docking = dockingFuture.join();
-        CrewSummary crew = crewFuture.join();
-        LifeSupportSummary lifeSupport = lifeSupportFuture.join();
-        PowerSummary power = powerFuture.join();
-        InventorySummary inventory = inventoryFuture.join();
+        DockingSummary docking = dockingFuture.getNow(EMPTY_DOCKING);
+        CrewSummary crew = crewFuture.getNow(EMPTY_CREW);
+        LifeSupportSummary lifeSupport = lifeSupportFuture.getNow(EMPTY_LIFE_SUPPORT);
+        PowerSummary power = powerFuture.getNow(EMPTY_POWER);
+        InventorySummary inventory = inventoryFuture.getNow(EMPTY_INVENTORY);
         
         DashboardStatus status = DashboardStatus.of(docking, crew, lifeSupport, power, inventory);
         
@@ -159,7 +176,7 @@ public class DashboardController {
     public ResponseEntity<DockingSummary> getDockingSummary() {
         log.debug("Fetching docking summary");
         try {
-            return ResponseEntity.ok(dockingClient.getSummary());
+            return ResponseEntity.ok(summaryCache.get("docking", dockingClient::getSummary));
         } catch (Exception e) {
             log.error("Failed to fetch docking summary", e);
             throw e;
@@ -170,7 +187,7 @@ public class DashboardController {
     public ResponseEntity<CrewSummary> getCrewSummary() {
         log.debug("Fetching crew summary");
         try {
-            return ResponseEntity.ok(crewClient.getSummary());
+            return ResponseEntity.ok(summaryCache.get("crew", crewClient::getSummary));
         } catch (Exception e) {
             log.error("Failed to fetch crew summary", e);
             throw e;
@@ -181,7 +198,7 @@ public class DashboardController {
     public ResponseEntity<LifeSupportSummary> getLifeSupportSummary() {
         log.debug("Fetching life support summary");
         try {
-            return ResponseEntity.ok(lifeSupportClient.getSummary());
+            return ResponseEntity.ok(summaryCache.get("lifeSupport", lifeSupportClient::getSummary));
         } catch (Exception e) {
             log.error("Failed to fetch life support summary", e);
             throw e;
@@ -192,7 +209,7 @@ public class DashboardController {
     public ResponseEntity<PowerSummary> getPowerSummary() {
         log.debug("Fetching power summary");
         try {
-            return ResponseEntity.ok(powerClient.getSummary());
+            return ResponseEntity.ok(summaryCache.get("power", powerClient::getSummary));
         } catch (Exception e) {
             log.error("Failed to fetch power summary", e);
             throw e;
@@ -203,7 +220,7 @@ public class DashboardController {
     public ResponseEntity<InventorySummary> getInventorySummary() {
         log.debug("Fetching inventory summary");
         try {
-            return ResponseEntity.ok(inventoryClient.getSummary());
+            return ResponseEntity.ok(summaryCache.get("inventory", inventoryClient::getSummary));
         } catch (Exception e) {
             log.error("Failed to fetch inventory summary", e);
             throw e;
@@ -216,63 +233,61 @@ public class DashboardController {
         
         Context parentContext = Context.current();
         
-        CompletableFuture<Boolean> dockingHealth = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<Boolean> dockingHealth = fanOut.submit("docking health", () -> {
             try {
                 dockingClient.getAllBays();
                 return true;
             } catch (Exception e) {
                 return false;
             }
-        }, executorService);
+        }, false, callTimeout);
         
-        CompletableFuture<Boolean> crewHealth = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<Boolean> crewHealth = fanOut.submit("crew health", () -> {
             try {
                 crewClient.getCrewCount();
                 return true;
             } catch (Exception e) {
                 return false;
             }
-        }, executorService);
+        }, false, callTimeout);
         
-        CompletableFuture<Boolean> lifeSupportHealth = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<Boolean> lifeSupportHealth = fanOut.submit("life support health", () -> {
             try {
                 lifeSupportClient.getEnvironmentSummary();
                 return true;
             } catch (Exception e) {
                 return false;
             }
-        }, executorService);
+        }, false, callTimeout);
         
-        CompletableFuture<Boolean> powerHealth = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<Boolean> powerHealth = fanOut.submit("power health", () -> {
             try {
                 powerClient.getGridStatus();
                 return true;
             } catch (Exception e) {
                 return false;
             }
-        }, executorService);
+        }, false, callTimeout);
         
-        CompletableFuture<Boolean> inventoryHealth = CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<Boolean> inventoryHealth = fanOut.submit("inventory health", () -> {
             try {
                 inventoryClient.getLowStockCount();
                 return true;
             } catch (Exception e) {
                 return false;
             }
-        }, executorService);
+        }, false, callTimeout);
         
-        CompletableFuture.allOf(
-                dockingHealth, crewHealth, lifeSupportHealth, powerHealth, inventoryHealth
-        ).join();
+        fanOut.awaitAll(deadline, dockingHealth, crewHealth, lifeSupportHealth, powerHealth, inventoryHealth);
         
         Map<String, Object> health = Map.of(
                 "timestamp", Instant.now().toString(),
                 "services", Map.of(
-                        "docking", dockingHealth.join() ? "UP" : "DOWN",
-                        "crew", crewHealth.join() ? "UP" : "DOWN",
-                        "lifeSupport", lifeSupportHealth.join() ? "UP" : "DOWN",
-                        "power", powerHealth.join() ? "UP" : "DOWN",
-                        "inventory", inventoryHealth.join() ? "UP" : "DOWN"
+                        "docking", dockingHealth.getNow(false) ? "UP" : "DOWN",
+                        "crew", crewHealth.getNow(false) ? "UP" : "DOWN",
+                        "lifeSupport", lifeSupportHealth.getNow(false) ? "UP" : "DOWN",
+                        "power", powerHealth.getNow(false) ? "UP" : "DOWN",
+                        "inventory", inventoryHealth.getNow(false) ? "UP" : "DOWN"
                 )
         );
         
@@ -49,7 +49,18 @@ public class DockingProxyController {
     @PostMapping("/dock/{shipId}")
     public ResponseEntity<Map<String, Object>> dockShip(@PathVariable Long shipId) {
         validatePositiveId(shipId, "Ship ID");
-        return ResponseEntity.ok(dockingClient.dockShip(shipId));
+        Map<String, Object> result = dockingClient.dockShip(shipId);
+        // A 2xx without success means the docking saga is still running
+        if (result != null && result.get("sagaId") != null && !Boolean.TRUE.equals(result.get("success"))) {
+            return ResponseEntity.accepted().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/sagas/{sagaId}")
+    public ResponseEntity<Map<String, Object>> getDockingSaga(@PathVariable Long sagaId) {
+        validatePositiveId(sagaId, "Saga ID");
+        return ResponseEntity.ok(dockingClient.getDockingSaga(sagaId));
     }
 
     @PostMapping("/undock/{shipId}")
@@ -59,8 +70,12 @@ public class DockingProxyController {
     }
 
     @GetMapping("/logs")
-    public ResponseEntity<List<Map<String, Object>>> getDockingLogs() {
-        return ResponseEntity.ok(dockingClient.getDockingLogs());
+    public ResponseEntity<Map<String, Object>> getDockingLogs(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(dockingClient.getDockingLogs(from, to, cursor, limit));
     }
 
     @PostMapping("/schedule-delivery")
@@ -1,6 +1,7 @@
 package com.nexus.cortex.controller;
 
 import com.nexus.cortex.client.LifeSupportClient;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -84,4 +85,17 @@ public class LifeSupportProxyController {
         validatePositiveId(sectionId, "Section ID");
         return ResponseEntity.ok(lifeSupportClient.runSelfTest(sectionId));
     }
+
+    @PostMapping("/self-tests")
+    public ResponseEntity<Map<String, Object>> submitSelfTest(@RequestParam(required = false) Long sectionId) {
+        if (sectionId != null) {
+            validatePositiveId(sectionId, "Section ID");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(lifeSupportClient.submitSelfTest(sectionId));
+    }
+
+    @GetMapping("/self-tests/{jobId}")
+    public ResponseEntity<Map<String, Object>> getSelfTest(@PathVariable String jobId) {
+        return ResponseEntity.ok(lifeSupportClient.getSelfTest(jobId));
+    }
 }
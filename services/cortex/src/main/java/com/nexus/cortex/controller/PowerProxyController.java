@@ -34,6 +34,12 @@ public class PowerProxyController {
         return ResponseEntity.ok(powerClient.getAllSources());
     }
 
+    @GetMapping("/sources/telemetry")
+    public ResponseEntity<List<Map<String, Object>>> getSourceTelemetry(
+            @RequestParam(defaultValue = "60") int count) {
+        return ResponseEntity.ok(powerClient.getSourceTelemetry(count));
+    }
+
     @GetMapping("/sources/{id}")
     public ResponseEntity<Map<String, Object>> getSourceById(@PathVariable Long id) {
         validatePositiveId(id, "Source ID");
@@ -55,6 +61,22 @@ public class PowerProxyController {
         return ResponseEntity.ok(powerClient.deallocatePower(request));
     }
 
+    @GetMapping("/history")
+    public ResponseEntity<Map<String, Object>> getPowerHistory(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String resolution,
+            @RequestParam(required = false) String system) {
+        return ResponseEntity.ok(powerClient.getPowerHistory(from, to, resolution, system));
+    }
+
+    @GetMapping("/forecast")
+    public ResponseEntity<Map<String, Object>> getCapacityForecast(
+            @RequestParam(defaultValue = "15") int minutes,
+            @RequestParam(required = false) Double amountKw) {
+        return ResponseEntity.ok(powerClient.getCapacityForecast(minutes, amountKw));
+    }
+
     @GetMapping("/allocations")
     public ResponseEntity<List<Map<String, Object>>> getAllAllocations() {
         return ResponseEntity.ok(powerClient.getAllAllocations());
@@ -0,0 +1,37 @@
+package com.nexus.cortex.controller;
+
+import com.nexus.cortex.stream.SnapshotPublisher;
+import com.nexus.cortex.stream.StreamTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events endpoint that replaces frontend polling.
+ * Each topic pushes one named event per source (e.g. docking: bays, ships).
+ */
+@RestController
+@RequestMapping("/api/v1/stream")
+public class StreamController {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamController.class);
+
+    private final SnapshotPublisher snapshotPublisher;
+
+    public StreamController(SnapshotPublisher snapshotPublisher) {
+        this.snapshotPublisher = snapshotPublisher;
+    }
+
+    @GetMapping(path = "/{topic}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable String topic) {
+        StreamTopic streamTopic = StreamTopic.fromPath(topic)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown stream topic: " + topic));
+        log.debug("Opening stream for topic {}", streamTopic.path());
+        return snapshotPublisher.subscribe(streamTopic);
+    }
+}
@@ -2,11 +2,13 @@ package com.nexus.cortex.exception;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus.cortex.stream.StreamCapacityException;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -149,6 +151,14 @@ public class GlobalExceptionHandler {
                         "Service temporarily unavailable"));
     }
 
+    @ExceptionHandler(StreamCapacityException.class)
+    public ResponseEntity<Map<String, Object>> handleStreamCapacity(StreamCapacityException ex) {
+        log.warn("Stream subscription rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(buildPublicErrorResponse(503, "Service Unavailable", ex.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
         log.error("Unexpected error: {}", ex.getMessage(), ex);
@@ -0,0 +1,163 @@
+package com.nexus.cortex.stream;
+
+import com.nexus.cortex.cache.SummaryCache;
+import com.nexus.cortex.client.*;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Refreshes each stream topic once per interval and pushes the result to all of its
+ * subscribers, so downstream load is per topic rather than per open browser tab.
+ *
+ * Topics without subscribers are not refreshed. Each source of a topic is fetched in
+ * parallel and published as its own named event, so one failing service only marks
+ * its own panel as errored.
+ */
+@Component
+public class SnapshotPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotPublisher.class);
+
+    private final SseBroadcaster broadcaster;
+    private final Tracer tracer;
+    private final Map<StreamTopic, List<StreamSource>> sources = new EnumMap<>(StreamTopic.class);
+    private final Map<StreamTopic, Duration> intervals = new EnumMap<>(StreamTopic.class);
+    private final Map<StreamTopic, AtomicBoolean> refreshing = new EnumMap<>(StreamTopic.class);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService fetchExecutor;
+
+    public SnapshotPublisher(
+            SseBroadcaster broadcaster,
+            DockingClient dockingClient,
+            CrewClient crewClient,
+            LifeSupportClient lifeSupportClient,
+            PowerClient powerClient,
+            InventoryClient inventoryClient,
+            SummaryCache summaryCache,
+            Tracer tracer,
+            @Value("${nexus.stream.dashboard-interval:15s}") Duration dashboardInterval,
+            @Value("${nexus.stream.docking-interval:5s}") Duration dockingInterval,
+            @Value("${nexus.stream.power-interval:15s}") Duration powerInterval,
+            @Value("${nexus.stream.crew-interval:15s}") Duration crewInterval) {
+        this.broadcaster = broadcaster;
+        this.tracer = tracer;
+
+        sources.put(StreamTopic.DASHBOARD, List.of(
+                new StreamSource("docking", () -> summaryCache.get("docking", dockingClient::getSummary)),
+                new StreamSource("crew", () -> summaryCache.get("crew", crewClient::getSummary)),
+                new StreamSource("lifeSupport", () -> summaryCache.get("lifeSupport", lifeSupportClient::getSummary)),
+                new StreamSource("power", () -> summaryCache.get("power", powerClient::getSummary)),
+                new StreamSource("inventory", () -> summaryCache.get("inventory", inventoryClient::getSummary))));
+        sources.put(StreamTopic.DOCKING, List.of(
+                new StreamSource("bays", dockingClient::getAllBays),
+                new StreamSource("ships", dockingClient::getAllShips)));
+        sources.put(StreamTopic.POWER, List.of(
+                new StreamSource("grid", powerClient::getGridStatus),
+                new StreamSource("allocations", powerClient::getAllAllocations)));
+        sources.put(StreamTopic.CREW, List.of(
+                new StreamSource("roster", crewClient::getAllCrew),
+                new StreamSource("sections", crewClient::getAllSections)));
+
+        intervals.put(StreamTopic.DASHBOARD, dashboardInterval);
+        intervals.put(StreamTopic.DOCKING, dockingInterval);
+        intervals.put(StreamTopic.POWER, powerInterval);
+        intervals.put(StreamTopic.CREW, crewInterval);
+
+        for (StreamTopic topic : StreamTopic.values()) {
+            refreshing.put(topic, new AtomicBoolean());
+        }
+        this.fetchExecutor = Executors.newFixedThreadPool(
+                sources.values().stream().mapToInt(List::size).sum());
+    }
+
+    @PostConstruct
+    public void start() {
+        intervals.forEach((topic, interval) -> {
+            scheduler.scheduleWithFixedDelay(() -> refresh(topic),
+                    interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Streaming topic '{}' every {}", topic.path(), interval);
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+
+    public SseEmitter subscribe(StreamTopic topic) {
+        SseEmitter emitter = broadcaster.subscribe(topic);
+        if (!broadcaster.hasSnapshot(topic)) {
+            // First subscriber on an idle topic: fetch now rather than on the next tick
+            scheduler.execute(() -> refresh(topic));
+        }
+        return emitter;
+    }
+
+    private void refresh(StreamTopic topic) {
+        if (!broadcaster.hasSubscribers(topic)) {
+            return;
+        }
+        // Skip this tick if the previous refresh is still waiting on a slow downstream
+        AtomicBoolean inFlight = refreshing.get(topic);
+        if (!inFlight.compareAndSet(false, true)) {
+            return;
+        }
+        broadcaster.beginRound(topic);
+
+        Span refreshSpan = tracer.spanBuilder("stream-refresh-" + topic.path())
+                .setNoParent()
+                .startSpan();
+        Context refreshContext = Context.current().with(refreshSpan);
+
+        CompletableFuture<?>[] fetches = sources.get(topic).stream()
+                .map(source -> CompletableFuture.runAsync(
+                        () -> publish(topic, source, refreshContext), fetchExecutor))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(fetches).whenComplete((result, error) -> {
+            refreshSpan.end();
+            inFlight.set(false);
+        });
+    }
+
+    private void publish(StreamTopic topic, StreamSource source, Context parentContext) {
+        Span span = tracer.spanBuilder("stream-fetch-" + source.name())
+                .setParent(parentContext)
+                .startSpan();
+        try (Scope scope = span.makeCurrent()) {
+            broadcaster.publish(topic, source.name(), StreamEvent.of(source.fetcher().get()));
+        } catch (Exception e) {
+            log.warn("Failed to refresh {} for stream topic {}: {}", source.name(), topic.path(), e.getMessage());
+            span.recordException(e);
+            String traceId = span.getSpanContext().isValid() ? span.getSpanContext().getTraceId() : null;
+            broadcaster.publish(topic, source.name(),
+                    StreamEvent.failed("Service temporarily unavailable", traceId));
+        } finally {
+            span.end();
+        }
+    }
+
+    private record StreamSource(String name, Supplier<Object> fetcher) {}
+}
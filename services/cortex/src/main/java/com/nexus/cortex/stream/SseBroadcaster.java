@@ -0,0 +1,275 @@
+package com.nexus.cortex.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan-out of snapshot events to SSE subscribers.
+ *
+ * Backpressure is latest-wins per event name: each subscriber holds at most one
+ * unsent event per name, and a newer snapshot replaces an unsent one. Sends run on
+ * a small shared pool with at most one in-flight drain per subscriber, so a slow
+ * browser never blocks the publisher. A send is a blocking socket write, so a
+ * watchdog evicts any subscriber whose send has run longer than
+ * nexus.stream.send-timeout and interrupts its sender thread, keeping a few stalled
+ * browsers from holding the pool. A subscriber that keeps falling behind is evicted
+ * too, and reconnects (or falls back to polling) on its own.
+ * Falling behind is counted per refresh round (see beginRound), not per event name,
+ * since one refresh publishes an event for every source on the topic.
+ */
+@Component
+public class SseBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SseBroadcaster.class);
+
+    private final Map<StreamTopic, Set<Subscriber>> subscribers = new EnumMap<>(StreamTopic.class);
+    private final Map<StreamTopic, Map<String, StreamEvent>> latestEvents = new EnumMap<>(StreamTopic.class);
+    private final Map<StreamTopic, AtomicLong> rounds = new EnumMap<>(StreamTopic.class);
+    private final AtomicInteger totalSubscribers = new AtomicInteger();
+    private final ExecutorService senderExecutor;
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor();
+    private final int maxSubscribers;
+    private final int maxMissedSnapshots;
+    private final long emitterTimeoutMs;
+    private final long sendTimeoutNanos;
+    private final Counter droppedCounter;
+    private final Counter evictedCounter;
+    private final Counter rejectedCounter;
+
+    public SseBroadcaster(
+            MeterRegistry meterRegistry,
+            @Value("${nexus.stream.max-subscribers:1000}") int maxSubscribers,
+            @Value("${nexus.stream.max-missed-snapshots:3}") int maxMissedSnapshots,
+            @Value("${nexus.stream.emitter-timeout:30m}") Duration emitterTimeout,
+            @Value("${nexus.stream.sender-threads:4}") int senderThreads,
+            @Value("${nexus.stream.send-timeout:5s}") Duration sendTimeout) {
+        this.maxSubscribers = maxSubscribers;
+        this.maxMissedSnapshots = maxMissedSnapshots;
+        this.emitterTimeoutMs = emitterTimeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        // At most one drain task per subscriber is ever queued, so the queue is bounded by max-subscribers
+        this.senderExecutor = Executors.newFixedThreadPool(senderThreads);
+
+        for (StreamTopic topic : StreamTopic.values()) {
+            Set<Subscriber> topicSubscribers = ConcurrentHashMap.newKeySet();
+            subscribers.put(topic, topicSubscribers);
+            latestEvents.put(topic, new ConcurrentHashMap<>());
+            rounds.put(topic, new AtomicLong());
+            Gauge.builder("cortex.stream.subscribers", topicSubscribers, Set::size)
+                    .tag("topic", topic.path())
+                    .description("Open SSE subscriptions per topic")
+                    .register(meterRegistry);
+        }
+
+        this.droppedCounter = Counter.builder("cortex.stream.snapshots.dropped")
+                .description("Snapshots superseded before they could be sent to a slow subscriber")
+                .register(meterRegistry);
+        this.evictedCounter = Counter.builder("cortex.stream.subscribers.evicted")
+                .description("Subscribers disconnected for falling too far behind")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("cortex.stream.subscribers.rejected")
+                .description("Subscriptions refused because the subscriber cap was reached")
+                .register(meterRegistry);
+
+        long checkMillis = Math.max(100, sendTimeout.toMillis() / 2);
+        watchdog.scheduleWithFixedDelay(this::evictStalled, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(StreamTopic topic) {
+        if (totalSubscribers.incrementAndGet() > maxSubscribers) {
+            totalSubscribers.decrementAndGet();
+            rejectedCounter.increment();
+            throw new StreamCapacityException("Live updates unavailable: subscriber limit reached");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(topic, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.get(topic).add(subscriber);
+
+        // Replay the current snapshot so a new subscriber doesn't wait a full interval
+        long round = rounds.get(topic).get();
+        latestEvents.get(topic).forEach((eventName, event) -> subscriber.offer(eventName, event, round));
+
+        log.debug("SSE subscriber added to topic {} ({} total)", topic.path(), totalSubscribers.get());
+        return emitter;
+    }
+
+    /**
+     * Marks the start of a refresh of the topic; events published until the next call belong to it.
+     */
+    public void beginRound(StreamTopic topic) {
+        rounds.get(topic).incrementAndGet();
+    }
+
+    public void publish(StreamTopic topic, String eventName, StreamEvent event) {
+        latestEvents.get(topic).put(eventName, event);
+        long round = rounds.get(topic).get();
+        for (Subscriber subscriber : subscribers.get(topic)) {
+            subscriber.offer(eventName, event, round);
+        }
+    }
+
+    public boolean hasSubscribers(StreamTopic topic) {
+        return !subscribers.get(topic).isEmpty();
+    }
+
+    public boolean hasSnapshot(StreamTopic topic) {
+        return !latestEvents.get(topic).isEmpty();
+    }
+
+    private void evictStalled() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(topicSubscribers -> topicSubscribers.forEach(subscriber -> {
+            if (subscriber.interruptIfStalled(now)) {
+                subscriber.evict("send did not finish within the send timeout");
+            }
+        }));
+    }
+
+    private void remove(Subscriber subscriber) {
+        Set<Subscriber> topicSubscribers = subscribers.get(subscriber.topic);
+        if (topicSubscribers.remove(subscriber)) {
+            totalSubscribers.decrementAndGet();
+            // Drop the cached snapshot once nobody is listening so the next subscriber never sees stale data
+            if (topicSubscribers.isEmpty()) {
+                latestEvents.get(subscriber.topic).clear();
+            }
+            log.debug("SSE subscriber removed from topic {} ({} total)",
+                    subscriber.topic.path(), totalSubscribers.get());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(topicSubscribers ->
+                topicSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        watchdog.shutdownNow();
+        senderExecutor.shutdownNow();
+    }
+
+    private final class Subscriber {
+        private final StreamTopic topic;
+        private final SseEmitter emitter;
+        private final Map<String, StreamEvent> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicInteger missed = new AtomicInteger();
+        private final AtomicLong lastMissedRound = new AtomicLong(-1);
+        private final AtomicBoolean evicted = new AtomicBoolean();
+        // Thread blocked in emitter.send and when it started; guarded by this
+        private Thread sender;
+        private long sendStartedAt;
+
+        private Subscriber(StreamTopic topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+
+        private void offer(String eventName, StreamEvent event, long round) {
+            if (pending.put(eventName, event) != null) {
+                droppedCounter.increment();
+                // Several sources superseded in the same round are one missed snapshot
+                if (lastMissedRound.getAndSet(round) != round && missed.incrementAndGet() > maxMissedSnapshots) {
+                    evict("missed " + maxMissedSnapshots + " snapshots");
+                    return;
+                }
+            }
+            if (sending.compareAndSet(false, true)) {
+                senderExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    for (String eventName : pending.keySet()) {
+                        StreamEvent event = pending.remove(eventName);
+                        if (event != null && !evicted.get()) {
+                            send(eventName, event);
+                        }
+                    }
+                    missed.set(0);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the emitter callbacks may not fire for a broken pipe
+                    remove(this);
+                    pending.clear();
+                    return;
+                } finally {
+                    sending.set(false);
+                }
+            } while (!pending.isEmpty() && sending.compareAndSet(false, true));
+            // Evicted while this drain was sending; it was left to complete the emitter
+            if (evicted.get() && sending.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+
+        private void send(String eventName, StreamEvent event) throws IOException {
+            synchronized (this) {
+                sender = Thread.currentThread();
+                sendStartedAt = System.nanoTime();
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(eventName)
+                        .data(event, MediaType.APPLICATION_JSON));
+            } finally {
+                synchronized (this) {
+                    sender = null;
+                    // Don't carry an interrupt meant for this send into the next subscriber's drain
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private synchronized boolean interruptIfStalled(long now) {
+            if (sender == null || now - sendStartedAt <= sendTimeoutNanos) {
+                return false;
+            }
+            sender.interrupt();
+            sender = null;
+            return true;
+        }
+
+        /**
+         * Disconnects the subscriber. The emitter is completed here only if no drain is running;
+         * completing it mid-send would block on the stalled write, so the drain does it instead.
+         */
+        private void evict(String reason) {
+            if (!evicted.compareAndSet(false, true)) {
+                return;
+            }
+            log.warn("Evicting slow SSE subscriber on topic {}: {}", topic.path(), reason);
+            evictedCounter.increment();
+            remove(this);
+            pending.clear();
+            if (sending.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.nexus.cortex.stream;
+
+/**
+ * Thrown when the subscriber cap is reached. Mapped to 503 so the browser
+ * falls back to polling instead of holding another connection open.
+ */
+public class StreamCapacityException extends RuntimeException {
+    public StreamCapacityException(String message) {
+        super(message);
+    }
+}
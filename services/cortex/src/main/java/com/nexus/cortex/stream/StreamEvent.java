@@ -0,0 +1,22 @@
+package com.nexus.cortex.stream;
+
+import java.time.Instant;
+
+/**
+ * Envelope for a single SSE event. Exactly one of data or error is set, so a
+ * failing downstream replaces the last good snapshot instead of leaving it stale.
+ */
+public record StreamEvent(
+    Object data,
+    String error,
+    String traceId,
+    Instant timestamp
+) {
+    public static StreamEvent of(Object data) {
+        return new StreamEvent(data, null, null, Instant.now());
+    }
+
+    public static StreamEvent failed(String error, String traceId) {
+        return new StreamEvent(null, error, traceId, Instant.now());
+    }
+}
@@ -0,0 +1,31 @@
+package com.nexus.cortex.stream;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Topics that browsers can subscribe to via /api/v1/stream/{topic}.
+ * Each topic maps to one page of the frontend and is refreshed on its own interval.
+ */
+public enum StreamTopic {
+    DASHBOARD("dashboard"),
+    DOCKING("docking"),
+    POWER("power"),
+    CREW("crew");
+
+    private final String path;
+
+    StreamTopic(String path) {
+        this.path = path;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public static Optional<StreamTopic> fromPath(String path) {
+        return Arrays.stream(values())
+                .filter(topic -> topic.path.equalsIgnoreCase(path))
+                .findFirst();
+    }
+}
@@ -25,7 +25,7 @@ public class CrewController {
         return ResponseEntity.ok(crewService.getAllCrew());
     }
     
-    @GetMapping("/count")
+    @GetMapping({"/count", "/summary"})
     public ResponseEntity<CrewSummary> getCrewCount() {
         return ResponseEntity.ok(crewService.getCrewCount());
     }
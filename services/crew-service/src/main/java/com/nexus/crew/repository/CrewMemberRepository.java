@@ -24,5 +24,12 @@ public interface CrewMemberRepository extends JpaRepository<CrewMember, Long> {
     @Query("SELECT COUNT(cm) FROM CrewMember cm WHERE cm.sectionId = :sectionId")
     Integer countBySectionId(Long sectionId);
     
+    /**
+     * Crew counts grouped by status, used for the crew summary.
+     * Each row is [CrewStatus, Long count].
+     */
+    @Query("SELECT cm.status, COUNT(cm) FROM CrewMember cm GROUP BY cm.status")
+    List<Object[]> countGroupByStatus();
+    
     boolean existsByName(String name);
 }
@@ -18,7 +18,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -106,30 +108,22 @@ public class CrewService {
     }
     
     private CrewSummary buildCrewSummary() {
-        List<CrewMember> allCrew = crewMemberRepository.findAll();
+        Map<CrewMember.CrewStatus, Long> statusCounts = new EnumMap<>(CrewMember.CrewStatus.class);
+        for (Object[] row : crewMemberRepository.countGroupByStatus()) {
+            statusCounts.put((CrewMember.CrewStatus) row[0], (Long) row[1]);
+        }
         
-        long totalCrew = allCrew.size();
-        long activeCrew = allCrew.stream()
-                .filter(c -> c.getStatus() == CrewMember.CrewStatus.ACTIVE)
-                .count();
-        long onLeaveCrew = allCrew.stream()
-                .filter(c -> c.getStatus() == CrewMember.CrewStatus.ON_LEAVE)
-                .count();
-        long offDutyCrew = allCrew.stream()
-                .filter(c -> c.getStatus() == CrewMember.CrewStatus.OFF_DUTY)
-                .count();
-        long inTransitCrew = allCrew.stream()
-                .filter(c -> c.getStatus() == CrewMember.CrewStatus.IN_TRANSIT)
-                .count();
+        long totalCrew = statusCounts.values().stream().mapToLong(Long::longValue).sum();
+        long activeCrew = statusCounts.getOrDefault(CrewMember.CrewStatus.ACTIVE, 0L);
+        long onLeaveCrew = statusCounts.getOrDefault(CrewMember.CrewStatus.ON_LEAVE, 0L);
+        long offDutyCrew = statusCounts.getOrDefault(CrewMember.CrewStatus.OFF_DUTY, 0L);
+        long inTransitCrew = statusCounts.getOrDefault(CrewMember.CrewStatus.IN_TRANSIT, 0L);
         
-        List<Section> sections = sectionRepository.findAll();
-        int totalSections = sections.size();
-        int totalCapacity = sections.stream()
-                .mapToInt(Section::getMaxCapacity)
-                .sum();
-        int totalOccupancy = sections.stream()
-                .mapToInt(Section::getCurrentOccupancy)
-                .sum();
+        int totalSections = (int) sectionRepository.count();
+        Integer capacitySum = sectionRepository.getTotalCapacity();
+        Integer occupancySum = sectionRepository.getTotalOccupancy();
+        int totalCapacity = capacitySum != null ? capacitySum : 0;
+        int totalOccupancy = occupancySum != null ? occupancySum : 0;
         double overallOccupancyPercent = totalCapacity > 0 
                 ? (totalOccupancy * 100.0) / totalCapacity 
                 : 0;
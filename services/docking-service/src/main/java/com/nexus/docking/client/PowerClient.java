@@ -17,28 +17,40 @@ public class PowerClient {
 
     private static final Logger log = LoggerFactory.getLogger(PowerClient.class);
     private static final String SERVICE_NAME = "power-service";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     // Pattern to extract the "message" field from Spring error responses
     private static final Pattern MESSAGE_FIELD_PATTERN = Pattern.compile("\"message\"\\s*:\\s*\"([^\"]+)\"");
     // Pattern to extract chaos engineering details from the message
     private static final Pattern CHAOS_MESSAGE_PATTERN = Pattern.compile("\\[Chaos Engineering\\]\\s*(.+)");
 
     private final RestClient restClient;
+    private final PowerBatcher batcher;
 
     public PowerClient(
             RestClient.Builder restClientBuilder,
+            PowerBatcher batcher,
             @Value("${services.power.url}") String powerServiceUrl) {
         this.restClient = restClientBuilder
                 .baseUrl(powerServiceUrl)
                 .build();
+        this.batcher = batcher;
     }
 
-    public AllocationResponse allocatePowerForBay(Long bayId, Double amountKw) {
+    /**
+     * Allocate bay power. The idempotency key makes retries safe: power-service returns the
+     * original allocation instead of adding amountKw again.
+     */
+    public AllocationResponse allocatePowerForBay(Long bayId, Double amountKw, String idempotencyKey) {
         String system = "docking_bay_" + bayId;
         log.info("Calling {} to allocate {} kW for docking bay {}", SERVICE_NAME, amountKw, bayId);
 
         try {
+            if (batcher.isEnabled()) {
+                return allocateBatched(bayId, system, amountKw, idempotencyKey);
+            }
             var response = restClient.post()
                     .uri("/api/v1/power/allocate")
+                    .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
                     .body(Map.of(
                             "system", system,
                             "amountKw", amountKw,
@@ -49,6 +61,8 @@ public class PowerClient {
 
             log.info("Power allocation successful for docking bay {}: {}", bayId, response);
             return response;
+        } catch (PowerAllocationException e) {
+            throw e;
         } catch (HttpServerErrorException | HttpClientErrorException e) {
             String errorDetail = extractErrorDetail(e.getResponseBodyAsString());
             log.error("Call to {} failed for docking bay {}: {}", SERVICE_NAME, bayId, errorDetail);
@@ -64,11 +78,15 @@ public class PowerClient {
         log.info("Calling {} to deallocate power for docking bay {}", SERVICE_NAME, bayId);
 
         try {
-            restClient.post()
-                    .uri("/api/v1/power/deallocate")
-                    .body(Map.of("system", system))
-                    .retrieve()
-                    .toBodilessEntity();
+            if (batcher.isEnabled()) {
+                batcher.submit(PowerBatcher.Operation.deallocate(system));
+            } else {
+                restClient.post()
+                        .uri("/api/v1/power/deallocate")
+                        .body(Map.of("system", system))
+                        .retrieve()
+                        .toBodilessEntity();
+            }
 
             log.info("Power deallocation successful for docking bay: {}", bayId);
         } catch (HttpServerErrorException | HttpClientErrorException e) {
@@ -81,6 +99,19 @@ public class PowerClient {
         }
     }
 
+    private AllocationResponse allocateBatched(Long bayId, String system, Double amountKw, String idempotencyKey) {
+        PowerBatcher.Result result = batcher.submit(
+                PowerBatcher.Operation.allocate(system, amountKw, null, 4, idempotencyKey)); // Docking systems priority
+        if (!result.success()) {
+            log.error("Call to {} failed for docking bay {}: {}", SERVICE_NAME, bayId, result.message());
+            throw new PowerAllocationException(SERVICE_NAME, result.message());
+        }
+        var response = new AllocationResponse(
+                result.id(), system, result.allocatedKw(), 4, null, result.message());
+        log.info("Power allocation successful for docking bay {}: {}", bayId, response);
+        return response;
+    }
+
     private String extractErrorDetail(String responseBody) {
         if (responseBody == null || responseBody.isEmpty()) {
             return "Unknown error";
@@ -5,6 +5,8 @@ import com.nexus.docking.entity.DockingLog;
 import com.nexus.docking.entity.Ship;
 import com.nexus.docking.repository.DockingBayRepository;
 import com.nexus.docking.repository.DockingLogRepository;
+import com.nexus.docking.repository.DockingSagaRepository;
+import com.nexus.docking.repository.OutboxEventRepository;
 import com.nexus.docking.repository.ShipRepository;
 import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
@@ -30,17 +32,23 @@ public class DataInitializer implements ApplicationRunner {
     private final DockingBayRepository bayRepository;
     private final ShipRepository shipRepository;
     private final DockingLogRepository logRepository;
+    private final DockingSagaRepository sagaRepository;
+    private final OutboxEventRepository outboxRepository;
     private final EntityManager entityManager;
     private final RedisTemplate<String, String> redisTemplate;
 
     public DataInitializer(DockingBayRepository bayRepository,
                           ShipRepository shipRepository,
                           DockingLogRepository logRepository,
+                          DockingSagaRepository sagaRepository,
+                          OutboxEventRepository outboxRepository,
                           EntityManager entityManager,
                           RedisTemplate<String, String> redisTemplate) {
         this.bayRepository = bayRepository;
         this.shipRepository = shipRepository;
         this.logRepository = logRepository;
+        this.sagaRepository = sagaRepository;
+        this.outboxRepository = outboxRepository;
         this.entityManager = entityManager;
         this.redisTemplate = redisTemplate;
     }
@@ -104,6 +112,8 @@ public class DataInitializer implements ApplicationRunner {
         log.info("Resetting Docking Service tables...");
         
         // Delete in order respecting foreign key constraints (batch delete)
+        outboxRepository.deleteAllInBatch();
+        sagaRepository.deleteAllInBatch();
         logRepository.deleteAllInBatch();
         bayRepository.deleteAllInBatch();
         shipRepository.deleteAllInBatch();
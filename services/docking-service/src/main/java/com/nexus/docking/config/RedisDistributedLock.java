@@ -19,8 +19,7 @@ import java.util.UUID;
  *
  * Redis Key Prefixes used in this application:
  * - init:lock:{service} - DataInitializer locks to prevent duplicate seed data
- * - ship:return:{shipId} - Ship return scheduling keys (TTL triggers return)
- * - ship:return:lock:{shipId} - Lock for processing ship return events
+ * - ship:returns, ship:returns:claimed - Ship return queue (see ShipReturnQueue)
  */
 public class RedisDistributedLock {
 
@@ -0,0 +1,118 @@
+package com.nexus.docking.config;
+
+import com.nexus.docking.service.DockingService;
+import com.nexus.docking.service.ShipReturnQueue;
+import com.nexus.docking.service.ShipReturnQueue.DueReturn;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires scheduled ship returns from the durable ShipReturnQueue.
+ *
+ * Every replica polls, but each due return is claimed by exactly one of them. Returns
+ * survive restarts because they live in Redis rather than in key-expiry events, and at
+ * startup any DEPARTING ship missing from the queue is re-scheduled from the database.
+ * transitionShipToIncoming() is idempotent, so a return redelivered after an expired
+ * lease has no further effect.
+ *
+ * Metrics: docking.ship_return.lag (due time to firing), docking.ship_return.pending
+ */
+@Component
+public class ShipReturnPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(ShipReturnPoller.class);
+
+    private final ShipReturnQueue queue;
+    private final DockingService dockingService;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final Duration leaseTimeout;
+    private final Timer lagTimer;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor();
+
+    public ShipReturnPoller(
+            ShipReturnQueue queue,
+            DockingService dockingService,
+            MeterRegistry meterRegistry,
+            @Value("${nexus.docking.ship-return.poll-interval:500ms}") Duration pollInterval,
+            @Value("${nexus.docking.ship-return.batch-size:100}") int batchSize,
+            @Value("${nexus.docking.ship-return.lease-timeout:30s}") Duration leaseTimeout) {
+        this.queue = queue;
+        this.dockingService = dockingService;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.leaseTimeout = leaseTimeout;
+        this.lagTimer = Timer.builder("docking.ship_return.lag")
+                .description("Delay between a ship's scheduled return time and the return firing")
+                .register(meterRegistry);
+        Gauge.builder("docking.ship_return.pending", queue, ShipReturnPoller::safePendingCount)
+                .description("Ship returns waiting for their due time")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            dockingService.recoverPendingReturns();
+        } catch (Exception e) {
+            log.error("Failed to recover pending ship returns: {}", e.getMessage());
+        }
+        poller.scheduleWithFixedDelay(this::poll,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Ship return poller started (interval {}, batch {})", pollInterval, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+    }
+
+    private void poll() {
+        try {
+            List<DueReturn> due;
+            do {
+                Instant now = Instant.now();
+                due = queue.claimDue(now, batchSize, now.plus(leaseTimeout));
+                for (DueReturn dueReturn : due) {
+                    fire(dueReturn);
+                }
+            } while (due.size() == batchSize);
+        } catch (Exception e) {
+            log.warn("Failed to poll ship returns: {}", e.getMessage());
+        }
+    }
+
+    private void fire(DueReturn dueReturn) {
+        try {
+            lagTimer.record(Duration.between(dueReturn.dueAt(), Instant.now()));
+            dockingService.transitionShipToIncoming(dueReturn.shipId());
+            queue.complete(dueReturn.shipId());
+        } catch (Exception e) {
+            // Leave the claim in place; it is retried once the lease expires
+            log.error("Failed to process ship return for ship {}: {}", dueReturn.shipId(), e.getMessage());
+        }
+    }
+
+    private static double safePendingCount(ShipReturnQueue queue) {
+        try {
+            return queue.pendingCount();
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+}
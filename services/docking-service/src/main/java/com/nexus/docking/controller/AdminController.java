@@ -1,6 +1,7 @@
 package com.nexus.docking.controller;
 
 import com.nexus.docking.config.DataInitializer;
+import com.nexus.docking.service.BayAllocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -17,15 +18,18 @@ public class AdminController {
     private static final Logger log = LoggerFactory.getLogger(AdminController.class);
     
     private final DataInitializer dataInitializer;
+    private final BayAllocator bayAllocator;
     
-    public AdminController(DataInitializer dataInitializer) {
+    public AdminController(DataInitializer dataInitializer, BayAllocator bayAllocator) {
         this.dataInitializer = dataInitializer;
+        this.bayAllocator = bayAllocator;
     }
     
     @PostMapping("/resetTables")
     public ResponseEntity<Map<String, String>> resetTables() {
         log.info("Admin: Resetting tables for Docking Service");
         dataInitializer.resetTables();
+        bayAllocator.reconcile();
         return ResponseEntity.ok(Map.of(
             "service", "docking",
             "status", "success",
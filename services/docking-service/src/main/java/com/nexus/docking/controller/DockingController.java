@@ -1,12 +1,14 @@
 package com.nexus.docking.controller;
 
 import com.nexus.docking.dto.*;
+import com.nexus.docking.service.DockingSagaService;
 import com.nexus.docking.service.DockingService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -15,9 +17,16 @@ import java.util.Map;
 public class DockingController {
     
     private final DockingService dockingService;
+    private final DockingSagaService dockingSagaService;
     
-    public DockingController(DockingService dockingService) {
+    public DockingController(DockingService dockingService, DockingSagaService dockingSagaService) {
         this.dockingService = dockingService;
+        this.dockingSagaService = dockingSagaService;
+    }
+    
+    @GetMapping("/summary")
+    public ResponseEntity<DockingSummary> getSummary() {
+        return ResponseEntity.ok(dockingService.getSummary());
     }
     
     @GetMapping("/bays")
@@ -54,6 +63,9 @@ public class DockingController {
         DockResult result = dockingService.dockShip(shipId);
         if (result.success()) {
             return ResponseEntity.ok(result);
+        } else if (result.isPending()) {
+            // Saga still running = 202 Accepted; poll /sagas/{sagaId} for the outcome
+            return ResponseEntity.accepted().body(result);
         } else if (result.isDownstreamError()) {
             // Downstream service failure = 502 Bad Gateway
             return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(result);
@@ -77,9 +89,20 @@ public class DockingController {
         }
     }
     
+    @GetMapping("/sagas/{sagaId}")
+    public ResponseEntity<DockingSagaDto> getSaga(@PathVariable Long sagaId) {
+        return dockingSagaService.getSaga(sagaId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/logs")
-    public ResponseEntity<List<DockingLogDto>> getDockingLogs() {
-        return ResponseEntity.ok(dockingService.getDockingLogs());
+    public ResponseEntity<DockingLogPage> getDockingLogs(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(dockingService.getDockingLogs(from, to, cursor, limit));
     }
     
     @PostMapping("/schedule-delivery")
@@ -101,6 +124,12 @@ public class DockingController {
                 .body(Map.of("error", ex.getMessage()));
     }
     
+    @ExceptionHandler(DockingService.InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursor(DockingService.InvalidCursorException ex) {
+        return ResponseEntity.badRequest()
+                .body(Map.of("error", ex.getMessage()));
+    }
+    
     @ExceptionHandler(DockingService.NoBayAvailableException.class)
     public ResponseEntity<Map<String, String>> handleNoBayAvailable(DockingService.NoBayAvailableException ex) {
         return ResponseEntity.status(HttpStatus.CONFLICT)
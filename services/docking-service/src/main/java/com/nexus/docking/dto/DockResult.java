@@ -6,21 +6,36 @@ public record DockResult(
     Long shipId,
     String message,
     String downstreamService,
-    String innerError
+    String innerError,
+    Long sagaId,
+    String sagaStatus
 ) {
     public static DockResult success(Long bayId, Long shipId, String message) {
-        return new DockResult(true, bayId, shipId, message, null, null);
+        return new DockResult(true, bayId, shipId, message, null, null, null, null);
     }
 
     public static DockResult failure(Long shipId, String message) {
-        return new DockResult(false, null, shipId, message, null, null);
+        return new DockResult(false, null, shipId, message, null, null, null, null);
     }
 
     public static DockResult downstreamFailure(Long shipId, String message, String downstreamService, String innerError) {
-        return new DockResult(false, null, shipId, message, downstreamService, innerError);
+        return new DockResult(false, null, shipId, message, downstreamService, innerError, null, null);
+    }
+
+    public static DockResult fromSaga(DockingSagaDto saga) {
+        boolean completed = "COMPLETED".equals(saga.status());
+        return new DockResult(completed, saga.bayId(), saga.shipId(), saga.message(),
+                saga.downstreamService(), saga.innerError(), saga.id(), saga.status());
     }
 
     public boolean isDownstreamError() {
         return downstreamService != null;
     }
+
+    /**
+     * True while a docking saga has been accepted but not yet completed or failed.
+     */
+    public boolean isPending() {
+        return sagaId != null && !"COMPLETED".equals(sagaStatus) && !"FAILED".equals(sagaStatus);
+    }
 }
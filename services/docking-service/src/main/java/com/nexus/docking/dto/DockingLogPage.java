@@ -0,0 +1,12 @@
+package com.nexus.docking.dto;
+
+import java.util.List;
+
+/**
+ * A page of docking logs, newest first. Pass nextCursor as ?cursor= to fetch the
+ * following page; it is null on the last page.
+ */
+public record DockingLogPage(
+    List<DockingLogDto> logs,
+    String nextCursor
+) {}
@@ -0,0 +1,31 @@
+package com.nexus.docking.dto;
+
+import com.nexus.docking.entity.DockingSaga;
+
+import java.time.Instant;
+
+public record DockingSagaDto(
+    Long id,
+    Long shipId,
+    Long bayId,
+    String status,
+    String message,
+    String downstreamService,
+    String innerError,
+    Instant createdAt,
+    Instant updatedAt
+) {
+    public static DockingSagaDto fromEntity(DockingSaga saga) {
+        return new DockingSagaDto(
+            saga.getId(),
+            saga.getShipId(),
+            saga.getBayId(),
+            saga.getStatus().name(),
+            saga.getMessage(),
+            saga.getDownstreamService(),
+            saga.getInnerError(),
+            saga.getCreatedAt(),
+            saga.getUpdatedAt()
+        );
+    }
+}
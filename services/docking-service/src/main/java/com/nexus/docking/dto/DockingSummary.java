@@ -0,0 +1,10 @@
+package com.nexus.docking.dto;
+
+public record DockingSummary(
+    int totalBays,
+    int availableBays,
+    int occupiedBays,
+    int reservedBays,
+    int incomingShips,
+    int dockedShips
+) {}
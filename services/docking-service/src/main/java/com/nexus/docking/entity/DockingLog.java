@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "docking_logs")
+@Table(name = "docking_logs", indexes = {
+    // Keyset pagination and retention both walk (timestamp, id)
+    @Index(name = "idx_docking_logs_timestamp_id", columnList = "timestamp, id")
+})
 public class DockingLog {
     
     @Id
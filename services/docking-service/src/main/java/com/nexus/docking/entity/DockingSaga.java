@@ -0,0 +1,132 @@
+package com.nexus.docking.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Progress of a single docking request. The bay is reserved when the saga starts;
+ * downstream steps run afterwards, outside the reservation transaction.
+ */
+@Entity
+@Table(name = "docking_sagas", indexes = {
+    @Index(name = "idx_docking_sagas_ship_status", columnList = "ship_id, status")
+})
+public class DockingSaga {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "ship_id", nullable = false)
+    private Long shipId;
+    
+    @Column(name = "bay_id", nullable = false)
+    private Long bayId;
+    
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private SagaStatus status;
+    
+    @Column(length = 500)
+    private String message;
+    
+    @Column(name = "downstream_service")
+    private String downstreamService;
+    
+    @Column(name = "inner_error", length = 1000)
+    private String innerError;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+        updatedAt = Instant.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getShipId() {
+        return shipId;
+    }
+    
+    public void setShipId(Long shipId) {
+        this.shipId = shipId;
+    }
+    
+    public Long getBayId() {
+        return bayId;
+    }
+    
+    public void setBayId(Long bayId) {
+        this.bayId = bayId;
+    }
+    
+    public SagaStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(SagaStatus status) {
+        this.status = status;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public String getDownstreamService() {
+        return downstreamService;
+    }
+    
+    public void setDownstreamService(String downstreamService) {
+        this.downstreamService = downstreamService;
+    }
+    
+    public String getInnerError() {
+        return innerError;
+    }
+    
+    public void setInnerError(String innerError) {
+        this.innerError = innerError;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public boolean isFinished() {
+        return status == SagaStatus.COMPLETED || status == SagaStatus.FAILED;
+    }
+    
+    public enum SagaStatus {
+        PENDING,
+        POWER_ALLOCATED,
+        CARGO_UNLOADED,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,101 @@
+package com.nexus.docking.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Transactional outbox entry, written in the same transaction as the state change it
+ * announces. Workers claim unprocessed entries with a lease (lockedUntil) so an entry
+ * whose worker died is picked up again once the lease expires.
+ */
+@Entity
+@Table(name = "docking_outbox", indexes = {
+    @Index(name = "idx_docking_outbox_unprocessed", columnList = "processed_at, id")
+})
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "saga_id", nullable = false)
+    private Long sagaId;
+    
+    @Column(name = "event_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EventType eventType;
+    
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+    
+    @Column(name = "processed_at")
+    private Instant processedAt;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getSagaId() {
+        return sagaId;
+    }
+    
+    public void setSagaId(Long sagaId) {
+        this.sagaId = sagaId;
+    }
+    
+    public EventType getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(EventType eventType) {
+        this.eventType = eventType;
+    }
+    
+    public Integer getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+    
+    public Instant getLockedUntil() {
+        return lockedUntil;
+    }
+    
+    public void setLockedUntil(Instant lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+    
+    public Instant getProcessedAt() {
+        return processedAt;
+    }
+    
+    public void setProcessedAt(Instant processedAt) {
+        this.processedAt = processedAt;
+    }
+    
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+    
+    public enum EventType {
+        DOCK_REQUESTED
+    }
+}
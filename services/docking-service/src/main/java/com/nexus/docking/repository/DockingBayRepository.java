@@ -1,9 +1,7 @@
 package com.nexus.docking.repository;
 
 import com.nexus.docking.entity.DockingBay;
-import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -15,6 +13,14 @@ public interface DockingBayRepository extends JpaRepository<DockingBay, Long> {
 
     List<DockingBay> findAllByOrderByBayNumberAsc();
 
+    /**
+     * All bays with the name of the docked ship, in one query.
+     * Each row is [DockingBay, String shipName] (shipName is null for empty bays).
+     */
+    @Query("SELECT b, s.name FROM DockingBay b LEFT JOIN Ship s ON s.id = b.currentShipId " +
+            "ORDER BY b.bayNumber ASC")
+    List<Object[]> findAllWithShipNameOrderByBayNumberAsc();
+
     List<DockingBay> findByStatus(DockingBay.BayStatus status);
 
     Optional<DockingBay> findByBayNumber(Integer bayNumber);
@@ -24,14 +30,22 @@ public interface DockingBayRepository extends JpaRepository<DockingBay, Long> {
     Optional<DockingBay> findFirstByStatusOrderByBayNumberAsc(DockingBay.BayStatus status);
 
     /**
-     * Find an available bay with pessimistic write lock to prevent race conditions
-     * when multiple ships try to dock simultaneously.
+     * Claim the lowest-numbered available bay, skipping bays already locked by
+     * concurrent docking transactions so each one gets a different bay instead of
+     * queueing on the same row. Must be called inside a transaction.
      */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT b FROM DockingBay b WHERE b.status = :status ORDER BY b.bayNumber ASC LIMIT 1")
-    Optional<DockingBay> findFirstAvailableBayWithLock(DockingBay.BayStatus status);
+    @Query(value = "SELECT * FROM docking_bays WHERE status = 'AVAILABLE' " +
+            "ORDER BY bay_number LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<DockingBay> claimFirstAvailableBay();
 
     boolean existsByBayNumber(Integer bayNumber);
 
     long countByStatus(DockingBay.BayStatus status);
+
+    /**
+     * Bay counts grouped by status, used for the dashboard summary.
+     * Each row is [BayStatus, Long count].
+     */
+    @Query("SELECT b.status, COUNT(b) FROM DockingBay b GROUP BY b.status")
+    List<Object[]> countGroupByStatus();
 }
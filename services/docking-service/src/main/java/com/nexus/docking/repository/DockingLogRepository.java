@@ -1,7 +1,9 @@
 package com.nexus.docking.repository;
 
 import com.nexus.docking.entity.DockingLog;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -19,4 +21,18 @@ public interface DockingLogRepository extends JpaRepository<DockingLog, Long> {
     List<DockingLog> findAllByOrderByTimestampDesc();
     
     List<DockingLog> findByTimestampAfterOrderByTimestampDesc(Instant since);
+    
+    /**
+     * One page of logs in [from, to), newest first, strictly after the (cursorTimestamp, cursorId)
+     * position of the previous page. Served from idx_docking_logs_timestamp_id.
+     */
+    @Query("SELECT l FROM DockingLog l WHERE l.timestamp >= :from AND l.timestamp < :to " +
+            "AND (l.timestamp < :cursorTimestamp OR (l.timestamp = :cursorTimestamp AND l.id < :cursorId)) " +
+            "ORDER BY l.timestamp DESC, l.id DESC")
+    List<DockingLog> findPage(Instant from, Instant to, Instant cursorTimestamp, Long cursorId, Limit limit);
+    
+    /**
+     * Oldest logs before the cutoff, used by the retention job.
+     */
+    List<DockingLog> findByTimestampBeforeOrderByTimestampAscIdAsc(Instant cutoff, Limit limit);
 }
@@ -0,0 +1,24 @@
+package com.nexus.docking.repository;
+
+import com.nexus.docking.entity.DockingSaga;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface DockingSagaRepository extends JpaRepository<DockingSaga, Long> {
+
+    boolean existsByShipIdAndStatusIn(Long shipId, List<DockingSaga.SagaStatus> statuses);
+
+    /**
+     * Move a saga to a new status only if it is still in the expected one. Returns 0 when
+     * another worker has already moved it.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DockingSaga s SET s.status = :to, s.updatedAt = :now WHERE s.id = :id AND s.status = :from")
+    int transition(Long id, DockingSaga.SagaStatus from, DockingSaga.SagaStatus to, Instant now);
+}
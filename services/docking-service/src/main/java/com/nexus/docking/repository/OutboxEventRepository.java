@@ -0,0 +1,35 @@
+package com.nexus.docking.repository;
+
+import com.nexus.docking.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock a batch of unprocessed events whose lease is free or expired, skipping events
+     * another worker is claiming right now. Must be called inside a transaction.
+     */
+    @Query(value = "SELECT * FROM docking_outbox WHERE processed_at IS NULL " +
+            "AND (locked_until IS NULL OR locked_until < :now) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockClaimable(Instant now, int limit);
+
+    Optional<OutboxEvent> findFirstBySagaIdAndProcessedAtIsNull(Long sagaId);
+
+    /**
+     * Extend the lease on a saga's unprocessed event, unless it has been claimed again since
+     * (every claim increments attempts). Returns 0 when the lease is no longer ours.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.lockedUntil = :until " +
+            "WHERE e.sagaId = :sagaId AND e.processedAt IS NULL AND e.attempts = :attempts")
+    int renewLease(Long sagaId, int attempts, Instant until);
+}
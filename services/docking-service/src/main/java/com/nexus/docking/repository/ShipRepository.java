@@ -2,6 +2,7 @@ package com.nexus.docking.repository;
 
 import com.nexus.docking.entity.Ship;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,4 +21,11 @@ public interface ShipRepository extends JpaRepository<Ship, Long> {
     boolean existsByName(String name);
     
     long countByStatus(Ship.ShipStatus status);
+    
+    /**
+     * Ship counts grouped by status, used for the dashboard summary.
+     * Each row is [ShipStatus, Long count].
+     */
+    @Query("SELECT s.status, COUNT(s) FROM Ship s GROUP BY s.status")
+    List<Object[]> countGroupByStatus();
 }
@@ -0,0 +1,129 @@
+package com.nexus.docking.service;
+
+import com.nexus.docking.entity.DockingBay;
+import com.nexus.docking.repository.DockingBayRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out docking bays and keeps the shared available-bay count up to date.
+ *
+ * - Bays are claimed with FOR UPDATE SKIP LOCKED, so concurrent docks (on any replica)
+ *   each lock a different free bay instead of serializing on the first one
+ * - docking:bays:available is adjusted with INCRBY/DECRBY after each dock/undock commits,
+ *   instead of re-counting the docking_bays table every time
+ * - The counter is rebuilt from the database at startup, after a table reset, if the key
+ *   is missing, and every nexus.docking.bay-count-reconcile-interval to correct any drift
+ */
+@Service
+public class BayAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(BayAllocator.class);
+
+    private static final String REDIS_BAYS_AVAILABLE = "docking:bays:available";
+
+    // Only adjust an existing counter; a missing key is rebuilt from the database instead
+    private static final String ADJUST_IF_EXISTS_SCRIPT =
+            "if redis.call('exists', KEYS[1]) == 1 then " +
+            "    return redis.call('incrby', KEYS[1], ARGV[1]) " +
+            "else " +
+            "    return nil " +
+            "end";
+
+    private final DockingBayRepository bayRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final DefaultRedisScript<Long> adjustScript;
+    private final Duration reconcileInterval;
+    private final ScheduledExecutorService reconciler = Executors.newSingleThreadScheduledExecutor();
+
+    public BayAllocator(
+            DockingBayRepository bayRepository,
+            RedisTemplate<String, String> redisTemplate,
+            @Value("${nexus.docking.bay-count-reconcile-interval:60s}") Duration reconcileInterval) {
+        this.bayRepository = bayRepository;
+        this.redisTemplate = redisTemplate;
+        this.reconcileInterval = reconcileInterval;
+        this.adjustScript = new DefaultRedisScript<>(ADJUST_IF_EXISTS_SCRIPT, Long.class);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconciler.scheduleWithFixedDelay(this::reconcile,
+                0, reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        reconciler.shutdownNow();
+    }
+
+    /**
+     * Lock a free bay for the current transaction. The lock is held until commit.
+     */
+    public Optional<DockingBay> claimAvailableBay() {
+        return bayRepository.claimFirstAvailableBay();
+    }
+
+    public void bayOccupied() {
+        adjustAfterCommit(-1);
+    }
+
+    public void bayReleased() {
+        adjustAfterCommit(1);
+    }
+
+    /**
+     * Rebuild the available-bay counter from the database.
+     */
+    public void reconcile() {
+        try {
+            long availableBays = bayRepository.countByStatus(DockingBay.BayStatus.AVAILABLE);
+            redisTemplate.opsForValue().set(REDIS_BAYS_AVAILABLE, String.valueOf(availableBays));
+            log.debug("Reconciled available bay count: {}", availableBays);
+        } catch (Exception e) {
+            log.warn("Failed to reconcile available bay count: {}", e.getMessage());
+        }
+    }
+
+    private void adjustAfterCommit(int delta) {
+        // A rolled-back dock must not move the counter, so wait for the commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjust(delta);
+                }
+            });
+        } else {
+            adjust(delta);
+        }
+    }
+
+    private void adjust(int delta) {
+        try {
+            Long result = redisTemplate.execute(adjustScript,
+                    Collections.singletonList(REDIS_BAYS_AVAILABLE), String.valueOf(delta));
+            if (result == null) {
+                reconcile();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to update Redis cache: {}", e.getMessage());
+        }
+    }
+}
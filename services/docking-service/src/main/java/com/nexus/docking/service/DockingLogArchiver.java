@@ -0,0 +1,147 @@
+package com.nexus.docking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus.docking.config.RedisDistributedLock;
+import com.nexus.docking.dto.DockingLogDto;
+import com.nexus.docking.entity.DockingLog;
+import com.nexus.docking.repository.DockingLogRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Enforces docking log retention so the table (and the log API) doesn't grow without bound.
+ *
+ * Every nexus.docking.logs.retention-check-interval, logs older than nexus.docking.logs.retention
+ * are written to gzipped NDJSON files under nexus.docking.logs.archive-dir (one file per batch)
+ * and then deleted. Only one replica runs a pass at a time.
+ *
+ * The archive dir must be persistent storage shared by every replica (a volume, not the container
+ * filesystem), since whichever replica holds the lock writes the files. Retention is off unless
+ * nexus.docking.logs.archive-enabled is set and archive-dir is configured; logs are never deleted
+ * without being archived.
+ */
+@Service
+public class DockingLogArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(DockingLogArchiver.class);
+    private static final String LOCK_KEY = "docking:logs:archive:lock";
+
+    private final DockingLogRepository logRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Duration interval;
+    private final boolean archiveEnabled;
+    private final Path archiveDir;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    public DockingLogArchiver(
+            DockingLogRepository logRepository,
+            RedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${nexus.docking.logs.retention:7d}") Duration retention,
+            @Value("${nexus.docking.logs.retention-check-interval:1h}") Duration interval,
+            @Value("${nexus.docking.logs.archive-enabled:false}") boolean archiveEnabled,
+            @Value("${nexus.docking.logs.archive-dir:}") String archiveDir,
+            @Value("${nexus.docking.logs.archive-batch-size:5000}") int batchSize) {
+        this.logRepository = logRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.interval = interval;
+        this.archiveEnabled = archiveEnabled;
+        this.archiveDir = archiveDir.isBlank() ? null : Paths.get(archiveDir);
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!archiveEnabled) {
+            log.info("Docking log retention disabled (nexus.docking.logs.archive-enabled is off)");
+            return;
+        }
+        if (archiveDir == null) {
+            log.warn("Docking log retention disabled: set nexus.docking.logs.archive-dir to a persistent volume");
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::runRetention,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Docking log retention: {} (archive to {})", retention, archiveDir);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void runRetention() {
+        RedisDistributedLock lock = new RedisDistributedLock(redisTemplate, LOCK_KEY, interval);
+        if (!lock.tryAcquire()) {
+            log.debug("Docking log retention already running on another replica");
+            return;
+        }
+        try {
+            Instant cutoff = Instant.now().minus(retention);
+            long removed = 0;
+            List<DockingLog> batch;
+            do {
+                batch = logRepository.findByTimestampBeforeOrderByTimestampAscIdAsc(cutoff, Limit.of(batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                archive(batch);
+                logRepository.deleteAllByIdInBatch(batch.stream().map(DockingLog::getId).toList());
+                removed += batch.size();
+            } while (batch.size() == batchSize);
+
+            if (removed > 0) {
+                log.info("Removed {} docking logs older than {}", removed, cutoff);
+            }
+        } catch (Exception e) {
+            // Rows are only deleted after their batch is archived, so the next pass picks up where this stopped
+            log.error("Docking log retention failed: {}", e.getMessage());
+        } finally {
+            lock.release();
+        }
+    }
+
+    private void archive(List<DockingLog> batch) throws IOException {
+        Files.createDirectories(archiveDir);
+        DockingLog first = batch.get(0);
+        DockingLog last = batch.get(batch.size() - 1);
+        Path file = archiveDir.resolve(String.format("docking-logs-%d-%d.ndjson.gz", first.getId(), last.getId()));
+
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file));
+             Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            for (DockingLog entry : batch) {
+                writer.write(objectMapper.writeValueAsString(DockingLogDto.fromEntity(entry)));
+                writer.write('\n');
+            }
+        }
+        log.debug("Archived {} docking logs to {}", batch.size(), file);
+    }
+}
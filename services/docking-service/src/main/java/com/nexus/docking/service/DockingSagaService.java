@@ -0,0 +1,297 @@
+package com.nexus.docking.service;
+
+import com.nexus.docking.dto.DockResult;
+import com.nexus.docking.dto.DockingSagaDto;
+import com.nexus.docking.entity.DockingBay;
+import com.nexus.docking.entity.DockingLog;
+import com.nexus.docking.entity.DockingSaga;
+import com.nexus.docking.entity.OutboxEvent;
+import com.nexus.docking.entity.Ship;
+import com.nexus.docking.repository.DockingBayRepository;
+import com.nexus.docking.repository.DockingLogRepository;
+import com.nexus.docking.repository.DockingSagaRepository;
+import com.nexus.docking.repository.OutboxEventRepository;
+import com.nexus.docking.repository.ShipRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Local state transitions of the docking saga. Every method is a short transaction;
+ * the downstream calls between them are made by DockingSagaWorker without holding
+ * a transaction or row lock.
+ *
+ * start:    reserve bay + saga PENDING + outbox DOCK_REQUESTED (one commit)
+ * advance:  PENDING -> POWER_ALLOCATED -> CARGO_UNLOADED
+ * complete: bay OCCUPIED, ship DOCKED, docking log, saga COMPLETED, outbox processed
+ * fail:     bay released, saga FAILED, outbox processed (after the worker compensated)
+ *
+ * Transitions only apply if the saga is still in the status the worker last saw, so a worker
+ * whose lease was taken over gets a SagaConflictException instead of overwriting newer progress.
+ */
+@Service
+public class DockingSagaService {
+
+    private static final Logger log = LoggerFactory.getLogger(DockingSagaService.class);
+
+    private static final Duration OUTCOME_POLL_INTERVAL = Duration.ofMillis(250);
+
+    private static final List<DockingSaga.SagaStatus> ACTIVE_STATUSES = List.of(
+            DockingSaga.SagaStatus.PENDING,
+            DockingSaga.SagaStatus.POWER_ALLOCATED,
+            DockingSaga.SagaStatus.CARGO_UNLOADED);
+
+    private final DockingBayRepository bayRepository;
+    private final ShipRepository shipRepository;
+    private final DockingLogRepository logRepository;
+    private final DockingSagaRepository sagaRepository;
+    private final OutboxEventRepository outboxRepository;
+    private final BayAllocator bayAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Long, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+
+    public DockingSagaService(
+            DockingBayRepository bayRepository,
+            ShipRepository shipRepository,
+            DockingLogRepository logRepository,
+            DockingSagaRepository sagaRepository,
+            OutboxEventRepository outboxRepository,
+            BayAllocator bayAllocator,
+            ApplicationEventPublisher eventPublisher) {
+        this.bayRepository = bayRepository;
+        this.shipRepository = shipRepository;
+        this.logRepository = logRepository;
+        this.sagaRepository = sagaRepository;
+        this.outboxRepository = outboxRepository;
+        this.bayAllocator = bayAllocator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public DockResult startDocking(Long shipId) {
+        Ship ship = shipRepository.findById(shipId)
+                .orElseThrow(() -> new DockingService.ShipNotFoundException("Ship not found with ID: " + shipId));
+
+        if (ship.getStatus() == Ship.ShipStatus.DOCKED) {
+            return DockResult.failure(shipId, "Ship is already docked");
+        }
+        if (sagaRepository.existsByShipIdAndStatusIn(shipId, ACTIVE_STATUSES)) {
+            return DockResult.failure(shipId, "Ship is already docking");
+        }
+
+        // Claim a free bay; concurrent docks skip bays already locked by each other
+        DockingBay bay = bayAllocator.claimAvailableBay()
+                .orElseThrow(() -> new DockingService.NoBayAvailableException("No docking bay available"));
+
+        log.info("Reserving bay {} for ship '{}'", bay.getBayNumber(), ship.getName());
+        bay.setStatus(DockingBay.BayStatus.RESERVED);
+        bay.setCurrentShipId(shipId);
+        bayRepository.save(bay);
+
+        DockingSaga saga = new DockingSaga();
+        saga.setShipId(shipId);
+        saga.setBayId(bay.getId());
+        saga.setStatus(DockingSaga.SagaStatus.PENDING);
+        saga.setMessage(String.format("Docking ship '%s' at bay %d", ship.getName(), bay.getBayNumber()));
+        saga = sagaRepository.save(saga);
+
+        OutboxEvent event = new OutboxEvent();
+        event.setSagaId(saga.getId());
+        event.setEventType(OutboxEvent.EventType.DOCK_REQUESTED);
+        outboxRepository.save(event);
+
+        bayAllocator.bayOccupied();
+        // Delivered to the worker after commit so it never sees an uncommitted saga
+        eventPublisher.publishEvent(new DockingRequested(saga.getId()));
+
+        return DockResult.fromSaga(DockingSagaDto.fromEntity(saga));
+    }
+
+    /**
+     * Lease a batch of outbox events for processing and return their saga IDs with the
+     * number of attempts made so far (including this one).
+     */
+    @Transactional
+    public List<ClaimedSaga> claimPending(int limit, Duration lease) {
+        Instant now = Instant.now();
+        return outboxRepository.lockClaimable(now, limit).stream()
+                .map(event -> {
+                    event.setLockedUntil(now.plus(lease));
+                    event.setAttempts(event.getAttempts() + 1);
+                    return new ClaimedSaga(event.getSagaId(), event.getAttempts());
+                })
+                .toList();
+    }
+
+    /**
+     * Extend the worker's lease on the saga's outbox event.
+     *
+     * @return false if the lease expired and another worker has claimed the saga since
+     */
+    @Transactional
+    public boolean renewLease(ClaimedSaga claimed, Duration lease) {
+        return outboxRepository.renewLease(claimed.sagaId(), claimed.attempts(), Instant.now().plus(lease)) > 0;
+    }
+
+    @Transactional
+    public DockingSaga advance(Long sagaId, DockingSaga.SagaStatus from, DockingSaga.SagaStatus to) {
+        transition(sagaId, from, to);
+        return getSagaEntity(sagaId);
+    }
+
+    @Transactional
+    public DockingSaga complete(Long sagaId) {
+        transition(sagaId, DockingSaga.SagaStatus.CARGO_UNLOADED, DockingSaga.SagaStatus.COMPLETED);
+        DockingSaga saga = getSagaEntity(sagaId);
+        Ship ship = shipRepository.findById(saga.getShipId())
+                .orElseThrow(() -> new DockingService.ShipNotFoundException("Ship not found with ID: " + saga.getShipId()));
+        DockingBay bay = bayRepository.findById(saga.getBayId())
+                .orElseThrow(() -> new DockingService.BayNotFoundException("Bay not found with ID: " + saga.getBayId()));
+
+        bay.setStatus(DockingBay.BayStatus.OCCUPIED);
+        bay.setCurrentShipId(ship.getId());
+        bayRepository.save(bay);
+
+        ship.setStatus(Ship.ShipStatus.DOCKED);
+        ship.setArrivalTime(Instant.now());
+        shipRepository.save(ship);
+
+        DockingLog dockLog = new DockingLog();
+        dockLog.setShipId(ship.getId());
+        dockLog.setBayId(bay.getId());
+        dockLog.setAction(DockingLog.DockingAction.DOCK);
+        logRepository.save(dockLog);
+
+        saga.setMessage(String.format("Ship '%s' docked successfully at bay %d", ship.getName(), bay.getBayNumber()));
+        markProcessed(sagaId);
+
+        log.info("Ship '{}' successfully docked at bay {}", ship.getName(), bay.getBayNumber());
+        return sagaRepository.save(saga);
+    }
+
+    @Transactional
+    public DockingSaga fail(Long sagaId, DockingSaga.SagaStatus from, String message,
+                            String downstreamService, String innerError) {
+        transition(sagaId, from, DockingSaga.SagaStatus.FAILED);
+        DockingSaga saga = getSagaEntity(sagaId);
+
+        // Release the reserved bay unless something else has taken it since
+        bayRepository.findById(saga.getBayId()).ifPresent(bay -> {
+            if (saga.getShipId().equals(bay.getCurrentShipId())
+                    && bay.getStatus() == DockingBay.BayStatus.RESERVED) {
+                bay.setStatus(DockingBay.BayStatus.AVAILABLE);
+                bay.setCurrentShipId(null);
+                bayRepository.save(bay);
+                bayAllocator.bayReleased();
+            }
+        });
+
+        saga.setMessage(message);
+        saga.setDownstreamService(downstreamService);
+        saga.setInnerError(innerError);
+        markProcessed(sagaId);
+
+        log.warn("Docking saga {} for ship {} failed: {}", sagaId, saga.getShipId(), message);
+        return sagaRepository.save(saga);
+    }
+
+    public Optional<DockingSagaDto> getSaga(Long sagaId) {
+        return sagaRepository.findById(sagaId).map(DockingSagaDto::fromEntity);
+    }
+
+    /**
+     * Wait up to the timeout for the saga to finish. Returns the current state either way,
+     * so callers get a pending result instead of blocking indefinitely.
+     *
+     * A worker on this instance wakes the wait as soon as it finishes the saga; the saga row is
+     * re-read every 250ms to pick up sagas finished by another replica's worker.
+     */
+    public DockingSagaDto awaitOutcome(Long sagaId, Duration timeout) {
+        CompletableFuture<Void> finished = waiters.computeIfAbsent(sagaId, id -> new CompletableFuture<>());
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            // The saga may have finished before we registered
+            DockingSagaDto current = getSaga(sagaId).orElseThrow();
+            while (!"COMPLETED".equals(current.status()) && !"FAILED".equals(current.status())) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    log.debug("Docking saga {} still running after {}", sagaId, timeout);
+                    break;
+                }
+                try {
+                    finished.get(Math.min(remaining, OUTCOME_POLL_INTERVAL.toNanos()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    // Not finished here; check whether another replica finished it
+                }
+                current = getSaga(sagaId).orElseThrow();
+            }
+            return current;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Never completed exceptionally
+        } finally {
+            waiters.remove(sagaId);
+        }
+        return getSaga(sagaId).orElseThrow();
+    }
+
+    /**
+     * Wake a request on this instance waiting for the saga, if any. Waiters on other
+     * instances see the outcome on their next poll.
+     */
+    public void notifyFinished(Long sagaId) {
+        CompletableFuture<Void> finished = waiters.get(sagaId);
+        if (finished != null) {
+            finished.complete(null);
+        }
+    }
+
+    private void markProcessed(Long sagaId) {
+        outboxRepository.findFirstBySagaIdAndProcessedAtIsNull(sagaId).ifPresent(event -> {
+            event.setProcessedAt(Instant.now());
+            outboxRepository.save(event);
+        });
+    }
+
+    private void transition(Long sagaId, DockingSaga.SagaStatus from, DockingSaga.SagaStatus to) {
+        if (sagaRepository.transition(sagaId, from, to, Instant.now()) == 0) {
+            throw new SagaConflictException(
+                    String.format("Docking saga %d is no longer %s; another worker has taken it over", sagaId, from));
+        }
+    }
+
+    private DockingSaga getSagaEntity(Long sagaId) {
+        return sagaRepository.findById(sagaId)
+                .orElseThrow(() -> new SagaNotFoundException("Docking saga not found with ID: " + sagaId));
+    }
+
+    public record DockingRequested(Long sagaId) {}
+
+    public record ClaimedSaga(Long sagaId, int attempts) {}
+
+    public static class SagaNotFoundException extends RuntimeException {
+        public SagaNotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    public static class SagaConflictException extends RuntimeException {
+        public SagaConflictException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.nexus.docking.service;
+
+import com.nexus.docking.client.CrewClient;
+import com.nexus.docking.client.InventoryClient;
+import com.nexus.docking.client.PowerClient;
+import com.nexus.docking.entity.DockingSaga;
+import com.nexus.docking.entity.Ship;
+import com.nexus.docking.repository.DockingSagaRepository;
+import com.nexus.docking.repository.ShipRepository;
+import com.nexus.docking.service.DockingSagaService.ClaimedSaga;
+import com.nexus.docking.service.DockingSagaService.DockingRequested;
+import com.nexus.docking.service.DockingSagaService.SagaConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the downstream steps of docking sagas from the outbox.
+ *
+ * Steps (each persisted before the next, so a retried saga resumes where it stopped):
+ * 1. Allocate bay power (power-service)
+ * 2. Unload cargo for cargo ships (inventory-service)
+ * 3. Mark bay OCCUPIED and ship DOCKED, then register crew arrival (crew-service, best effort)
+ *
+ * A downstream failure compensates the completed steps (power is deallocated) and releases
+ * the bay. Unexpected errors leave the outbox lease to expire so the saga is retried, up to
+ * nexus.docking.saga.max-attempts. New sagas are picked up immediately after commit on the
+ * instance that created them; the poll interval covers restarts and other replicas.
+ *
+ * The lease is renewed before every step and before compensating. If it has been lost (the
+ * step outlasted it and another worker claimed the saga) this worker stops, and a transition
+ * made after the other worker moved the saga on is rejected by DockingSagaService.
+ */
+@Component
+public class DockingSagaWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(DockingSagaWorker.class);
+    private static final double POWER_PER_BAY_KW = 50.0;
+
+    private final DockingSagaService sagaService;
+    private final DockingSagaRepository sagaRepository;
+    private final ShipRepository shipRepository;
+    private final PowerClient powerClient;
+    private final InventoryClient inventoryClient;
+    private final CrewClient crewClient;
+    private final Tracer tracer;
+    private final boolean customSpansEnabled;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Semaphore capacity;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService workers;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Timer durationTimer;
+
+    public DockingSagaWorker(
+            DockingSagaService sagaService,
+            DockingSagaRepository sagaRepository,
+            ShipRepository shipRepository,
+            PowerClient powerClient,
+            InventoryClient inventoryClient,
+            CrewClient crewClient,
+            Tracer tracer,
+            MeterRegistry meterRegistry,
+            @Value("${nexus.telemetry.custom-spans:false}") boolean customSpansEnabled,
+            @Value("${nexus.docking.saga.worker-threads:8}") int workerThreads,
+            @Value("${nexus.docking.saga.poll-interval:1s}") Duration pollInterval,
+            @Value("${nexus.docking.saga.lease:60s}") Duration lease,
+            @Value("${nexus.docking.saga.max-attempts:5}") int maxAttempts) {
+        this.sagaService = sagaService;
+        this.sagaRepository = sagaRepository;
+        this.shipRepository = shipRepository;
+        this.powerClient = powerClient;
+        this.inventoryClient = inventoryClient;
+        this.crewClient = crewClient;
+        this.tracer = tracer;
+        this.customSpansEnabled = customSpansEnabled;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.capacity = new Semaphore(workerThreads);
+        this.workers = Executors.newFixedThreadPool(workerThreads);
+        this.completedCounter = Counter.builder("docking.saga.finished")
+                .tag("outcome", "completed")
+                .description("Docking sagas that reached a final state")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("docking.saga.finished")
+                .tag("outcome", "failed")
+                .description("Docking sagas that reached a final state")
+                .register(meterRegistry);
+        this.durationTimer = Timer.builder("docking.saga.duration")
+                .description("Time from docking request to saga completion or failure")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        poller.scheduleWithFixedDelay(this::drain,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    @TransactionalEventListener
+    public void onDockingRequested(DockingRequested event) {
+        poller.execute(this::drain);
+    }
+
+    private void drain() {
+        try {
+            int available = capacity.availablePermits();
+            if (available == 0) {
+                return;
+            }
+            List<ClaimedSaga> claimed = sagaService.claimPending(available, lease);
+            for (ClaimedSaga saga : claimed) {
+                capacity.acquireUninterruptibly();
+                workers.execute(() -> {
+                    try {
+                        process(saga);
+                    } finally {
+                        capacity.release();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            log.warn("Failed to claim docking sagas: {}", e.getMessage());
+        }
+    }
+
+    private void process(ClaimedSaga claimed) {
+        if (customSpansEnabled) {
+            Span span = tracer.spanBuilder("docking.saga.process")
+                    .setAttribute("docking.saga_id", claimed.sagaId())
+                    .setAttribute("docking.saga_attempt", claimed.attempts())
+                    .startSpan();
+            try (Scope scope = span.makeCurrent()) {
+                runSteps(claimed);
+            } finally {
+                span.end();
+            }
+            return;
+        }
+        runSteps(claimed);
+    }
+
+    private void runSteps(ClaimedSaga claimed) {
+        Long sagaId = claimed.sagaId();
+        DockingSaga saga = sagaRepository.findById(sagaId).orElse(null);
+        if (saga == null || saga.isFinished()) {
+            return;
+        }
+
+        try {
+            Ship ship = shipRepository.findById(saga.getShipId())
+                    .orElseThrow(() -> new DockingService.ShipNotFoundException("Ship not found with ID: " + saga.getShipId()));
+
+            DockingSaga current = saga;
+            if (current.getStatus() == DockingSaga.SagaStatus.PENDING) {
+                if (!holdsLease(claimed)) {
+                    return;
+                }
+                current = allocatePower(claimed, current);
+                if (current.isFinished()) {
+                    return;
+                }
+            }
+            if (current.getStatus() == DockingSaga.SagaStatus.POWER_ALLOCATED) {
+                if (!holdsLease(claimed)) {
+                    return;
+                }
+                current = unloadCargo(claimed, current, ship);
+                if (current.isFinished()) {
+                    return;
+                }
+            }
+            if (current.getStatus() == DockingSaga.SagaStatus.CARGO_UNLOADED) {
+                if (!holdsLease(claimed)) {
+                    return;
+                }
+                finish(sagaService.complete(sagaId));
+                // Register crew arrival if ship has crew; failures don't undo the docking
+                if (ship.getCrewCount() > 0) {
+                    crewClient.registerArrival(ship.getId(), ship.getName(), ship.getCrewCount());
+                }
+            }
+        } catch (SagaConflictException e) {
+            log.warn("Docking saga {} attempt {} stopped: {}", sagaId, claimed.attempts(), e.getMessage());
+        } catch (Exception e) {
+            log.error("Docking saga {} attempt {} failed: {}", sagaId, claimed.attempts(), e.getMessage());
+            if (claimed.attempts() >= maxAttempts) {
+                compensateAndFail(claimed, "Docking failed after " + claimed.attempts() + " attempts", null, e.getMessage());
+            }
+            // Otherwise the lease expires and the saga is retried from its last persisted step
+        }
+    }
+
+    private DockingSaga allocatePower(ClaimedSaga claimed, DockingSaga saga) {
+        try {
+            // Keyed by saga so a retried step after a timeout never allocates the bay's power twice
+            powerClient.allocatePowerForBay(saga.getBayId(), POWER_PER_BAY_KW, "docking-saga-" + saga.getId() + "-power");
+        } catch (PowerClient.PowerAllocationException e) {
+            log.error("Downstream call to {} failed: {}", e.getServiceName(), e.getMessage());
+            return finish(sagaService.fail(saga.getId(), DockingSaga.SagaStatus.PENDING,
+                    "Failed to allocate power for docking bay", e.getServiceName(), e.getMessage()));
+        }
+        return sagaService.advance(saga.getId(), DockingSaga.SagaStatus.PENDING, DockingSaga.SagaStatus.POWER_ALLOCATED);
+    }
+
+    private DockingSaga unloadCargo(ClaimedSaga claimed, DockingSaga saga, Ship ship) {
+        if (ship.getType() == Ship.ShipType.CARGO) {
+            try {
+                var unloadedManifests = inventoryClient.unloadCargoForShip(ship.getId());
+                log.info("Unloaded {} cargo manifests for ship '{}'", unloadedManifests.size(), ship.getName());
+            } catch (InventoryClient.InventoryServiceException e) {
+                log.error("Downstream call to {} failed: {}", e.getServiceName(), e.getMessage());
+                // Don't release power another worker's attempt is now relying on
+                if (!holdsLease(claimed)) {
+                    return saga;
+                }
+                // Compensate: deallocate power
+                powerClient.deallocatePowerForBay(saga.getBayId());
+                return finish(sagaService.fail(saga.getId(), DockingSaga.SagaStatus.POWER_ALLOCATED,
+                        "Failed to unload cargo for ship", e.getServiceName(), e.getMessage()));
+            }
+        }
+        return sagaService.advance(saga.getId(), DockingSaga.SagaStatus.POWER_ALLOCATED, DockingSaga.SagaStatus.CARGO_UNLOADED);
+    }
+
+    private void compensateAndFail(ClaimedSaga claimed, String message, String downstreamService, String innerError) {
+        Long sagaId = claimed.sagaId();
+        try {
+            DockingSaga saga = sagaRepository.findById(sagaId).orElseThrow();
+            if (saga.isFinished() || !holdsLease(claimed)) {
+                return;
+            }
+            if (saga.getStatus() != DockingSaga.SagaStatus.PENDING) {
+                powerClient.deallocatePowerForBay(saga.getBayId());
+            }
+            finish(sagaService.fail(sagaId, saga.getStatus(), message, downstreamService, innerError));
+        } catch (Exception e) {
+            log.error("Failed to compensate docking saga {}: {}", sagaId, e.getMessage());
+        }
+    }
+
+    private boolean holdsLease(ClaimedSaga claimed) {
+        if (sagaService.renewLease(claimed, lease)) {
+            return true;
+        }
+        log.warn("Docking saga {} attempt {} lost its lease to another worker; stopping", claimed.sagaId(), claimed.attempts());
+        return false;
+    }
+
+    private DockingSaga finish(DockingSaga saga) {
+        (saga.getStatus() == DockingSaga.SagaStatus.COMPLETED ? completedCounter : failedCounter).increment();
+        durationTimer.record(Duration.between(saga.getCreatedAt(), saga.getUpdatedAt()));
+        sagaService.notifyFinished(saga.getId());
+        return saga;
+    }
+}
@@ -1,7 +1,6 @@
 package com.nexus.docking.service;
 
 import com.nexus.docking.client.CrewClient;
-import com.nexus.docking.client.InventoryClient;
 import com.nexus.docking.client.PowerClient;
 import com.nexus.docking.dto.*;
 import com.nexus.docking.entity.DockingBay;
@@ -16,13 +15,18 @@ import io.opentelemetry.context.Scope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -30,41 +34,49 @@ public class DockingService {
     
     private static final Logger log = LoggerFactory.getLogger(DockingService.class);
     
-    private static final String REDIS_BAYS_AVAILABLE = "docking:bays:available";
     private static final String REDIS_SHIPS_INCOMING = "docking:ships:incoming";
-    private static final String REDIS_SHIP_RETURN_PREFIX = "ship:return:";
     private static final Duration DEPARTURE_DURATION = Duration.ofSeconds(15);
-    private static final double POWER_PER_BAY_KW = 50.0;
+    private static final int MAX_LOG_PAGE_SIZE = 500;
+    private static final Instant LOG_RANGE_END = Instant.parse("9999-12-31T00:00:00Z");
 
     private final DockingBayRepository bayRepository;
     private final ShipRepository shipRepository;
     private final DockingLogRepository logRepository;
+    private final BayAllocator bayAllocator;
+    private final ShipReturnQueue shipReturnQueue;
+    private final DockingSagaService dockingSagaService;
     private final PowerClient powerClient;
     private final CrewClient crewClient;
-    private final InventoryClient inventoryClient;
     private final RedisTemplate<String, String> redisTemplate;
     private final Tracer tracer;
     private final boolean customSpansEnabled;
+    private final Duration dockWait;
 
     public DockingService(
             DockingBayRepository bayRepository,
             ShipRepository shipRepository,
             DockingLogRepository logRepository,
+            BayAllocator bayAllocator,
+            ShipReturnQueue shipReturnQueue,
+            DockingSagaService dockingSagaService,
             PowerClient powerClient,
             CrewClient crewClient,
-            InventoryClient inventoryClient,
             RedisTemplate<String, String> redisTemplate,
             Tracer tracer,
-            @Value("${nexus.telemetry.custom-spans:false}") boolean customSpansEnabled) {
+            @Value("${nexus.telemetry.custom-spans:false}") boolean customSpansEnabled,
+            @Value("${nexus.docking.saga.sync-wait:10s}") Duration dockWait) {
         this.bayRepository = bayRepository;
         this.shipRepository = shipRepository;
         this.logRepository = logRepository;
+        this.bayAllocator = bayAllocator;
+        this.shipReturnQueue = shipReturnQueue;
+        this.dockingSagaService = dockingSagaService;
         this.powerClient = powerClient;
         this.crewClient = crewClient;
-        this.inventoryClient = inventoryClient;
         this.redisTemplate = redisTemplate;
         this.tracer = tracer;
         this.customSpansEnabled = customSpansEnabled;
+        this.dockWait = dockWait;
     }
     
     public List<DockingBayDto> getAllBays() {
@@ -82,19 +94,50 @@ public class DockingService {
     }
     
     private List<DockingBayDto> getBaysWithShipNames() {
-        return bayRepository.findAllByOrderByBayNumberAsc().stream()
-                .map(bay -> {
-                    String shipName = null;
-                    if (bay.getCurrentShipId() != null) {
-                        shipName = shipRepository.findById(bay.getCurrentShipId())
-                                .map(Ship::getName)
-                                .orElse(null);
-                    }
-                    return DockingBayDto.fromEntity(bay, shipName);
-                })
+        // Ship names are joined in the same query rather than looked up per occupied bay
+        return bayRepository.findAllWithShipNameOrderByBayNumberAsc().stream()
+                .map(row -> DockingBayDto.fromEntity((DockingBay) row[0], (String) row[1]))
                 .toList();
     }
     
+    public DockingSummary getSummary() {
+        if (customSpansEnabled) {
+            Span span = tracer.spanBuilder("docking.getSummary").startSpan();
+            try (Scope scope = span.makeCurrent()) {
+                DockingSummary summary = buildSummary();
+                span.setAttribute("docking.available_bays", summary.availableBays());
+                span.setAttribute("docking.incoming_count", summary.incomingShips());
+                return summary;
+            } finally {
+                span.end();
+            }
+        }
+        return buildSummary();
+    }
+    
+    private DockingSummary buildSummary() {
+        Map<DockingBay.BayStatus, Long> bayCounts = new EnumMap<>(DockingBay.BayStatus.class);
+        for (Object[] row : bayRepository.countGroupByStatus()) {
+            bayCounts.put((DockingBay.BayStatus) row[0], (Long) row[1]);
+        }
+        
+        Map<Ship.ShipStatus, Long> shipCounts = new EnumMap<>(Ship.ShipStatus.class);
+        for (Object[] row : shipRepository.countGroupByStatus()) {
+            shipCounts.put((Ship.ShipStatus) row[0], (Long) row[1]);
+        }
+        
+        long totalBays = bayCounts.values().stream().mapToLong(Long::longValue).sum();
+        
+        return new DockingSummary(
+                (int) totalBays,
+                bayCounts.getOrDefault(DockingBay.BayStatus.AVAILABLE, 0L).intValue(),
+                bayCounts.getOrDefault(DockingBay.BayStatus.OCCUPIED, 0L).intValue(),
+                bayCounts.getOrDefault(DockingBay.BayStatus.RESERVED, 0L).intValue(),
+                shipCounts.getOrDefault(Ship.ShipStatus.INCOMING, 0L).intValue(),
+                shipCounts.getOrDefault(Ship.ShipStatus.DOCKED, 0L).intValue()
+        );
+    }
+    
     public Optional<DockingBayDto> getBayById(Long id) {
         return bayRepository.findById(id).map(DockingBayDto::fromEntity);
     }
@@ -134,7 +177,6 @@ public class DockingService {
                 .toList();
     }
     
-    @Transactional
     public DockResult dockShip(Long shipId) {
         if (customSpansEnabled) {
             Span span = tracer.spanBuilder("docking.dockShip")
@@ -160,75 +202,15 @@ public class DockingService {
     private DockResult performDocking(Long shipId) {
         log.info("Attempting to dock ship with ID: {}", shipId);
         
-        // Find the ship
-        Ship ship = shipRepository.findById(shipId)
-                .orElseThrow(() -> new ShipNotFoundException("Ship not found with ID: " + shipId));
-        
-        if (ship.getStatus() == Ship.ShipStatus.DOCKED) {
-            return DockResult.failure(shipId, "Ship is already docked");
-        }
-        
-        // Find an available bay (with pessimistic lock to prevent race conditions)
-        DockingBay bay = bayRepository.findFirstAvailableBayWithLock(DockingBay.BayStatus.AVAILABLE)
-                .orElseThrow(() -> new NoBayAvailableException("No docking bay available"));
-        
-        log.info("Allocating bay {} for ship '{}'", bay.getBayNumber(), ship.getName());
-        
-        // Allocate power for the bay (distributed call)
-        try {
-            powerClient.allocatePowerForBay(bay.getId(), POWER_PER_BAY_KW);
-        } catch (PowerClient.PowerAllocationException e) {
-            log.error("Downstream call to {} failed: {}", e.getServiceName(), e.getMessage());
-            return DockResult.downstreamFailure(shipId,
-                    "Failed to allocate power for docking bay",
-                    e.getServiceName(),
-                    e.getMessage());
-        }
-
-        // Unload cargo for cargo ships (distributed call)
-        if (ship.getType() == Ship.ShipType.CARGO) {
-            try {
-                var unloadedManifests = inventoryClient.unloadCargoForShip(ship.getId());
-                log.info("Unloaded {} cargo manifests for ship '{}'", unloadedManifests.size(), ship.getName());
-            } catch (InventoryClient.InventoryServiceException e) {
-                log.error("Downstream call to {} failed: {}", e.getServiceName(), e.getMessage());
-                // Rollback: deallocate power
-                powerClient.deallocatePowerForBay(bay.getId());
-                return DockResult.downstreamFailure(shipId,
-                        "Failed to unload cargo for ship",
-                        e.getServiceName(),
-                        e.getMessage());
-            }
-        }
-
-        // Update bay status
-        bay.setStatus(DockingBay.BayStatus.OCCUPIED);
-        bay.setCurrentShipId(shipId);
-        bayRepository.save(bay);
-        
-        // Update ship status
-        ship.setStatus(Ship.ShipStatus.DOCKED);
-        ship.setArrivalTime(Instant.now());
-        shipRepository.save(ship);
-        
-        // Log the docking action
-        DockingLog dockLog = new DockingLog();
-        dockLog.setShipId(shipId);
-        dockLog.setBayId(bay.getId());
-        dockLog.setAction(DockingLog.DockingAction.DOCK);
-        logRepository.save(dockLog);
-        
-        // Register crew arrival if ship has crew (distributed call)
-        if (ship.getCrewCount() > 0) {
-            crewClient.registerArrival(ship.getId(), ship.getName(), ship.getCrewCount());
+        // Reserve a bay and record the saga in one short transaction; power, cargo and
+        // crew steps run in DockingSagaWorker without holding the bay lock
+        DockResult started = dockingSagaService.startDocking(shipId);
+        if (started.sagaId() == null) {
+            return started;
         }
         
-        // Update Redis cache
-        updateBayCache();
-        
-        log.info("Ship '{}' successfully docked at bay {}", ship.getName(), bay.getBayNumber());
-        return DockResult.success(bay.getId(), shipId, 
-                String.format("Ship '%s' docked successfully at bay %d", ship.getName(), bay.getBayNumber()));
+        // Give the saga a chance to finish so most callers still get a final answer
+        return DockResult.fromSaga(dockingSagaService.awaitOutcome(started.sagaId(), dockWait));
     }
     
     @Transactional
@@ -295,8 +277,8 @@ public class DockingService {
         undockLog.setAction(DockingLog.DockingAction.UNDOCK);
         logRepository.save(undockLog);
         
-        // Update Redis cache
-        updateBayCache();
+        // Update available bay count once the transaction commits
+        bayAllocator.bayReleased();
 
         // Schedule the ship to return as INCOMING after departure duration
         scheduleShipReturn(shipId, ship.getName());
@@ -306,10 +288,31 @@ public class DockingService {
                 String.format("Ship '%s' undocked successfully from bay %d", ship.getName(), bay.getBayNumber()));
     }
     
-    public List<DockingLogDto> getDockingLogs() {
-        return logRepository.findAllByOrderByTimestampDesc().stream()
-                .map(DockingLogDto::fromEntity)
-                .toList();
+    public DockingLogPage getDockingLogs(Instant from, Instant to, String cursor, int limit) {
+        Instant rangeStart = from != null ? from : Instant.EPOCH;
+        Instant rangeEnd = to != null ? to : LOG_RANGE_END;
+        int pageSize = Math.max(1, Math.min(limit, MAX_LOG_PAGE_SIZE));
+        
+        // Start just past the end of the range, or right after the last row of the previous page
+        Instant cursorTimestamp = rangeEnd;
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            LogCursor decoded = LogCursor.decode(cursor);
+            cursorTimestamp = decoded.timestamp();
+            cursorId = decoded.id();
+        }
+        
+        List<DockingLog> rows = logRepository.findPage(rangeStart, rangeEnd, cursorTimestamp, cursorId,
+                Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<DockingLog> page = hasMore ? rows.subList(0, pageSize) : rows;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            DockingLog last = page.get(page.size() - 1);
+            nextCursor = new LogCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return new DockingLogPage(page.stream().map(DockingLogDto::fromEntity).toList(), nextCursor);
     }
     
     @Transactional
@@ -359,34 +362,17 @@ public class DockingService {
         return shipRepository.findById(id).map(ShipDto::fromEntity);
     }
     
-    private void updateBayCache() {
-        try {
-            long availableBays = bayRepository.countByStatus(DockingBay.BayStatus.AVAILABLE);
-            redisTemplate.opsForValue().set(REDIS_BAYS_AVAILABLE, 
-                    String.valueOf(availableBays), Duration.ofMinutes(1));
-        } catch (Exception e) {
-            log.warn("Failed to update Redis cache: {}", e.getMessage());
-        }
-    }
-    
     /**
-     * Schedules ship return by setting a Redis key with TTL.
-     * When the key expires, the Redis keyspace notification listener
-     * (configured in RedisKeyExpirationConfig) will trigger transitionShipToIncoming().
-     *
-     * This approach is:
-     * - Stateless: survives pod restarts
-     * - Scalable: works with multiple replicas (only one processes via SETNX lock)
-     * - Idle-friendly: no polling, events only on expiration
+     * Schedules the ship to return as INCOMING after the departure duration.
+     * The return is stored in the durable ShipReturnQueue and fired by ShipReturnPoller
+     * on whichever replica claims it first.
      */
     private void scheduleShipReturn(Long shipId, String shipName) {
-        log.info("Scheduling return for ship '{}' (ID: {}) in {} seconds via Redis TTL",
+        log.info("Scheduling return for ship '{}' (ID: {}) in {} seconds",
                 shipName, shipId, DEPARTURE_DURATION.getSeconds());
 
         try {
-            String key = REDIS_SHIP_RETURN_PREFIX + shipId;
-            // Value stores ship name for debugging; TTL triggers the expiration event
-            redisTemplate.opsForValue().set(key, shipName, DEPARTURE_DURATION);
+            shipReturnQueue.schedule(shipId, Instant.now().plus(DEPARTURE_DURATION));
         } catch (Exception e) {
             log.error("Failed to schedule ship return in Redis for ship {}: {}", shipId, e.getMessage());
             // Fallback: transition immediately (better than losing the ship forever)
@@ -394,6 +380,21 @@ public class DockingService {
         }
     }
 
+    /**
+     * Re-queue returns for ships still DEPARTING, e.g. if Redis lost its data.
+     * Ships already in the queue keep their existing due time.
+     */
+    public void recoverPendingReturns() {
+        List<Ship> departing = shipRepository.findByStatus(Ship.ShipStatus.DEPARTING);
+        for (Ship ship : departing) {
+            Instant departedAt = ship.getDepartureTime() != null ? ship.getDepartureTime() : Instant.now();
+            shipReturnQueue.scheduleIfAbsent(ship.getId(), departedAt.plus(DEPARTURE_DURATION));
+        }
+        if (!departing.isEmpty()) {
+            log.info("Recovered {} pending ship returns", departing.size());
+        }
+    }
+
     @Transactional
     public void transitionShipToIncoming(Long shipId) {
         shipRepository.findById(shipId).ifPresent(ship -> {
@@ -407,6 +408,27 @@ public class DockingService {
         });
     }
     
+    /**
+     * Opaque keyset position: base64url("{timestamp},{id}") of the last row returned.
+     */
+    private record LogCursor(Instant timestamp, long id) {
+        String encode() {
+            String raw = timestamp + "," + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static LogCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf(',');
+                return new LogCursor(Instant.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new InvalidCursorException("Invalid log cursor: " + cursor);
+            }
+        }
+    }
+    
     // Exception classes
     public static class ShipNotFoundException extends RuntimeException {
         public ShipNotFoundException(String message) {
@@ -420,6 +442,12 @@ public class DockingService {
         }
     }
     
+    public static class InvalidCursorException extends RuntimeException {
+        public InvalidCursorException(String message) {
+            super(message);
+        }
+    }
+    
     public static class NoBayAvailableException extends RuntimeException {
         public NoBayAvailableException(String message) {
             super(message);
@@ -0,0 +1,109 @@
+package com.nexus.docking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Durable due-time queue for ship returns, stored in Redis sorted sets.
+ *
+ * - ship:returns holds pending returns scored by due time (epoch millis)
+ * - ship:returns:claimed holds returns claimed by a replica, scored by lease expiry
+ *
+ * Claiming moves due entries atomically from pending to claimed, so each return is
+ * handed to exactly one replica. A replica that dies before completing its claim lets
+ * the lease expire, and the entry is moved back to pending on the next claim.
+ */
+@Component
+public class ShipReturnQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ShipReturnQueue.class);
+
+    private static final String PENDING_KEY = "ship:returns";
+    private static final String CLAIMED_KEY = "ship:returns:claimed";
+
+    // KEYS: pending, claimed. ARGV: now, batch size, lease expiry.
+    // Returns a flat list of [shipId, dueAt, shipId, dueAt, ...]
+    private static final String CLAIM_SCRIPT =
+            "local expired = redis.call('zrangebyscore', KEYS[2], '-inf', ARGV[1]) " +
+            "for _, id in ipairs(expired) do " +
+            "    redis.call('zrem', KEYS[2], id) " +
+            "    redis.call('zadd', KEYS[1], 'NX', ARGV[1], id) " +
+            "end " +
+            "local due = redis.call('zrangebyscore', KEYS[1], '-inf', ARGV[1], 'WITHSCORES', 'LIMIT', 0, ARGV[2]) " +
+            "for i = 1, #due, 2 do " +
+            "    redis.call('zrem', KEYS[1], due[i]) " +
+            "    redis.call('zadd', KEYS[2], ARGV[3], due[i]) " +
+            "end " +
+            "return due";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> claimScript;
+
+    public ShipReturnQueue(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.claimScript = new DefaultRedisScript<>(CLAIM_SCRIPT, List.class);
+    }
+
+    /**
+     * Schedule a return. Re-scheduling an already pending ship moves its due time.
+     */
+    public void schedule(Long shipId, Instant dueAt) {
+        redisTemplate.opsForZSet().add(PENDING_KEY, String.valueOf(shipId), dueAt.toEpochMilli());
+    }
+
+    /**
+     * Schedule a return only if the ship is not already pending, used when recovering
+     * returns from the database.
+     */
+    public void scheduleIfAbsent(Long shipId, Instant dueAt) {
+        redisTemplate.opsForZSet().addIfAbsent(PENDING_KEY, String.valueOf(shipId), dueAt.toEpochMilli());
+    }
+
+    /**
+     * Claim up to batchSize returns that are due, leasing them until leaseUntil.
+     */
+    public List<DueReturn> claimDue(Instant now, int batchSize, Instant leaseUntil) {
+        List<?> result = redisTemplate.execute(claimScript, List.of(PENDING_KEY, CLAIMED_KEY),
+                String.valueOf(now.toEpochMilli()), String.valueOf(batchSize),
+                String.valueOf(leaseUntil.toEpochMilli()));
+        if (result == null || result.isEmpty()) {
+            return List.of();
+        }
+
+        List<DueReturn> due = new ArrayList<>(result.size() / 2);
+        for (int i = 0; i + 1 < result.size(); i += 2) {
+            try {
+                due.add(new DueReturn(
+                        Long.parseLong(String.valueOf(result.get(i))),
+                        Instant.ofEpochMilli((long) Double.parseDouble(String.valueOf(result.get(i + 1))))));
+            } catch (NumberFormatException e) {
+                log.warn("Dropping invalid ship return entry: {}", result.get(i));
+                complete(String.valueOf(result.get(i)));
+            }
+        }
+        return due;
+    }
+
+    public void complete(Long shipId) {
+        complete(String.valueOf(shipId));
+    }
+
+    private void complete(String member) {
+        redisTemplate.opsForZSet().remove(CLAIMED_KEY, member);
+    }
+
+    public long pendingCount() {
+        Long size = redisTemplate.opsForZSet().zCard(PENDING_KEY);
+        return size != null ? size : 0;
+    }
+
+    public record DueReturn(Long shipId, Instant dueAt) {}
+}
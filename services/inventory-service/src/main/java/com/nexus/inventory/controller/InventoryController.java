@@ -32,6 +32,11 @@ public class InventoryController {
         ));
     }
     
+    @GetMapping("/summary")
+    public ResponseEntity<InventorySummary> getSummary() {
+        return ResponseEntity.ok(inventoryService.getSummary());
+    }
+    
     @GetMapping("/supplies")
     public ResponseEntity<List<SupplyDto>> getAllSupplies() {
         return ResponseEntity.ok(inventoryService.getAllSupplies());
@@ -0,0 +1,8 @@
+package com.nexus.inventory.dto;
+
+public record InventorySummary(
+    int totalItems,
+    int lowStockItems,
+    int pendingResupply,
+    int pendingManifests
+) {}
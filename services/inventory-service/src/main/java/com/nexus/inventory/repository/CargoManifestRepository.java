@@ -18,4 +18,6 @@ public interface CargoManifestRepository extends JpaRepository<CargoManifest, Lo
     List<CargoManifest> findAllOrderByCreatedAtDesc();
     
     long countByStatus(CargoManifest.ManifestStatus status);
+    
+    long countByStatusIn(List<CargoManifest.ManifestStatus> statuses);
 }
@@ -18,4 +18,6 @@ public interface ResupplyRequestRepository extends JpaRepository<ResupplyRequest
     List<ResupplyRequest> findAllOrderByRequestedAtDesc();
     
     long countByStatus(ResupplyRequest.RequestStatus status);
+    
+    long countByStatusIn(List<ResupplyRequest.RequestStatus> statuses);
 }
@@ -138,6 +138,39 @@ public class InventoryService {
         return supplyRepository.countLowStockSupplies();
     }
     
+    public InventorySummary getSummary() {
+        if (customSpansEnabled) {
+            Span span = tracer.spanBuilder("inventory.getSummary").startSpan();
+            try (Scope scope = span.makeCurrent()) {
+                InventorySummary summary = buildSummary();
+                span.setAttribute("inventory.supply_count", summary.totalItems());
+                span.setAttribute("inventory.low_stock_count", summary.lowStockItems());
+                return summary;
+            } finally {
+                span.end();
+            }
+        }
+        return buildSummary();
+    }
+    
+    private InventorySummary buildSummary() {
+        long totalItems = supplyRepository.count();
+        long lowStockItems = supplyRepository.countLowStockSupplies();
+        long pendingResupply = resupplyRepository.countByStatusIn(List.of(
+                ResupplyRequest.RequestStatus.PENDING,
+                ResupplyRequest.RequestStatus.IN_TRANSIT));
+        long pendingManifests = manifestRepository.countByStatusIn(List.of(
+                CargoManifest.ManifestStatus.PENDING,
+                CargoManifest.ManifestStatus.UNLOADING));
+        
+        return new InventorySummary(
+                (int) totalItems,
+                (int) lowStockItems,
+                (int) pendingResupply,
+                (int) pendingManifests
+        );
+    }
+    
     @Transactional
     public SupplyDto consumeSupply(ConsumeRequest request) {
         if (customSpansEnabled) {
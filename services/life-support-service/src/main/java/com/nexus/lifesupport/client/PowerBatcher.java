@@ -0,0 +1,184 @@
+package com.nexus.lifesupport.client;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces concurrent power allocate/deallocate calls into /api/v1/power/batch requests,
+ * so a burst of adjustments costs one round trip and one grid validation instead of one each.
+ *
+ * A call waits at most services.power.batching.window for others to join it; a batch is
+ * sent as soon as it reaches services.power.batching.max-size. Each caller gets the result
+ * of its own operation, or the batch's exception if the request itself failed. A batch that
+ * can't be dispatched fails its callers, and no caller waits longer than
+ * services.power.batching.wait-timeout.
+ */
+@Component
+public class PowerBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PowerBatcher.class);
+
+    private final RestClient restClient;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxSize;
+    private final Duration waitTimeout;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService senders;
+    private List<Pending> pending = new ArrayList<>();
+
+    public PowerBatcher(
+            RestClient.Builder restClientBuilder,
+            @Value("${services.power.url}") String powerServiceUrl,
+            @Value("${services.power.batching.enabled:true}") boolean enabled,
+            @Value("${services.power.batching.window:5ms}") Duration window,
+            @Value("${services.power.batching.max-size:50}") int maxSize,
+            @Value("${services.power.batching.sender-threads:4}") int senderThreads,
+            @Value("${services.power.batching.wait-timeout:40s}") Duration waitTimeout) {
+        this.restClient = restClientBuilder
+                .baseUrl(powerServiceUrl)
+                .build();
+        this.enabled = enabled;
+        this.window = window;
+        this.maxSize = maxSize;
+        this.waitTimeout = waitTimeout;
+        this.senders = Executors.newFixedThreadPool(senderThreads);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue an operation and block until its batch has been applied.
+     */
+    public Result submit(Operation operation) {
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        List<Pending> full = null;
+        synchronized (this) {
+            pending.add(new Pending(operation, result));
+            if (pending.size() >= maxSize) {
+                full = takePending();
+            } else if (pending.size() == 1) {
+                try {
+                    scheduler.schedule(this::flushPending, window.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    full = takePending();
+                }
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ResourceAccessException("Power batch failed: " + e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResourceAccessException("No power batch response within " + waitTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted waiting for power batch");
+        }
+    }
+
+    private void flushPending() {
+        List<Pending> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        try {
+            senders.execute(() -> send(batch));
+        } catch (RejectedExecutionException e) {
+            batch.forEach(p -> p.result().completeExceptionally(
+                    new ResourceAccessException("Power batching is shut down")));
+        }
+    }
+
+    private List<Pending> takePending() {
+        List<Pending> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void send(List<Pending> batch) {
+        try {
+            BatchResponse response = restClient.post()
+                    .uri("/api/v1/power/batch")
+                    .body(Map.of("operations", batch.stream().map(Pending::operation).toList()))
+                    .retrieve()
+                    .body(BatchResponse.class);
+
+            log.debug("Power batch of {} operations applied: {} failed", batch.size(), response.failed());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(response.results().get(i));
+            }
+        } catch (Throwable e) {
+            batch.forEach(p -> p.result().completeExceptionally(e));
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private record Pending(Operation operation, CompletableFuture<Result> result) {}
+
+    public record Operation(String op, String system, Double amountKw, Long sectionId, Integer priority,
+                            String idempotencyKey) {
+        public static Operation allocate(String system, Double amountKw, Long sectionId, Integer priority,
+                                         String idempotencyKey) {
+            return new Operation("ALLOCATE", system, amountKw, sectionId, priority, idempotencyKey);
+        }
+
+        public static Operation deallocate(String system) {
+            return new Operation("DEALLOCATE", system, null, null, null, null);
+        }
+    }
+
+    public record Result(
+        int index,
+        String op,
+        String system,
+        boolean success,
+        Long id,
+        Double allocatedKw,
+        Double releasedKw,
+        String message
+    ) {}
+
+    public record BatchResponse(List<Result> results, int succeeded, int failed) {}
+}
@@ -17,28 +17,42 @@ public class PowerClient {
 
     private static final Logger log = LoggerFactory.getLogger(PowerClient.class);
     private static final String SERVICE_NAME = "power-service";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
     // Pattern to extract the "message" field from Spring error responses
     private static final Pattern MESSAGE_FIELD_PATTERN = Pattern.compile("\"message\"\\s*:\\s*\"([^\"]+)\"");
     // Pattern to extract chaos engineering details from the message
     private static final Pattern CHAOS_MESSAGE_PATTERN = Pattern.compile("\\[Chaos Engineering\\]\\s*(.+)");
 
     private final RestClient restClient;
+    private final PowerBatcher batcher;
 
     public PowerClient(
             RestClient.Builder restClientBuilder,
+            PowerBatcher batcher,
             @Value("${services.power.url}") String powerServiceUrl) {
         this.restClient = restClientBuilder
                 .baseUrl(powerServiceUrl)
                 .build();
+        this.batcher = batcher;
     }
 
-    public AllocationResponse allocatePower(String system, Double amountKw, Long sectionId) {
+    /**
+     * Allocate power for a life support system.
+     *
+     * @param idempotencyKey identifies the operation the allocation belongs to; reuse it when
+     *                       retrying that operation so power-service counts the allocation once
+     */
+    public AllocationResponse allocatePower(String system, Double amountKw, Long sectionId, String idempotencyKey) {
         log.info("Calling {} to allocate {} kW for system '{}' in section {}",
                 SERVICE_NAME, amountKw, system, sectionId);
 
         try {
+            if (batcher.isEnabled()) {
+                return allocateBatched(system, amountKw, sectionId, idempotencyKey);
+            }
             var response = restClient.post()
                     .uri("/api/v1/power/allocate")
+                    .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
                     .body(Map.of(
                             "system", system,
                             "amountKw", amountKw,
@@ -50,6 +64,8 @@ public class PowerClient {
 
             log.info("Power allocation successful: {}", response);
             return response;
+        } catch (PowerAllocationException e) {
+            throw e;
         } catch (HttpServerErrorException | HttpClientErrorException e) {
             String errorDetail = extractErrorDetail(e.getResponseBodyAsString());
             log.error("Call to {} failed: {}", SERVICE_NAME, errorDetail);
@@ -64,11 +80,15 @@ public class PowerClient {
         log.info("Calling {} to deallocate power for system: {}", SERVICE_NAME, system);
 
         try {
-            restClient.post()
-                    .uri("/api/v1/power/deallocate")
-                    .body(Map.of("system", system))
-                    .retrieve()
-                    .toBodilessEntity();
+            if (batcher.isEnabled()) {
+                batcher.submit(PowerBatcher.Operation.deallocate(system));
+            } else {
+                restClient.post()
+                        .uri("/api/v1/power/deallocate")
+                        .body(Map.of("system", system))
+                        .retrieve()
+                        .toBodilessEntity();
+            }
 
             log.info("Power deallocation successful for system: {}", system);
         } catch (HttpServerErrorException | HttpClientErrorException e) {
@@ -79,6 +99,19 @@ public class PowerClient {
         }
     }
 
+    private AllocationResponse allocateBatched(String system, Double amountKw, Long sectionId, String idempotencyKey) {
+        PowerBatcher.Result result = batcher.submit(
+                PowerBatcher.Operation.allocate(system, amountKw, sectionId, 1, idempotencyKey)); // Life support is highest priority
+        if (!result.success()) {
+            log.error("Call to {} failed: {}", SERVICE_NAME, result.message());
+            throw new PowerAllocationException(SERVICE_NAME, result.message());
+        }
+        var response = new AllocationResponse(
+                result.id(), system, result.allocatedKw(), 1, sectionId, result.message());
+        log.info("Power allocation successful: {}", response);
+        return response;
+    }
+
     private String extractErrorDetail(String responseBody) {
         if (responseBody == null || responseBody.isEmpty()) {
             return "Unknown error";
@@ -1,6 +1,7 @@
 package com.nexus.lifesupport.controller;
 
 import com.nexus.lifesupport.config.DataInitializer;
+import com.nexus.lifesupport.service.RecentReadings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -17,15 +18,18 @@ public class AdminController {
     private static final Logger log = LoggerFactory.getLogger(AdminController.class);
     
     private final DataInitializer dataInitializer;
+    private final RecentReadings recentReadings;
     
-    public AdminController(DataInitializer dataInitializer) {
+    public AdminController(DataInitializer dataInitializer, RecentReadings recentReadings) {
         this.dataInitializer = dataInitializer;
+        this.recentReadings = recentReadings;
     }
     
     @PostMapping("/resetTables")
     public ResponseEntity<Map<String, String>> resetTables() {
         log.info("Admin: Resetting tables for Life Support Service");
         dataInitializer.resetTables();
+        recentReadings.reset();
         return ResponseEntity.ok(Map.of(
             "service", "life-support",
             "status", "success",
@@ -3,11 +3,17 @@ package com.nexus.lifesupport.controller;
 import com.nexus.lifesupport.dto.*;
 import com.nexus.lifesupport.entity.Alert;
 import com.nexus.lifesupport.service.LifeSupportService;
+import com.nexus.lifesupport.service.ReadingIngestor;
+import com.nexus.lifesupport.service.SelfTestJobs;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -15,10 +21,17 @@ import java.util.Map;
 @RequestMapping("/api/v1/life-support")
 public class LifeSupportController {
     
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    
     private final LifeSupportService lifeSupportService;
+    private final ReadingIngestor readingIngestor;
+    private final SelfTestJobs selfTestJobs;
     
-    public LifeSupportController(LifeSupportService lifeSupportService) {
+    public LifeSupportController(LifeSupportService lifeSupportService, ReadingIngestor readingIngestor,
+                                 SelfTestJobs selfTestJobs) {
         this.lifeSupportService = lifeSupportService;
+        this.readingIngestor = readingIngestor;
+        this.selfTestJobs = selfTestJobs;
     }
     
     @GetMapping("/environment")
@@ -26,7 +39,7 @@ public class LifeSupportController {
         return ResponseEntity.ok(lifeSupportService.getAllEnvironmentStatus());
     }
     
-    @GetMapping("/environment/summary")
+    @GetMapping({"/environment/summary", "/summary"})
     public ResponseEntity<EnvironmentSummary> getEnvironmentSummary() {
         return ResponseEntity.ok(lifeSupportService.getEnvironmentSummary());
     }
@@ -36,16 +49,31 @@ public class LifeSupportController {
         return ResponseEntity.ok(lifeSupportService.getEnvironmentStatus(sectionId));
     }
     
+    @GetMapping("/environment/section/{sectionId}/trend")
+    public ResponseEntity<EnvironmentTrend> getSectionTrend(
+            @PathVariable Long sectionId,
+            @RequestParam(defaultValue = "60") int samples) {
+        return ResponseEntity.ok(lifeSupportService.getEnvironmentTrend(sectionId, samples));
+    }
+    
     @PostMapping("/environment/section/{sectionId}/adjust")
     public ResponseEntity<EnvironmentStatus> adjustEnvironment(
             @PathVariable Long sectionId,
-            @Valid @RequestBody AdjustEnvironmentRequest request) {
-        return ResponseEntity.ok(lifeSupportService.adjustEnvironment(sectionId, request));
+            @Valid @RequestBody AdjustEnvironmentRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(lifeSupportService.adjustEnvironment(sectionId, request, idempotencyKey));
+    }
+    
+    @PostMapping("/readings")
+    public ResponseEntity<IngestResult> ingestReadings(@Valid @RequestBody SensorReadingBatch batch) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(readingIngestor.submit(batch.readings()));
     }
     
     @PostMapping("/adjust-capacity")
-    public ResponseEntity<Map<String, String>> adjustCapacity(@Valid @RequestBody AdjustCapacityRequest request) {
-        lifeSupportService.adjustCapacity(request);
+    public ResponseEntity<Map<String, String>> adjustCapacity(
+            @Valid @RequestBody AdjustCapacityRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        lifeSupportService.adjustCapacity(request, idempotencyKey);
         return ResponseEntity.ok(Map.of("message", "Capacity adjusted successfully"));
     }
     
@@ -69,6 +97,24 @@ public class LifeSupportController {
         return ResponseEntity.ok(lifeSupportService.runSelfTest(sectionId));
     }
     
+    @PostMapping("/self-tests")
+    public ResponseEntity<SelfTestJob> submitSelfTest(@RequestParam(required = false) Long sectionId) {
+        SelfTestJob job = selfTestJobs.submit(sectionId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/life-support/self-tests/" + job.jobId()))
+                .body(job);
+    }
+    
+    @GetMapping("/self-tests/{jobId}")
+    public ResponseEntity<SelfTestJob> getSelfTest(@PathVariable String jobId) {
+        return ResponseEntity.ok(selfTestJobs.get(jobId));
+    }
+    
+    @GetMapping(value = "/self-tests/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSelfTest(@PathVariable String jobId) {
+        return selfTestJobs.stream(jobId);
+    }
+    
     // Exception handlers
     @ExceptionHandler(LifeSupportService.SectionNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleSectionNotFound(LifeSupportService.SectionNotFoundException ex) {
@@ -82,12 +128,44 @@ public class LifeSupportController {
                 .body(Map.of("error", ex.getMessage()));
     }
     
+    @ExceptionHandler(SelfTestJobs.JobNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleSelfTestJobNotFound(SelfTestJobs.JobNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", ex.getMessage()));
+    }
+    
+    @ExceptionHandler(LifeSupportService.InvalidTrendQueryException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidTrendQuery(LifeSupportService.InvalidTrendQueryException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", ex.getMessage()));
+    }
+    
     @ExceptionHandler(LifeSupportService.CapacityExceededException.class)
     public ResponseEntity<Map<String, String>> handleCapacityExceeded(LifeSupportService.CapacityExceededException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of("error", ex.getMessage()));
     }
 
+    @ExceptionHandler(ReadingIngestor.InvalidReadingException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidReading(ReadingIngestor.InvalidReadingException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ReadingIngestor.QueueFullException.class)
+    public ResponseEntity<Map<String, String>> handleIngestQueueFull(ReadingIngestor.QueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(LifeSupportService.SelfTestBusyException.class)
+    public ResponseEntity<Map<String, String>> handleSelfTestBusy(LifeSupportService.SelfTestBusyException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", ex.getMessage()));
+    }
+
     @ExceptionHandler(LifeSupportService.PowerAllocationException.class)
     public ResponseEntity<Map<String, String>> handlePowerAllocationFailed(LifeSupportService.PowerAllocationException ex) {
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
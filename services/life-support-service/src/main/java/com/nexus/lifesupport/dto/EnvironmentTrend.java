@@ -0,0 +1,27 @@
+package com.nexus.lifesupport.dto;
+
+import java.time.Instant;
+
+/**
+ * Statistics over a section's most recent readings, oldest at from and newest at to.
+ * changePerMinute is the least-squares slope over that window.
+ */
+public record EnvironmentTrend(
+    Long sectionId,
+    int samples,
+    Instant from,
+    Instant to,
+    MetricTrend o2Level,
+    MetricTrend co2Level,
+    MetricTrend temperature,
+    MetricTrend pressure,
+    MetricTrend humidity
+) {
+    public record MetricTrend(
+        double latest,
+        double mean,
+        double min,
+        double max,
+        double changePerMinute
+    ) {}
+}
@@ -0,0 +1,10 @@
+package com.nexus.lifesupport.dto;
+
+/**
+ * Readings accepted into the ingest queue. They are written to the database asynchronously,
+ * usually within one flush interval.
+ */
+public record IngestResult(
+    int accepted,
+    int queueDepth
+) {}
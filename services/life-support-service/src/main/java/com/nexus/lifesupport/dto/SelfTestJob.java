@@ -0,0 +1,28 @@
+package com.nexus.lifesupport.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A background self-test of one section, or of every section when sectionId is null.
+ * Results are added as each section finishes; status is RUNNING until all have.
+ */
+public record SelfTestJob(
+    String jobId,
+    Long sectionId,
+    String status,
+    int totalSections,
+    int completedSections,
+    int passedSections,
+    int failedSections,
+    List<SelfTestResult> results,
+    Instant submittedAt,
+    Instant completedAt
+) {
+    @JsonIgnore
+    public boolean isCompleted() {
+        return "COMPLETED".equals(status);
+    }
+}
@@ -0,0 +1,33 @@
+package com.nexus.lifesupport.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.time.Instant;
+
+public record SensorReading(
+    @NotNull(message = "Section ID is required")
+    Long sectionId,
+    
+    @NotNull(message = "O2 level is required")
+    @PositiveOrZero
+    Double o2Level,
+    
+    @NotNull(message = "CO2 level is required")
+    @PositiveOrZero
+    Double co2Level,
+    
+    @NotNull(message = "Temperature is required")
+    Double temperature,
+    
+    @NotNull(message = "Pressure is required")
+    @PositiveOrZero
+    Double pressure,
+    
+    @NotNull(message = "Humidity is required")
+    @PositiveOrZero
+    Double humidity,
+    
+    // When the sensor took the reading; defaults to when it was received
+    Instant recordedAt
+) {}
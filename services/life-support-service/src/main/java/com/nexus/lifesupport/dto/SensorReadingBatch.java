@@ -0,0 +1,13 @@
+package com.nexus.lifesupport.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record SensorReadingBatch(
+    @NotEmpty(message = "At least one reading is required")
+    @Size(max = 5000, message = "A batch may contain at most 5000 readings")
+    List<@Valid SensorReading> readings
+) {}
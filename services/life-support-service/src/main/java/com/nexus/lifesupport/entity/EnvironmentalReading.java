@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "environmental_readings")
+@Table(name = "environmental_readings",
+       indexes = @Index(name = "idx_environmental_readings_section_created", columnList = "section_id, created_at DESC"))
 public class EnvironmentalReading {
     
     @Id
@@ -66,4 +67,5 @@ public class EnvironmentalReading {
     public void setHumidity(Double humidity) { this.humidity = humidity; }
     
     public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 }
@@ -13,10 +13,26 @@ public interface EnvironmentalReadingRepository extends JpaRepository<Environmen
     
     List<EnvironmentalReading> findBySectionId(Long sectionId);
     
-    @Query("SELECT e FROM EnvironmentalReading e WHERE e.id IN " +
-           "(SELECT MAX(e2.id) FROM EnvironmentalReading e2 GROUP BY e2.sectionId)")
+    /**
+     * Latest reading for every configured section in one query. Each section is a single probe of
+     * idx_environmental_readings_section_created, so the cost follows the number of sections, not readings.
+     */
+    @Query(value = "SELECT r.* FROM environmental_settings s " +
+                   "CROSS JOIN LATERAL (SELECT * FROM environmental_readings e " +
+                   "    WHERE e.section_id = s.section_id ORDER BY e.created_at DESC LIMIT 1) r",
+           nativeQuery = true)
     List<EnvironmentalReading> findLatestBySections();
     
+    /**
+     * The most recent readings of every configured section, oldest first within each section.
+     */
+    @Query(value = "SELECT r.* FROM environmental_settings s " +
+                   "CROSS JOIN LATERAL (SELECT * FROM environmental_readings e " +
+                   "    WHERE e.section_id = s.section_id ORDER BY e.created_at DESC LIMIT :perSection) r " +
+                   "ORDER BY r.section_id, r.created_at",
+           nativeQuery = true)
+    List<EnvironmentalReading> findRecentBySections(int perSection);
+    
     @Query("SELECT e FROM EnvironmentalReading e WHERE e.sectionId = :sectionId ORDER BY e.createdAt DESC LIMIT 1")
     Optional<EnvironmentalReading> findLatestBySectionId(Long sectionId);
 }
@@ -0,0 +1,366 @@
+package com.nexus.lifesupport.service;
+
+import com.nexus.lifesupport.entity.Alert;
+import com.nexus.lifesupport.entity.EnvironmentalSettings;
+import com.nexus.lifesupport.repository.AlertRepository;
+import com.nexus.lifesupport.repository.EnvironmentalSettingsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Watches the reading stream (every sample RecentReadings records live) and raises Alerts.
+ *
+ * Each section keeps, per metric, an exponentially weighted mean and variance, a rate-of-change anchor
+ * and a threshold level, so a sample is evaluated in constant time with no allocation. Three checks:
+ * - Thresholds around the section's targets (the same bands as EnvironmentStatus and the self-test).
+ *   A level is entered when a band is crossed and only left once the value is back inside it by
+ *   nexus.life-support.anomaly.hysteresis of the band, so a sensor hovering at a boundary raises once.
+ * - Spikes: a sample more than z-threshold standard deviations from the recent mean, with the
+ *   deviation floored per metric (MIN_STD_DEV).
+ * - Drift: the smoothed value moving faster than the metric's limit per minute.
+ *
+ * Every replica sees every sample, so raising is deduplicated in Redis: a (section, type) alert is
+ * written at most once per cooldown unless its severity escalates, and not while an unacknowledged
+ * alert of that type and severity is open. Alerts are written on a small bounded executor, off the
+ * ingest and pub/sub threads. lifesupport.anomaly.evaluation times each sample.
+ */
+@Service
+public class AnomalyDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(AnomalyDetector.class);
+    private static final String COOLDOWN_KEY_PREFIX = "lifesupport:alert:cooldown:";
+
+    // Set the cooldown unless one of at least this severity is already running
+    private static final String COOLDOWN_SCRIPT =
+            "local current = redis.call('get', KEYS[1]) " +
+            "if current and tonumber(current) >= tonumber(ARGV[1]) then return 0 end " +
+            "redis.call('set', KEYS[1], ARGV[1], 'PX', ARGV[2]) " +
+            "return 1";
+
+    private static final int O2 = 0;
+    private static final int CO2 = 1;
+    private static final int TEMPERATURE = 2;
+    private static final int PRESSURE = 3;
+    private static final int HUMIDITY = 4;
+    private static final String[] METRIC_NAMES = {"O2", "CO2", "Temperature", "Pressure", "Humidity"};
+    private static final String[] UNITS = {"%", "%", "C", " kPa", "%"};
+    private static final Alert.AlertType[] LOW_TYPES = {
+            Alert.AlertType.O2_LOW, null, Alert.AlertType.TEMPERATURE_LOW,
+            Alert.AlertType.PRESSURE_LOW, Alert.AlertType.HUMIDITY_LOW};
+    private static final Alert.AlertType[] HIGH_TYPES = {
+            Alert.AlertType.O2_HIGH, Alert.AlertType.CO2_HIGH, Alert.AlertType.TEMPERATURE_HIGH,
+            Alert.AlertType.PRESSURE_HIGH, Alert.AlertType.HUMIDITY_HIGH};
+    // Fastest normal drift per minute, per metric
+    private static final double[] MAX_RATE_PER_MINUTE = {0.5, 0.05, 2.0, 2.0, 10.0};
+    // Floor on the spike check's standard deviation, per metric, so ordinary sensor noise on a
+    // near-constant reading isn't many deviations out
+    private static final double[] MIN_STD_DEV = {0.1, 0.005, 0.2, 0.2, 1.0};
+
+    private final AlertRepository alertRepository;
+    private final EnvironmentalSettingsRepository settingsRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final DefaultRedisScript<Long> cooldownScript = new DefaultRedisScript<>(COOLDOWN_SCRIPT, Long.class);
+    private final double alpha;
+    private final int minSamples;
+    private final double zThreshold;
+    private final double hysteresis;
+    private final long rateWindowMillis;
+    private final Duration cooldown;
+    private final Duration settingsRefresh;
+    private final Map<Long, SectionState> sections = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService settingsRefresher = Executors.newSingleThreadScheduledExecutor();
+    private final ThreadPoolExecutor alertWriter = new ThreadPoolExecutor(
+            1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000));
+    private final Timer evaluationTimer;
+    private final MeterRegistry meterRegistry;
+    private final Counter droppedCounter;
+    private volatile Map<Long, Bounds> bounds = Map.of();
+
+    public AnomalyDetector(
+            AlertRepository alertRepository,
+            EnvironmentalSettingsRepository settingsRepository,
+            RedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${nexus.life-support.anomaly.window:60}") int window,
+            @Value("${nexus.life-support.anomaly.min-samples:30}") int minSamples,
+            @Value("${nexus.life-support.anomaly.z-threshold:4.0}") double zThreshold,
+            @Value("${nexus.life-support.anomaly.hysteresis:0.25}") double hysteresis,
+            @Value("${nexus.life-support.anomaly.rate-window:60s}") Duration rateWindow,
+            @Value("${nexus.life-support.anomaly.cooldown:5m}") Duration cooldown,
+            @Value("${nexus.life-support.anomaly.settings-refresh:30s}") Duration settingsRefresh) {
+        this.alertRepository = alertRepository;
+        this.settingsRepository = settingsRepository;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.alpha = 2.0 / (window + 1);
+        this.minSamples = minSamples;
+        this.zThreshold = zThreshold;
+        this.hysteresis = hysteresis;
+        this.rateWindowMillis = rateWindow.toMillis();
+        this.cooldown = cooldown;
+        this.settingsRefresh = settingsRefresh;
+        this.evaluationTimer = Timer.builder("lifesupport.anomaly.evaluation")
+                .description("Time to evaluate one reading for anomalies")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("lifesupport.anomaly.dropped")
+                .description("Alerts not written because the alert writer was backed up")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        settingsRefresher.scheduleWithFixedDelay(this::refreshSettings,
+                0, settingsRefresh.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        settingsRefresher.shutdownNow();
+        alertWriter.shutdownNow();
+    }
+
+    /**
+     * Evaluate one sample. Samples of a section should arrive roughly in time order.
+     */
+    public void evaluate(long sectionId, long timestamp, double o2, double co2, double temperature,
+                         double pressure, double humidity) {
+        Bounds sectionBounds = bounds.get(sectionId);
+        if (sectionBounds == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        SectionState state = sections.computeIfAbsent(sectionId, id -> new SectionState());
+        synchronized (state) {
+            state.metrics[O2].evaluate(sectionId, sectionBounds, O2, o2, timestamp);
+            state.metrics[CO2].evaluate(sectionId, sectionBounds, CO2, co2, timestamp);
+            state.metrics[TEMPERATURE].evaluate(sectionId, sectionBounds, TEMPERATURE, temperature, timestamp);
+            state.metrics[PRESSURE].evaluate(sectionId, sectionBounds, PRESSURE, pressure, timestamp);
+            state.metrics[HUMIDITY].evaluate(sectionId, sectionBounds, HUMIDITY, humidity, timestamp);
+        }
+        evaluationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void refreshSettings() {
+        try {
+            List<EnvironmentalSettings> settings = settingsRepository.findAll();
+            bounds = settings.stream().collect(Collectors.toMap(EnvironmentalSettings::getSectionId, Bounds::of));
+        } catch (Exception e) {
+            log.warn("Failed to refresh section targets for anomaly detection: {}", e.getMessage());
+        }
+    }
+
+    private void raise(long sectionId, String sectionName, Alert.AlertType type, Alert.AlertSeverity severity,
+                       String message) {
+        try {
+            alertWriter.execute(() -> writeAlert(sectionId, sectionName, type, severity, message));
+        } catch (RejectedExecutionException e) {
+            droppedCounter.increment();
+        }
+    }
+
+    private void writeAlert(long sectionId, String sectionName, Alert.AlertType type, Alert.AlertSeverity severity,
+                            String message) {
+        String cooldownKey = COOLDOWN_KEY_PREFIX + sectionId + ":" + type;
+        boolean claimed = false;
+        try {
+            Long result = redisTemplate.execute(cooldownScript, List.of(cooldownKey),
+                    String.valueOf(severity.ordinal()), String.valueOf(cooldown.toMillis()));
+            claimed = result != null && result == 1;
+            if (!claimed) {
+                suppressed("cooldown");
+                return;
+            }
+            boolean open = alertRepository.findBySectionIdAndAcknowledgedFalse(sectionId).stream()
+                    .anyMatch(a -> a.getType() == type && a.getSeverity().ordinal() >= severity.ordinal());
+            if (open) {
+                suppressed("open");
+                return;
+            }
+
+            Alert alert = new Alert();
+            alert.setSectionId(sectionId);
+            alert.setSectionName(sectionName);
+            alert.setType(type);
+            alert.setSeverity(severity);
+            alert.setMessage(message);
+            alert.setAcknowledged(false);
+            alertRepository.save(alert);
+            Counter.builder("lifesupport.anomaly.alerts")
+                    .tag("type", type.name())
+                    .tag("severity", severity.name())
+                    .description("Alerts raised by anomaly detection")
+                    .register(meterRegistry)
+                    .increment();
+            log.info("Raised {} {} alert for section {}: {}", severity, type, sectionId, message);
+        } catch (Exception e) {
+            log.error("Failed to raise {} alert for section {}: {}", type, sectionId, e.getMessage());
+            if (claimed) {
+                // Nothing was written, so don't keep this alert silenced for the cooldown
+                releaseCooldown(cooldownKey);
+            }
+        }
+    }
+
+    private void releaseCooldown(String cooldownKey) {
+        try {
+            redisTemplate.delete(cooldownKey);
+        } catch (Exception e) {
+            log.warn("Failed to release alert cooldown {}: {}", cooldownKey, e.getMessage());
+        }
+    }
+
+    private void suppressed(String reason) {
+        Counter.builder("lifesupport.anomaly.suppressed")
+                .tag("reason", reason)
+                .description("Alerts suppressed by cooldown or an open alert of the same type")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Per-section threshold bands, indexed by metric; NaN where a side has no limit.
+     * halfWidth is the distance from the middle of the normal band to its warning limits.
+     */
+    private record Bounds(String sectionName, double[] warnLow, double[] critLow, double[] warnHigh,
+                          double[] critHigh, double[] halfWidth) {
+        static Bounds of(EnvironmentalSettings s) {
+            double o2 = s.getTargetO2();
+            double temperature = s.getTargetTemperature();
+            double pressure = s.getTargetPressure();
+            return new Bounds(
+                    s.getSectionName(),
+                    new double[] {o2 - 1, Double.NaN, temperature - 2, pressure - 2, 30},
+                    new double[] {o2 - 2, Double.NaN, temperature - 5, pressure - 5, 20},
+                    new double[] {o2 + 1, 0.1, temperature + 2, pressure + 2, 70},
+                    new double[] {o2 + 2, 0.5, temperature + 5, pressure + 5, 80},
+                    new double[] {1, 0.1, 2, 2, 20});
+        }
+    }
+
+    private final class SectionState {
+        private final MetricState[] metrics = {
+                new MetricState(), new MetricState(), new MetricState(), new MetricState(), new MetricState()};
+    }
+
+    private final class MetricState {
+        private long count;
+        private double mean;
+        private double variance;
+        private double anchorMean;
+        private long anchorTime;
+        // -2 critical low .. 0 nominal .. 2 critical high
+        private int level;
+
+        void evaluate(long sectionId, Bounds b, int metric, double value, long timestamp) {
+            checkThresholds(sectionId, b, metric, value);
+
+            if (count >= minSamples) {
+                double z = (value - mean) / Math.max(Math.sqrt(variance), MIN_STD_DEV[metric]);
+                if (Math.abs(z) > zThreshold) {
+                    Alert.AlertType type = z > 0 ? HIGH_TYPES[metric] : LOW_TYPES[metric];
+                    if (type != null) {
+                        raise(sectionId, b.sectionName(), type, Alert.AlertSeverity.WARNING, String.format(
+                                "Sudden %s %s: %.2f%s against a recent mean of %.2f%s",
+                                METRIC_NAMES[metric], z > 0 ? "rise" : "drop", value, UNITS[metric], mean, UNITS[metric]));
+                    }
+                }
+            }
+
+            // Exponentially weighted mean and variance
+            if (count == 0) {
+                mean = value;
+                anchorMean = value;
+                anchorTime = timestamp;
+            } else {
+                double diff = value - mean;
+                double increment = alpha * diff;
+                mean += increment;
+                variance = (1 - alpha) * (variance + diff * increment);
+            }
+            count++;
+
+            long elapsed = timestamp - anchorTime;
+            if (elapsed >= rateWindowMillis) {
+                double perMinute = (mean - anchorMean) / (elapsed / 60_000.0);
+                if (count >= minSamples && Math.abs(perMinute) > MAX_RATE_PER_MINUTE[metric]) {
+                    Alert.AlertType type = perMinute > 0 ? HIGH_TYPES[metric] : LOW_TYPES[metric];
+                    if (type != null) {
+                        raise(sectionId, b.sectionName(), type, Alert.AlertSeverity.INFO, String.format(
+                                "%s %s at %.2f%s per minute", METRIC_NAMES[metric],
+                                perMinute > 0 ? "rising" : "falling", Math.abs(perMinute), UNITS[metric]));
+                    }
+                }
+                anchorMean = mean;
+                anchorTime = timestamp;
+            }
+        }
+
+        private void checkThresholds(long sectionId, Bounds b, int metric, double value) {
+            double warnLow = b.warnLow()[metric];
+            double critLow = b.critLow()[metric];
+            double warnHigh = b.warnHigh()[metric];
+            double critHigh = b.critHigh()[metric];
+
+            // Strict comparisons, as in EnvironmentStatus.calculateStatus: a value at a limit is inside it
+            int candidate = 0;
+            if (value > critHigh) {
+                candidate = 2;
+            } else if (value > warnHigh) {
+                candidate = 1;
+            } else if (value < critLow) {
+                candidate = -2;
+            } else if (value < warnLow) {
+                candidate = -1;
+            }
+
+            // Only step down once the value is back inside the band by the hysteresis margin
+            if (level > 0 && candidate < level) {
+                double bound = level == 2 ? critHigh : warnHigh;
+                double margin = hysteresis * b.halfWidth()[metric];
+                if (value > bound - margin) {
+                    candidate = level;
+                }
+            } else if (level < 0 && candidate > level) {
+                double bound = level == -2 ? critLow : warnLow;
+                double margin = hysteresis * b.halfWidth()[metric];
+                if (value < bound + margin) {
+                    candidate = level;
+                }
+            }
+
+            int previous = level;
+            level = candidate;
+            if (Math.abs(candidate) > Math.abs(previous) || Integer.signum(candidate) * Integer.signum(previous) < 0) {
+                Alert.AlertType type = candidate > 0 ? HIGH_TYPES[metric] : LOW_TYPES[metric];
+                Alert.AlertSeverity severity = Math.abs(candidate) == 2
+                        ? Alert.AlertSeverity.CRITICAL : Alert.AlertSeverity.WARNING;
+                double limit = candidate == 2 ? critHigh : candidate == 1 ? warnHigh : candidate == -1 ? warnLow : critLow;
+                raise(sectionId, b.sectionName(), type, severity, String.format("%s %s: %.2f%s (limit %.2f%s)",
+                        METRIC_NAMES[metric], candidate > 0 ? "high" : "low", value, UNITS[metric], limit, UNITS[metric]));
+            }
+        }
+    }
+}
@@ -11,42 +11,105 @@ import com.nexus.lifesupport.repository.EnvironmentalSettingsRepository;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class LifeSupportService {
     
     private static final Logger log = LoggerFactory.getLogger(LifeSupportService.class);
     
+    // Simulated hardware tests; each holds a self-test thread for its delay (base + up to jitter ms)
+    private static final List<SubsystemCheck> SUBSYSTEM_CHECKS = List.of(
+            new SubsystemCheck(500, 300, (settings, reading) -> {
+                boolean passed = reading.getO2Level() >= 19.0 && reading.getO2Level() <= 23.0;
+                return new SelfTestResult.SubsystemTest("O2 Scrubber", passed,
+                        passed ? "Operating within parameters" : "O2 levels outside safe range");
+            }),
+            new SubsystemCheck(400, 200, (settings, reading) -> {
+                boolean passed = reading.getCo2Level() <= 0.1;
+                return new SelfTestResult.SubsystemTest("CO2 Recycler", passed,
+                        passed ? "CO2 levels nominal" : "CO2 levels elevated");
+            }),
+            new SubsystemCheck(500, 200, (settings, reading) -> {
+                double variance = Math.abs(reading.getTemperature() - settings.getTargetTemperature());
+                boolean passed = variance <= 3.0;
+                return new SelfTestResult.SubsystemTest("Temperature Control", passed,
+                        passed ? "Temperature stable" : "Temperature variance detected: " + String.format("%.1f", variance) + "C");
+            }),
+            new SubsystemCheck(400, 200, (settings, reading) -> {
+                double variance = Math.abs(reading.getPressure() - settings.getTargetPressure());
+                boolean passed = variance <= 2.0;
+                return new SelfTestResult.SubsystemTest("Pressure Regulator", passed,
+                        passed ? "Pressure nominal" : "Pressure variance: " + String.format("%.1f", variance) + " kPa");
+            }),
+            new SubsystemCheck(300, 200, (settings, reading) -> {
+                boolean passed = reading.getHumidity() >= 30 && reading.getHumidity() <= 70;
+                return new SelfTestResult.SubsystemTest("Humidity Controller", passed,
+                        passed ? "Humidity within range" : "Humidity outside optimal range");
+            }));
+    
     private final EnvironmentalReadingRepository readingRepository;
     private final EnvironmentalSettingsRepository settingsRepository;
     private final AlertRepository alertRepository;
+    private final RecentReadings recentReadings;
     private final PowerClient powerClient;
     private final Tracer tracer;
     private final boolean customSpansEnabled;
+    private final ThreadPoolExecutor selfTestExecutor;
+    // Section tests in flight; the executor queue is sized so admitted checks always fit
+    private final Semaphore selfTestSlots;
+    private final int maxConcurrentSelfTests;
     
     public LifeSupportService(
             EnvironmentalReadingRepository readingRepository,
             EnvironmentalSettingsRepository settingsRepository,
             AlertRepository alertRepository,
+            RecentReadings recentReadings,
             PowerClient powerClient,
             Tracer tracer,
-            @Value("${nexus.telemetry.custom-spans:false}") boolean customSpansEnabled) {
+            @Value("${nexus.telemetry.custom-spans:false}") boolean customSpansEnabled,
+            @Value("${nexus.life-support.self-test.threads:16}") int selfTestThreads,
+            @Value("${nexus.life-support.self-test.max-concurrent-sections:32}") int maxConcurrentSelfTests) {
         this.readingRepository = readingRepository;
         this.settingsRepository = settingsRepository;
         this.alertRepository = alertRepository;
+        this.recentReadings = recentReadings;
         this.powerClient = powerClient;
         this.tracer = tracer;
         this.customSpansEnabled = customSpansEnabled;
+        this.selfTestExecutor = new ThreadPoolExecutor(selfTestThreads, selfTestThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxConcurrentSelfTests * SUBSYSTEM_CHECKS.size()));
+        this.selfTestSlots = new Semaphore(maxConcurrentSelfTests);
+        this.maxConcurrentSelfTests = maxConcurrentSelfTests;
+    }
+    
+    @PreDestroy
+    public void stop() {
+        selfTestExecutor.shutdownNow();
     }
     
     public List<EnvironmentStatus> getAllEnvironmentStatus() {
@@ -65,11 +128,18 @@ public class LifeSupportService {
     
     private List<EnvironmentStatus> buildAllEnvironmentStatus() {
         List<EnvironmentalSettings> allSettings = settingsRepository.findAll();
+        Map<Long, EnvironmentalReading> latestReadings = recentReadings.isWarmed()
+                ? Map.of()
+                : readingRepository.findLatestBySections().stream()
+                        .collect(Collectors.toMap(EnvironmentalReading::getSectionId, Function.identity()));
         
         return allSettings.stream().map(settings -> {
-            EnvironmentalReading reading = readingRepository
-                    .findLatestBySectionId(settings.getSectionId())
-                    .orElseGet(() -> createDefaultReading(settings));
+            EnvironmentalReading reading = recentReadings.isWarmed()
+                    ? recentReadings.latest(settings.getSectionId()).orElse(null)
+                    : latestReadings.get(settings.getSectionId());
+            if (reading == null) {
+                reading = createDefaultReading(settings);
+            }
             
             return buildEnvironmentStatus(settings, reading);
         }).toList();
@@ -79,13 +149,32 @@ public class LifeSupportService {
         EnvironmentalSettings settings = settingsRepository.findBySectionId(sectionId)
                 .orElseThrow(() -> new SectionNotFoundException("Section not found: " + sectionId));
         
-        EnvironmentalReading reading = readingRepository
-                .findLatestBySectionId(sectionId)
-                .orElseGet(() -> createDefaultReading(settings));
+        EnvironmentalReading reading = latestReading(settings);
         
         return buildEnvironmentStatus(settings, reading);
     }
     
+    public EnvironmentTrend getEnvironmentTrend(Long sectionId, int samples) {
+        if (samples < 2) {
+            throw new InvalidTrendQueryException("samples must be at least 2");
+        }
+        if (!settingsRepository.existsBySectionId(sectionId)) {
+            throw new SectionNotFoundException("Section not found: " + sectionId);
+        }
+        return recentReadings.trend(sectionId, samples)
+                .orElseThrow(() -> new InvalidTrendQueryException("No recent readings for section " + sectionId));
+    }
+    
+    /**
+     * Latest reading from the in-memory ring, falling back to the database while it is not loaded.
+     */
+    private EnvironmentalReading latestReading(EnvironmentalSettings settings) {
+        Optional<EnvironmentalReading> reading = recentReadings.isWarmed()
+                ? recentReadings.latest(settings.getSectionId())
+                : readingRepository.findLatestBySectionId(settings.getSectionId());
+        return reading.orElseGet(() -> createDefaultReading(settings));
+    }
+    
     public EnvironmentSummary getEnvironmentSummary() {
         List<EnvironmentStatus> statuses = buildAllEnvironmentStatus();
         
@@ -123,14 +212,14 @@ public class LifeSupportService {
     }
     
     @Transactional
-    public EnvironmentStatus adjustEnvironment(Long sectionId, AdjustEnvironmentRequest request) {
+    public EnvironmentStatus adjustEnvironment(Long sectionId, AdjustEnvironmentRequest request, String requestKey) {
         if (customSpansEnabled) {
             Span span = tracer.spanBuilder("lifesupport.adjustEnvironment")
                     .setAttribute("lifesupport.section_id", sectionId)
                     .startSpan();
             try (Scope scope = span.makeCurrent()) {
                 span.addEvent("adjusting_environmental_controls");
-                EnvironmentStatus result = performAdjustment(sectionId, request);
+                EnvironmentStatus result = performAdjustment(sectionId, request, requestKey);
                 span.addEvent("environment_adjusted");
                 span.setAttribute("lifesupport.status", result.status());
                 return result;
@@ -138,10 +227,10 @@ public class LifeSupportService {
                 span.end();
             }
         }
-        return performAdjustment(sectionId, request);
+        return performAdjustment(sectionId, request, requestKey);
     }
     
-    private EnvironmentStatus performAdjustment(Long sectionId, AdjustEnvironmentRequest request) {
+    private EnvironmentStatus performAdjustment(Long sectionId, AdjustEnvironmentRequest request, String requestKey) {
         log.info("Adjusting environment for section {}: {}", sectionId, request);
         
         EnvironmentalSettings settings = settingsRepository.findBySectionId(sectionId)
@@ -152,7 +241,8 @@ public class LifeSupportService {
             powerClient.allocatePower(
                     "life_support_section_" + sectionId,
                     50.0, // Base power for adjustment
-                    sectionId
+                    sectionId,
+                    powerIdempotencyKey("adjust", sectionId, requestKey)
             );
         } catch (Exception e) {
             log.warn("Could not allocate additional power for adjustment: {}", e.getMessage());
@@ -185,6 +275,7 @@ public class LifeSupportService {
         newReading.setPressure(settings.getTargetPressure() + (Math.random() - 0.5) * 0.2);
         newReading.setHumidity(settings.getTargetHumidity() + (Math.random() - 0.5) * 2);
         readingRepository.save(newReading);
+        recentReadings.recordWritten(newReading);
         
         log.info("Environment adjusted for section {}", sectionId);
         
@@ -192,7 +283,7 @@ public class LifeSupportService {
     }
     
     @Transactional
-    public void adjustCapacity(AdjustCapacityRequest request) {
+    public void adjustCapacity(AdjustCapacityRequest request, String requestKey) {
         log.info("Adjusting capacity for section {}: change = {}", 
                 request.sectionId(), request.occupancyChange());
         
@@ -219,7 +310,8 @@ public class LifeSupportService {
                 powerClient.allocatePower(
                         "life_support_section_" + request.sectionId(),
                         additionalPower,
-                        request.sectionId()
+                        request.sectionId(),
+                        powerIdempotencyKey("capacity", request.sectionId(), requestKey)
                 );
             } catch (Exception e) {
                 log.error("Power allocation failed for capacity increase in section {}: {}",
@@ -259,9 +351,9 @@ public class LifeSupportService {
     }
     
     /**
-     * Runs a self-test diagnostic on the life support systems for a section.
-     * This includes artificial delay (2-3 seconds) to simulate actual hardware tests.
-     * The test can fail based on chaos settings.
+     * Runs a self-test diagnostic on the life support systems for a section and waits for it.
+     * The subsystem checks include artificial delay (up to 800ms) to simulate actual hardware tests.
+     * The test can fail based on chaos settings. SelfTestJobs runs the same tests in the background.
      */
     public SelfTestResult runSelfTest(Long sectionId) {
         long startTime = System.currentTimeMillis();
@@ -289,96 +381,102 @@ public class LifeSupportService {
         EnvironmentalSettings settings = settingsRepository.findBySectionId(sectionId)
                 .orElseThrow(() -> new SectionNotFoundException("Section not found: " + sectionId));
         
-        EnvironmentalReading reading = readingRepository
-                .findLatestBySectionId(sectionId)
-                .orElseGet(() -> createDefaultReading(settings));
-        
-        List<SelfTestResult.SubsystemTest> subsystems = new ArrayList<>();
-        Random random = new Random();
-        boolean allPassed = true;
-        
-        // Simulate testing each subsystem with delays
-        // O2 Scrubber Test (500-800ms)
         try {
-            Thread.sleep(500 + random.nextInt(300));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            return startSelfTests(List.of(settings), startTime).get(0).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
-        boolean o2Passed = reading.getO2Level() >= 19.0 && reading.getO2Level() <= 23.0;
-        subsystems.add(new SelfTestResult.SubsystemTest(
-            "O2 Scrubber",
-            o2Passed,
-            o2Passed ? "Operating within parameters" : "O2 levels outside safe range"
-        ));
-        if (!o2Passed) allPassed = false;
-        
-        // CO2 Recycler Test (400-600ms)
-        try {
-            Thread.sleep(400 + random.nextInt(200));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    }
+    
+    /**
+     * Starts self-tests for the given sections without waiting for them. Each section's subsystem
+     * checks run concurrently on the self-test executor, so a section takes as long as its slowest
+     * check rather than the sum of them.
+     *
+     * At most nexus.life-support.self-test.max-concurrent-sections section tests run at once across
+     * all callers. A request takes one slot per section up to that limit, or is rejected whole with
+     * SelfTestBusyException if they aren't free; each slot then works through the request's sections
+     * in turn, so a station with more sections than the limit can still be tested.
+     */
+    public List<CompletableFuture<SelfTestResult>> startSelfTests(List<EnvironmentalSettings> sections, long startTime) {
+        int slots = Math.min(sections.size(), maxConcurrentSelfTests);
+        if (!selfTestSlots.tryAcquire(slots)) {
+            throw new SelfTestBusyException("Too many self-tests in progress, retry later");
         }
-        boolean co2Passed = reading.getCo2Level() <= 0.1;
-        subsystems.add(new SelfTestResult.SubsystemTest(
-            "CO2 Recycler",
-            co2Passed,
-            co2Passed ? "CO2 levels nominal" : "CO2 levels elevated"
-        ));
-        if (!co2Passed) allPassed = false;
-        
-        // Temperature Control Test (500-700ms)
-        try {
-            Thread.sleep(500 + random.nextInt(200));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        List<CompletableFuture<SelfTestResult>> results = new ArrayList<>(sections.size());
+        for (int i = 0; i < sections.size(); i++) {
+            results.add(new CompletableFuture<>());
         }
-        double tempVariance = Math.abs(reading.getTemperature() - settings.getTargetTemperature());
-        boolean tempPassed = tempVariance <= 3.0;
-        subsystems.add(new SelfTestResult.SubsystemTest(
-            "Temperature Control",
-            tempPassed,
-            tempPassed ? "Temperature stable" : "Temperature variance detected: " + String.format("%.1f", tempVariance) + "C"
-        ));
-        if (!tempPassed) allPassed = false;
-        
-        // Pressure Regulator Test (400-600ms)
-        try {
-            Thread.sleep(400 + random.nextInt(200));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        AtomicInteger nextSection = new AtomicInteger();
+        for (int i = 0; i < slots; i++) {
+            runNextSelfTest(sections, results, nextSection, startTime);
         }
-        double pressureVariance = Math.abs(reading.getPressure() - settings.getTargetPressure());
-        boolean pressurePassed = pressureVariance <= 2.0;
-        subsystems.add(new SelfTestResult.SubsystemTest(
-            "Pressure Regulator",
-            pressurePassed,
-            pressurePassed ? "Pressure nominal" : "Pressure variance: " + String.format("%.1f", pressureVariance) + " kPa"
-        ));
-        if (!pressurePassed) allPassed = false;
-        
-        // Humidity Controller Test (300-500ms)
+        return results;
+    }
+    
+    /**
+     * Runs the request's next untested section on the caller's slot, or releases the slot once none are left.
+     */
+    private void runNextSelfTest(List<EnvironmentalSettings> sections, List<CompletableFuture<SelfTestResult>> results,
+                                 AtomicInteger nextSection, long startTime) {
+        int index = nextSection.getAndIncrement();
+        if (index >= sections.size()) {
+            selfTestSlots.release();
+            return;
+        }
+        CompletableFuture<SelfTestResult> result = results.get(index);
         try {
-            Thread.sleep(300 + random.nextInt(200));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            selfTestAsync(sections.get(index), startTime).whenComplete((r, e) -> {
+                if (e != null) {
+                    result.completeExceptionally(e);
+                } else {
+                    result.complete(r);
+                }
+                runNextSelfTest(sections, results, nextSection, startTime);
+            });
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            runNextSelfTest(sections, results, nextSection, startTime);
         }
-        boolean humidityPassed = reading.getHumidity() >= 30 && reading.getHumidity() <= 70;
-        subsystems.add(new SelfTestResult.SubsystemTest(
-            "Humidity Controller",
-            humidityPassed,
-            humidityPassed ? "Humidity within range" : "Humidity outside optimal range"
-        ));
-        if (!humidityPassed) allPassed = false;
+    }
+    
+    private CompletableFuture<SelfTestResult> selfTestAsync(EnvironmentalSettings settings, long startTime) {
+        EnvironmentalReading reading = latestReading(settings);
         
-        long durationMs = System.currentTimeMillis() - startTime;
-        log.info("Self-test completed for section {}: {} in {}ms", 
-                sectionId, allPassed ? "PASSED" : "FAILED", durationMs);
+        List<CompletableFuture<SelfTestResult.SubsystemTest>> checks = SUBSYSTEM_CHECKS.stream()
+                .map(check -> CompletableFuture.supplyAsync(() -> check.run(settings, reading), selfTestExecutor))
+                .toList();
         
-        if (allPassed) {
-            return SelfTestResult.success(sectionId, settings.getSectionName(), subsystems, durationMs);
-        } else {
-            return SelfTestResult.failure(sectionId, settings.getSectionName(), subsystems, durationMs);
-        }
+        return CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new)).thenApply(done -> {
+            List<SelfTestResult.SubsystemTest> subsystems = checks.stream().map(CompletableFuture::join).toList();
+            boolean allPassed = subsystems.stream().allMatch(SelfTestResult.SubsystemTest::passed);
+            
+            long durationMs = System.currentTimeMillis() - startTime;
+            log.info("Self-test completed for section {}: {} in {}ms", 
+                    settings.getSectionId(), allPassed ? "PASSED" : "FAILED", durationMs);
+            
+            if (allPassed) {
+                return SelfTestResult.success(settings.getSectionId(), settings.getSectionName(), subsystems, durationMs);
+            } else {
+                return SelfTestResult.failure(settings.getSectionId(), settings.getSectionName(), subsystems, durationMs);
+            }
+        });
+    }
+    
+    /**
+     * Idempotency-Key for the power allocation made by one operation. A client that retries with the
+     * same Idempotency-Key gets the same power key, so power-service counts the allocation once;
+     * without one, each request is its own operation. Hashing keeps client keys within power-service's
+     * length limit.
+     */
+    private static String powerIdempotencyKey(String operation, Long sectionId, String requestKey) {
+        String operationId = requestKey != null
+                ? UUID.nameUUIDFromBytes(requestKey.getBytes(StandardCharsets.UTF_8)).toString()
+                : UUID.randomUUID().toString();
+        return "life-support-" + operation + "-" + sectionId + "-" + operationId;
     }
     
     private EnvironmentStatus buildEnvironmentStatus(EnvironmentalSettings settings, EnvironmentalReading reading) {
@@ -419,6 +517,18 @@ public class LifeSupportService {
         return reading;
     }
     
+    private record SubsystemCheck(int baseDelayMs, int jitterMs,
+                                  BiFunction<EnvironmentalSettings, EnvironmentalReading, SelfTestResult.SubsystemTest> evaluate) {
+        SelfTestResult.SubsystemTest run(EnvironmentalSettings settings, EnvironmentalReading reading) {
+            try {
+                Thread.sleep(baseDelayMs + ThreadLocalRandom.current().nextInt(jitterMs));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return evaluate.apply(settings, reading);
+        }
+    }
+    
     // Exception classes
     public static class SectionNotFoundException extends RuntimeException {
         public SectionNotFoundException(String message) { super(message); }
@@ -428,6 +538,14 @@ public class LifeSupportService {
         public AlertNotFoundException(String message) { super(message); }
     }
     
+    public static class InvalidTrendQueryException extends RuntimeException {
+        public InvalidTrendQueryException(String message) { super(message); }
+    }
+    
+    public static class SelfTestBusyException extends RuntimeException {
+        public SelfTestBusyException(String message) { super(message); }
+    }
+    
     public static class CapacityExceededException extends RuntimeException {
         public CapacityExceededException(String message) { super(message); }
     }
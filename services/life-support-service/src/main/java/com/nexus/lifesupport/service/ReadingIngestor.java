@@ -0,0 +1,281 @@
+package com.nexus.lifesupport.service;
+
+import com.nexus.lifesupport.dto.IngestResult;
+import com.nexus.lifesupport.dto.SensorReading;
+import com.nexus.lifesupport.entity.EnvironmentalSettings;
+import com.nexus.lifesupport.repository.EnvironmentalSettingsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Buffers sensor readings from POST /readings and writes them to environmental_readings in JDBC batches.
+ *
+ * The queue holds at most nexus.life-support.ingest.queue-capacity readings. A request is accepted
+ * whole or not at all; when its readings don't fit, it is rejected with QueueFullException (429) so
+ * sensors back off instead of the service running out of memory. A single writer drains up to
+ * flush-batch-size readings at a time, waiting at most flush-interval for a batch to fill. A failed
+ * write is retried a few times, during which the queue fills and callers see 429s; after that the
+ * batch is dropped and counted.
+ *
+ * A recordedAt later than now plus max-clock-skew, or older than max-age, rejects the request with
+ * InvalidReadingException (400): a sensor clock running ahead would otherwise make its reading the
+ * section's latest until real time caught up, hiding every real sample in between.
+ *
+ * Rows are inserted with plain JDBC rather than JPA: IDENTITY ids keep Hibernate from batching
+ * inserts, and reWriteBatchedInserts (see application.yml) turns each batch into multi-row INSERTs.
+ */
+@Service
+public class ReadingIngestor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadingIngestor.class);
+    private static final String INSERT_SQL =
+            "INSERT INTO environmental_readings (section_id, section_name, o2_level, co2_level, temperature, " +
+            "pressure, humidity, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long SECTION_RELOAD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EnvironmentalSettingsRepository settingsRepository;
+    private final RecentReadings recentReadings;
+    private final int flushBatchSize;
+    private final Duration flushInterval;
+    private final Duration maxClockSkew;
+    private final Duration maxAge;
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    // Bounds the queue; permits are returned as readings are drained
+    private final Semaphore capacity;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final DistributionSummary flushSizeSummary;
+    private final Timer flushTimer;
+    private final Timer lagTimer;
+    private volatile Map<Long, String> sectionNames = Map.of();
+    private volatile long sectionsLoadedAt;
+    private volatile boolean running;
+
+    public ReadingIngestor(
+            JdbcTemplate jdbcTemplate,
+            EnvironmentalSettingsRepository settingsRepository,
+            RecentReadings recentReadings,
+            MeterRegistry meterRegistry,
+            @Value("${nexus.life-support.ingest.queue-capacity:100000}") int queueCapacity,
+            @Value("${nexus.life-support.ingest.flush-batch-size:2000}") int flushBatchSize,
+            @Value("${nexus.life-support.ingest.flush-interval:50ms}") Duration flushInterval,
+            @Value("${nexus.life-support.ingest.max-clock-skew:30s}") Duration maxClockSkew,
+            @Value("${nexus.life-support.ingest.max-age:24h}") Duration maxAge) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settingsRepository = settingsRepository;
+        this.recentReadings = recentReadings;
+        this.capacity = new Semaphore(queueCapacity);
+        this.flushBatchSize = flushBatchSize;
+        this.flushInterval = flushInterval;
+        this.maxClockSkew = maxClockSkew;
+        this.maxAge = maxAge;
+        this.acceptedCounter = Counter.builder("lifesupport.readings.accepted")
+                .description("Sensor readings accepted into the ingest queue")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("lifesupport.readings.rejected")
+                .description("Sensor readings rejected because the ingest queue was full")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("lifesupport.readings.written")
+                .description("Sensor readings written to the database")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("lifesupport.readings.dropped")
+                .description("Sensor readings dropped after repeated write failures")
+                .register(meterRegistry);
+        this.flushSizeSummary = DistributionSummary.builder("lifesupport.readings.flush.size")
+                .description("Readings written per batch")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("lifesupport.readings.flush.duration")
+                .description("Time to write one batch of readings")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("lifesupport.readings.ingest.lag")
+                .description("Time from accepting a reading to writing it, for the oldest reading in each batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("lifesupport.readings.queue.depth", queue, LinkedBlockingQueue::size)
+                .description("Sensor readings waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        writer.submit(this::writeLoop);
+        log.info("Reading ingest writer started (batches of up to {}, every {})", flushBatchSize, flushInterval);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.shutdown();
+        if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Reading ingest writer did not drain in time, {} readings not written", queue.size());
+            writer.shutdownNow();
+        }
+    }
+
+    public IngestResult submit(List<SensorReading> readings) {
+        if (!running) {
+            throw new QueueFullException("Reading ingestion is not running");
+        }
+        List<Pending> pending = new ArrayList<>(readings.size());
+        long receivedAt = System.nanoTime();
+        Instant now = Instant.now();
+        Instant latestAllowed = now.plus(maxClockSkew);
+        Instant earliestAllowed = now.minus(maxAge);
+        for (SensorReading reading : readings) {
+            Instant recordedAt = reading.recordedAt();
+            if (recordedAt != null && (recordedAt.isAfter(latestAllowed) || recordedAt.isBefore(earliestAllowed))) {
+                throw new InvalidReadingException("recordedAt " + recordedAt + " for section " + reading.sectionId()
+                        + " must be within " + maxAge + " before and " + maxClockSkew + " after " + now);
+            }
+            String sectionName = sectionName(reading.sectionId());
+            if (sectionName == null) {
+                throw new LifeSupportService.SectionNotFoundException("Section not found: " + reading.sectionId());
+            }
+            pending.add(new Pending(reading, sectionName,
+                    reading.recordedAt() != null ? reading.recordedAt() : now, receivedAt));
+        }
+
+        if (!capacity.tryAcquire(pending.size())) {
+            rejectedCounter.increment(pending.size());
+            throw new QueueFullException("Reading ingest queue is full, retry later");
+        }
+        queue.addAll(pending);
+        acceptedCounter.increment(pending.size());
+        return new IngestResult(pending.size(), queue.size());
+    }
+
+    private String sectionName(Long sectionId) {
+        String name = sectionNames.get(sectionId);
+        if (name == null && System.nanoTime() - sectionsLoadedAt > SECTION_RELOAD_INTERVAL_NANOS) {
+            // New or reset sections; reload at most once a second so unknown IDs can't hammer the database
+            sectionNames = settingsRepository.findAll().stream()
+                    .collect(Collectors.toMap(EnvironmentalSettings::getSectionId, EnvironmentalSettings::getSectionName));
+            sectionsLoadedAt = System.nanoTime();
+            name = sectionNames.get(sectionId);
+        }
+        return name;
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(flushBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, flushBatchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                capacity.release(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long start = System.nanoTime();
+                jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Pending pending = batch.get(i);
+                        SensorReading reading = pending.reading();
+                        ps.setLong(1, reading.sectionId());
+                        ps.setString(2, pending.sectionName());
+                        ps.setDouble(3, reading.o2Level());
+                        ps.setDouble(4, reading.co2Level());
+                        ps.setDouble(5, reading.temperature());
+                        ps.setDouble(6, reading.pressure());
+                        ps.setDouble(7, reading.humidity());
+                        ps.setTimestamp(8, Timestamp.from(pending.recordedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                });
+                long end = System.nanoTime();
+                flushTimer.record(end - start, TimeUnit.NANOSECONDS);
+                flushSizeSummary.record(batch.size());
+                writtenCounter.increment(batch.size());
+                lagTimer.record(end - batch.get(0).receivedAt(), TimeUnit.NANOSECONDS);
+                recentReadings.recordWritten(toSamples(batch));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    droppedCounter.increment(batch.size());
+                    log.error("Dropping {} readings after {} failed writes: {}", batch.size(), attempt, e.getMessage());
+                    return;
+                }
+                log.warn("Failed to write {} readings (attempt {}): {}", batch.size(), attempt, e.getMessage());
+                Thread.sleep(100L * attempt);
+            }
+        }
+    }
+
+    private static double[][] toSamples(List<Pending> batch) {
+        double[][] samples = new double[batch.size()][];
+        for (int i = 0; i < samples.length; i++) {
+            Pending pending = batch.get(i);
+            SensorReading reading = pending.reading();
+            samples[i] = new double[] {
+                    reading.sectionId(), pending.recordedAt().toEpochMilli(), reading.o2Level(), reading.co2Level(),
+                    reading.temperature(), reading.pressure(), reading.humidity()};
+        }
+        return samples;
+    }
+
+    private record Pending(SensorReading reading, String sectionName, Instant recordedAt, long receivedAt) {}
+
+    public static class InvalidReadingException extends RuntimeException {
+        public InvalidReadingException(String message) {
+            super(message);
+        }
+    }
+
+    public static class QueueFullException extends RuntimeException {
+        public QueueFullException(String message) {
+            super(message);
+        }
+    }
+}
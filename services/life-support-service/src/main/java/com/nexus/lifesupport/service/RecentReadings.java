@@ -0,0 +1,302 @@
+package com.nexus.lifesupport.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus.lifesupport.dto.EnvironmentTrend;
+import com.nexus.lifesupport.entity.EnvironmentalReading;
+import com.nexus.lifesupport.repository.EnvironmentalReadingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The last nexus.life-support.recent-readings.capacity readings of every section, held in memory so
+ * status, self-test and trend queries don't read environmental_readings.
+ *
+ * Each section has a fixed-size ring of primitive columns (timestamp, O2, CO2, temperature, pressure,
+ * humidity); recording a sample overwrites the oldest slot and allocates nothing. Rings are kept in
+ * timestamp order, like findLatestBySectionId: a late or backfilled sample (ingest accepts recordedAt)
+ * is inserted in place rather than becoming the latest, or dropped if it is older than a full ring
+ * already holds, and only samples that become the latest are checked for anomalies. The rings are warmed
+ * from the database at startup. Readings written on this replica are recorded directly and published
+ * on lifesupport:readings so the other replicas record them too. A table reset publishes a reset, and
+ * every replica reloads from the database. Live samples (not the warm-up) also go to AnomalyDetector.
+ */
+@Service
+public class RecentReadings {
+
+    private static final Logger log = LoggerFactory.getLogger(RecentReadings.class);
+    static final String CHANNEL = "lifesupport:readings";
+
+    private final EnvironmentalReadingRepository readingRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final AnomalyDetector anomalyDetector;
+    private final int capacity;
+    private final String origin = UUID.randomUUID().toString();
+    private final ConcurrentHashMap<Long, SectionBuffer> sections = new ConcurrentHashMap<>();
+    private volatile boolean warmed;
+
+    public RecentReadings(
+            EnvironmentalReadingRepository readingRepository,
+            RedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            RedisMessageListenerContainer listenerContainer,
+            AnomalyDetector anomalyDetector,
+            @Value("${nexus.life-support.recent-readings.capacity:512}") int capacity) {
+        this.readingRepository = readingRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.listenerContainer = listenerContainer;
+        this.anomalyDetector = anomalyDetector;
+        this.capacity = capacity;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(CHANNEL));
+        warm();
+    }
+
+    /**
+     * Whether the rings reflect the database; until then callers should read readings from the database.
+     */
+    public boolean isWarmed() {
+        return warmed;
+    }
+
+    /**
+     * @return whether the sample is now the section's latest
+     */
+    public boolean record(long sectionId, long timestamp, double o2, double co2, double temperature,
+                          double pressure, double humidity) {
+        return sections.computeIfAbsent(sectionId, id -> new SectionBuffer(capacity))
+                .add(timestamp, o2, co2, temperature, pressure, humidity);
+    }
+
+    /**
+     * Record readings written on this replica and share them with the others.
+     *
+     * @param samples rows of {sectionId, epoch millis, O2, CO2, temperature, pressure, humidity}
+     */
+    public void recordWritten(double[][] samples) {
+        recordLive(samples);
+        publish(new ReadingsMessage(origin, false, samples));
+    }
+
+    public void recordWritten(EnvironmentalReading reading) {
+        recordWritten(new double[][] {toSample(reading)});
+    }
+
+    /**
+     * Drop everything and reload from the database on every replica, e.g. after the tables are reset.
+     */
+    public void reset() {
+        warm();
+        publish(new ReadingsMessage(origin, true, null));
+    }
+
+    public Optional<EnvironmentalReading> latest(long sectionId) {
+        SectionBuffer buffer = sections.get(sectionId);
+        return buffer != null ? buffer.latest(sectionId) : Optional.empty();
+    }
+
+    public Optional<EnvironmentTrend> trend(long sectionId, int samples) {
+        SectionBuffer buffer = sections.get(sectionId);
+        return buffer != null ? buffer.trend(sectionId, Math.min(samples, capacity)) : Optional.empty();
+    }
+
+    private synchronized void warm() {
+        warmed = false;
+        try {
+            List<EnvironmentalReading> recent = readingRepository.findRecentBySections(capacity);
+            sections.clear();
+            for (EnvironmentalReading reading : recent) {
+                double[] sample = toSample(reading);
+                record(reading.getSectionId(), (long) sample[1], sample[2], sample[3], sample[4], sample[5], sample[6]);
+            }
+            warmed = true;
+            log.info("Loaded {} recent readings for {} sections", recent.size(), sections.size());
+        } catch (Exception e) {
+            log.error("Failed to load recent readings, serving readings from the database: {}", e.getMessage());
+        }
+    }
+
+    private void publish(ReadingsMessage message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            log.warn("Failed to publish recent readings: {}", e.getMessage());
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        try {
+            ReadingsMessage readings = objectMapper.readValue(message.getBody(), ReadingsMessage.class);
+            if (origin.equals(readings.origin())) {
+                return;
+            }
+            if (readings.reset()) {
+                warm();
+            } else if (readings.samples() != null) {
+                recordLive(readings.samples());
+            }
+        } catch (Exception e) {
+            log.debug("Ignoring malformed readings message: {}", e.getMessage());
+        }
+    }
+
+    private void recordLive(double[][] samples) {
+        for (double[] sample : samples) {
+            if (record((long) sample[0], (long) sample[1], sample[2], sample[3], sample[4], sample[5], sample[6])) {
+                anomalyDetector.evaluate((long) sample[0], (long) sample[1], sample[2], sample[3], sample[4],
+                        sample[5], sample[6]);
+            }
+        }
+    }
+
+    private static double[] toSample(EnvironmentalReading reading) {
+        Instant createdAt = reading.getCreatedAt() != null ? reading.getCreatedAt() : Instant.now();
+        return new double[] {
+                reading.getSectionId(), createdAt.toEpochMilli(), reading.getO2Level(), reading.getCo2Level(),
+                reading.getTemperature(), reading.getPressure(), reading.getHumidity()};
+    }
+
+    private record ReadingsMessage(String origin, boolean reset, double[][] samples) {}
+
+    /**
+     * Fixed-size ring of one section's samples in timestamp order. next is the slot the next sample
+     * overwrites.
+     */
+    private static final class SectionBuffer {
+        private final long[] timestamps;
+        private final double[] o2;
+        private final double[] co2;
+        private final double[] temperature;
+        private final double[] pressure;
+        private final double[] humidity;
+        private int next;
+        private int size;
+
+        SectionBuffer(int capacity) {
+            timestamps = new long[capacity];
+            o2 = new double[capacity];
+            co2 = new double[capacity];
+            temperature = new double[capacity];
+            pressure = new double[capacity];
+            humidity = new double[capacity];
+        }
+
+        /**
+         * @return whether the sample is the newest held; false if it was inserted behind newer
+         *         samples or dropped for being older than everything in a full ring
+         */
+        synchronized boolean add(long timestamp, double o2Level, double co2Level, double temp,
+                                 double pressureLevel, double humidityLevel) {
+            if (size == timestamps.length && timestamp < timestamps[slot(0)]) {
+                return false;
+            }
+            // Claim the slot after the newest sample, then shift newer samples up to keep time order
+            next = (next + 1) % timestamps.length;
+            if (size < timestamps.length) {
+                size++;
+            }
+            int position = size - 1;
+            while (position > 0 && timestamps[slot(position - 1)] > timestamp) {
+                int from = slot(position - 1);
+                int to = slot(position);
+                timestamps[to] = timestamps[from];
+                o2[to] = o2[from];
+                co2[to] = co2[from];
+                temperature[to] = temperature[from];
+                pressure[to] = pressure[from];
+                humidity[to] = humidity[from];
+                position--;
+            }
+            int i = slot(position);
+            timestamps[i] = timestamp;
+            o2[i] = o2Level;
+            co2[i] = co2Level;
+            temperature[i] = temp;
+            pressure[i] = pressureLevel;
+            humidity[i] = humidityLevel;
+            return position == size - 1;
+        }
+
+        synchronized Optional<EnvironmentalReading> latest(long sectionId) {
+            if (size == 0) {
+                return Optional.empty();
+            }
+            int i = slot(size - 1);
+            EnvironmentalReading reading = new EnvironmentalReading();
+            reading.setSectionId(sectionId);
+            reading.setO2Level(o2[i]);
+            reading.setCo2Level(co2[i]);
+            reading.setTemperature(temperature[i]);
+            reading.setPressure(pressure[i]);
+            reading.setHumidity(humidity[i]);
+            reading.setCreatedAt(Instant.ofEpochMilli(timestamps[i]));
+            return Optional.of(reading);
+        }
+
+        synchronized Optional<EnvironmentTrend> trend(long sectionId, int samples) {
+            int count = Math.min(samples, size);
+            if (count == 0) {
+                return Optional.empty();
+            }
+            int first = size - count;
+            return Optional.of(new EnvironmentTrend(
+                    sectionId,
+                    count,
+                    Instant.ofEpochMilli(timestamps[slot(first)]),
+                    Instant.ofEpochMilli(timestamps[slot(size - 1)]),
+                    metric(o2, first),
+                    metric(co2, first),
+                    metric(temperature, first),
+                    metric(pressure, first),
+                    metric(humidity, first)));
+        }
+
+        /**
+         * Stats over logical positions first..size-1 (oldest to newest), with the slope in units per minute.
+         */
+        private EnvironmentTrend.MetricTrend metric(double[] values, int first) {
+            int count = size - first;
+            long origin = timestamps[slot(first)];
+            double sum = 0, min = Double.MAX_VALUE, max = -Double.MAX_VALUE, sumT = 0, sumTT = 0, sumTV = 0;
+            for (int n = first; n < size; n++) {
+                int i = slot(n);
+                double v = values[i];
+                double t = (timestamps[i] - origin) / 60_000.0;
+                sum += v;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+                sumT += t;
+                sumTT += t * t;
+                sumTV += t * v;
+            }
+            double denominator = count * sumTT - sumT * sumT;
+            double slope = count > 1 && denominator != 0 ? (count * sumTV - sumT * sum) / denominator : 0.0;
+            return new EnvironmentTrend.MetricTrend(values[slot(size - 1)], sum / count, min, max, slope);
+        }
+
+        // Logical position 0 is the oldest sample held
+        private int slot(int position) {
+            int oldest = size < timestamps.length ? 0 : next;
+            return (oldest + position) % timestamps.length;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.nexus.lifesupport.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus.lifesupport.dto.SelfTestJob;
+import com.nexus.lifesupport.dto.SelfTestResult;
+import com.nexus.lifesupport.entity.EnvironmentalSettings;
+import com.nexus.lifesupport.repository.EnvironmentalSettingsRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Station-wide and per-section self-tests that run in the background instead of on a request thread.
+ *
+ * Submitting starts every section's test through LifeSupportService.startSelfTests and returns a job
+ * id straight away. The job is kept in Redis (lifesupport:selftest:job:{id}) and rewritten as each
+ * section finishes, so any replica can answer a poll; it expires nexus.life-support.self-test.job-retention
+ * after submission. Streams follow the same key, sending the job whenever another section completes.
+ */
+@Service
+public class SelfTestJobs {
+
+    private static final Logger log = LoggerFactory.getLogger(SelfTestJobs.class);
+    private static final String KEY_PREFIX = "lifesupport:selftest:job:";
+
+    private final LifeSupportService lifeSupportService;
+    private final EnvironmentalSettingsRepository settingsRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Duration streamPollInterval;
+    private final long streamTimeoutMs;
+    private final ScheduledExecutorService streamScheduler = Executors.newSingleThreadScheduledExecutor();
+
+    public SelfTestJobs(
+            LifeSupportService lifeSupportService,
+            EnvironmentalSettingsRepository settingsRepository,
+            RedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${nexus.life-support.self-test.job-retention:1h}") Duration retention,
+            @Value("${nexus.life-support.self-test.stream-poll-interval:250ms}") Duration streamPollInterval,
+            @Value("${nexus.life-support.self-test.stream-timeout:5m}") Duration streamTimeout) {
+        this.lifeSupportService = lifeSupportService;
+        this.settingsRepository = settingsRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.streamPollInterval = streamPollInterval;
+        this.streamTimeoutMs = streamTimeout.toMillis();
+    }
+
+    @PreDestroy
+    public void stop() {
+        streamScheduler.shutdownNow();
+    }
+
+    /**
+     * @param sectionId the section to test, or null for every section
+     */
+    public SelfTestJob submit(Long sectionId) {
+        List<EnvironmentalSettings> sections = sectionId != null
+                ? List.of(settingsRepository.findBySectionId(sectionId)
+                        .orElseThrow(() -> new LifeSupportService.SectionNotFoundException("Section not found: " + sectionId)))
+                : settingsRepository.findAll();
+
+        long startTime = System.currentTimeMillis();
+        List<CompletableFuture<SelfTestResult>> tests = lifeSupportService.startSelfTests(sections, startTime);
+        RunningJob job = new RunningJob(UUID.randomUUID().toString(), sectionId, sections.size(),
+                Instant.ofEpochMilli(startTime));
+        SelfTestJob snapshot = job.snapshot();
+        save(snapshot);
+        log.info("Self-test job {} started for {}", job.jobId,
+                sectionId != null ? "section " + sectionId : sections.size() + " sections");
+
+        for (int i = 0; i < tests.size(); i++) {
+            EnvironmentalSettings settings = sections.get(i);
+            tests.get(i).whenComplete((result, error) -> {
+                if (error != null) {
+                    log.warn("Self-test failed for section {}: {}", settings.getSectionId(), error.getMessage());
+                    result = SelfTestResult.failure(settings.getSectionId(), settings.getSectionName(),
+                            List.of(new SelfTestResult.SubsystemTest("Self-Test", false, "Self-test did not complete")),
+                            System.currentTimeMillis() - startTime);
+                }
+                // Saved under the job's lock so a slower write can't replace a newer snapshot
+                synchronized (job) {
+                    save(job.add(result));
+                }
+            });
+        }
+        return snapshot;
+    }
+
+    public SelfTestJob get(String jobId) {
+        return find(jobId).orElseThrow(() -> new JobNotFoundException("Self-test job not found: " + jobId));
+    }
+
+    /**
+     * Sends the job as a "progress" event each time a section completes and a final "completed" event.
+     */
+    public SseEmitter stream(String jobId) {
+        SelfTestJob initial = get(jobId);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        if (initial.isCompleted()) {
+            try {
+                emitter.send(SseEmitter.event().name("completed").data(initial, MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+            return emitter;
+        }
+
+        AtomicInteger sent = new AtomicInteger(-1);
+        AtomicReference<ScheduledFuture<?>> poll = new AtomicReference<>();
+        Runnable stop = () -> {
+            ScheduledFuture<?> future = poll.getAndSet(null);
+            if (future != null) {
+                future.cancel(false);
+            }
+        };
+        emitter.onCompletion(stop);
+        emitter.onTimeout(stop);
+        emitter.onError(e -> stop.run());
+        poll.set(streamScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                SelfTestJob job = find(jobId).orElse(null);
+                if (job == null) {
+                    emitter.complete();
+                } else if (job.isCompleted()) {
+                    emitter.send(SseEmitter.event().name("completed").data(job, MediaType.APPLICATION_JSON));
+                    emitter.complete();
+                } else {
+                    if (sent.getAndSet(job.completedSections()) != job.completedSections()) {
+                        emitter.send(SseEmitter.event().name("progress").data(job, MediaType.APPLICATION_JSON));
+                    }
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+            } catch (Exception e) {
+                log.warn("Failed to stream self-test job {}: {}", jobId, e.getMessage());
+                emitter.completeWithError(e);
+            }
+            stop.run();
+        }, 0, streamPollInterval.toMillis(), TimeUnit.MILLISECONDS));
+        return emitter;
+    }
+
+    private Optional<SelfTestJob> find(String jobId) {
+        String json = redisTemplate.opsForValue().get(KEY_PREFIX + jobId);
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(json, SelfTestJob.class));
+        } catch (Exception e) {
+            log.warn("Malformed self-test job {}: {}", jobId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void save(SelfTestJob job) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + job.jobId(), objectMapper.writeValueAsString(job), retention);
+        } catch (Exception e) {
+            log.warn("Failed to save self-test job {}: {}", job.jobId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Results of a job submitted on this replica; sections complete on self-test threads in any order.
+     */
+    private static final class RunningJob {
+        private final String jobId;
+        private final Long sectionId;
+        private final int totalSections;
+        private final Instant submittedAt;
+        private final List<SelfTestResult> results = new ArrayList<>();
+        private int passed;
+
+        RunningJob(String jobId, Long sectionId, int totalSections, Instant submittedAt) {
+            this.jobId = jobId;
+            this.sectionId = sectionId;
+            this.totalSections = totalSections;
+            this.submittedAt = submittedAt;
+        }
+
+        synchronized SelfTestJob add(SelfTestResult result) {
+            results.add(result);
+            if (result.passed()) {
+                passed++;
+            }
+            return snapshot();
+        }
+
+        synchronized SelfTestJob snapshot() {
+            boolean completed = results.size() == totalSections;
+            return new SelfTestJob(
+                    jobId,
+                    sectionId,
+                    completed ? "COMPLETED" : "RUNNING",
+                    totalSections,
+                    results.size(),
+                    passed,
+                    results.size() - passed,
+                    List.copyOf(results),
+                    submittedAt,
+                    completed ? Instant.now() : null);
+        }
+    }
+
+    public static class JobNotFoundException extends RuntimeException {
+        public JobNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.nexus.power.config;
 
 import com.nexus.power.entity.PowerAllocation;
+import com.nexus.power.entity.PowerLog;
 import com.nexus.power.entity.PowerSource;
 import com.nexus.power.repository.PowerAllocationRepository;
 import com.nexus.power.repository.PowerLogRepository;
+import com.nexus.power.repository.PowerLogRollupRepository;
 import com.nexus.power.repository.PowerSourceRepository;
 import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
@@ -15,6 +17,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.stream.Collectors;
 
 @Component
 public class DataInitializer implements ApplicationRunner {
@@ -27,17 +31,20 @@ public class DataInitializer implements ApplicationRunner {
     private final PowerSourceRepository sourceRepository;
     private final PowerAllocationRepository allocationRepository;
     private final PowerLogRepository logRepository;
+    private final PowerLogRollupRepository rollupRepository;
     private final EntityManager entityManager;
     private final RedisTemplate<String, String> redisTemplate;
 
     public DataInitializer(PowerSourceRepository sourceRepository,
                           PowerAllocationRepository allocationRepository,
                           PowerLogRepository logRepository,
+                          PowerLogRollupRepository rollupRepository,
                           EntityManager entityManager,
                           RedisTemplate<String, String> redisTemplate) {
         this.sourceRepository = sourceRepository;
         this.allocationRepository = allocationRepository;
         this.logRepository = logRepository;
+        this.rollupRepository = rollupRepository;
         this.entityManager = entityManager;
         this.redisTemplate = redisTemplate;
     }
@@ -57,6 +64,8 @@ public class DataInitializer implements ApplicationRunner {
         }
 
         try {
+            updateActionCheckConstraint();
+
             if (sourceRepository.count() == 0) {
                 log.info("Initializing power sources...");
                 initializePowerSources();
@@ -77,6 +86,23 @@ public class DataInitializer implements ApplicationRunner {
         log.info("Power Service demo data check complete");
     }
 
+    /**
+     * ddl-auto=update creates power_logs_action_check from the enum values at the time the table
+     * was created and never updates it, so entries for newer actions (PREEMPT, SOURCE_ONLINE,
+     * SOURCE_OFFLINE) would be rejected. Recreate it from the current enum on every startup.
+     */
+    private void updateActionCheckConstraint() {
+        String actions = Arrays.stream(PowerLog.PowerAction.values())
+                .map(action -> "'" + action.name() + "'")
+                .collect(Collectors.joining(", "));
+        entityManager.createNativeQuery(
+                "ALTER TABLE power_logs DROP CONSTRAINT IF EXISTS power_logs_action_check").executeUpdate();
+        entityManager.createNativeQuery(
+                "ALTER TABLE power_logs ADD CONSTRAINT power_logs_action_check CHECK (action IN (" + actions + "))")
+                .executeUpdate();
+        log.info("Updated power_logs_action_check to allow {}", actions);
+    }
+
     private void waitForInitCompletion(RedisDistributedLock lock) {
         long startTime = System.currentTimeMillis();
         while (System.currentTimeMillis() - startTime < LOCK_WAIT_TIMEOUT.toMillis()) {
@@ -102,6 +128,7 @@ public class DataInitializer implements ApplicationRunner {
         
         // Delete in order respecting foreign key constraints (batch delete)
         logRepository.deleteAllInBatch();
+        rollupRepository.deleteAllInBatch();
         allocationRepository.deleteAllInBatch();
         sourceRepository.deleteAllInBatch();
         
@@ -21,6 +21,8 @@ import java.util.UUID;
  * - init:lock:{service} - DataInitializer locks to prevent duplicate seed data
  * - ship:return:{shipId} - Ship return scheduling keys (TTL triggers return)
  * - ship:return:lock:{shipId} - Lock for processing ship return events
+ * - power:ledger:rebuild:lock, power:ledger:flush:lock - Grid ledger rebuild and write-behind (see GridLedger)
+ * - power:simulation:lock - Held (and extended every tick) by the replica running the source simulation
  */
 public class RedisDistributedLock {
 
@@ -35,6 +37,14 @@ public class RedisDistributedLock {
             "    return 0 " +
             "end";
 
+    // Lua script for atomic check-and-extend
+    private static final String EXTEND_LOCK_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "    return redis.call('pexpire', KEYS[1], ARGV[2]) " +
+            "else " +
+            "    return 0 " +
+            "end";
+
     private final RedisTemplate<String, String> redisTemplate;
     private final String lockKey;
     private final String lockValue;
@@ -96,6 +106,27 @@ public class RedisDistributedLock {
         }
     }
 
+    /**
+     * Resets the lock's TTL if still owned by this instance, for long-lived holders.
+     *
+     * @return true if the lock is still ours, false if it expired or was taken over
+     */
+    public boolean extend() {
+        try {
+            DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+            script.setScriptText(EXTEND_LOCK_SCRIPT);
+            script.setResultType(Long.class);
+
+            Long result = redisTemplate.execute(script,
+                    Collections.singletonList(lockKey),
+                    lockValue, String.valueOf(ttl.toMillis()));
+            return result != null && result == 1;
+        } catch (Exception e) {
+            log.warn("Failed to extend Redis lock '{}': {}", lockKey, e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Checks if the lock key exists (regardless of owner).
      *
@@ -1,6 +1,8 @@
 package com.nexus.power.controller;
 
 import com.nexus.power.config.DataInitializer;
+import com.nexus.power.service.GridLedger;
+import com.nexus.power.service.GridStatusCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -17,15 +19,21 @@ public class AdminController {
     private static final Logger log = LoggerFactory.getLogger(AdminController.class);
     
     private final DataInitializer dataInitializer;
+    private final GridLedger gridLedger;
+    private final GridStatusCache gridStatusCache;
     
-    public AdminController(DataInitializer dataInitializer) {
+    public AdminController(DataInitializer dataInitializer, GridLedger gridLedger, GridStatusCache gridStatusCache) {
         this.dataInitializer = dataInitializer;
+        this.gridLedger = gridLedger;
+        this.gridStatusCache = gridStatusCache;
     }
     
     @PostMapping("/resetTables")
     public ResponseEntity<Map<String, String>> resetTables() {
         log.info("Admin: Resetting tables for Power Service");
         dataInitializer.resetTables();
+        gridLedger.rebuild();
+        gridStatusCache.sourcesChanged();
         return ResponseEntity.ok(Map.of(
             "service", "power",
             "status", "success",
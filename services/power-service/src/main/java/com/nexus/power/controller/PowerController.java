@@ -3,12 +3,20 @@ package com.nexus.power.controller;
 import com.nexus.power.dto.*;
 import com.nexus.power.entity.PowerAllocation;
 import com.nexus.power.entity.PowerSource;
+import com.nexus.power.service.CapacityForecaster;
+import com.nexus.power.service.DatabaseAllocator;
+import com.nexus.power.service.GridLedger;
+import com.nexus.power.service.PowerLogRollups;
 import com.nexus.power.service.PowerService;
+import com.nexus.power.service.PreemptionEvents;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -16,10 +24,20 @@ import java.util.Map;
 @RequestMapping("/api/v1/power")
 public class PowerController {
     
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    
     private final PowerService powerService;
+    private final PreemptionEvents preemptionEvents;
+    private final PowerLogRollups powerLogRollups;
+    private final CapacityForecaster capacityForecaster;
     
-    public PowerController(PowerService powerService) {
+    public PowerController(PowerService powerService, PreemptionEvents preemptionEvents,
+                           PowerLogRollups powerLogRollups, CapacityForecaster capacityForecaster) {
         this.powerService = powerService;
+        this.preemptionEvents = preemptionEvents;
+        this.powerLogRollups = powerLogRollups;
+        this.capacityForecaster = capacityForecaster;
     }
     
     @GetMapping
@@ -32,11 +50,22 @@ public class PowerController {
         return ResponseEntity.ok(powerService.getGridStatus());
     }
     
+    @GetMapping("/summary")
+    public ResponseEntity<PowerSummary> getSummary() {
+        return ResponseEntity.ok(powerService.getSummary());
+    }
+    
     @GetMapping("/sources")
     public ResponseEntity<List<PowerSource>> getAllSources() {
         return ResponseEntity.ok(powerService.getAllSources());
     }
     
+    @GetMapping("/sources/telemetry")
+    public ResponseEntity<List<GridLedger.SourceTelemetry>> getSourceTelemetry(
+            @RequestParam(defaultValue = "60") int count) {
+        return ResponseEntity.ok(powerService.getSourceTelemetry(count));
+    }
+    
     @GetMapping("/sources/{id}")
     public ResponseEntity<PowerSource> getSourceById(@PathVariable Long id) {
         return powerService.getSourceById(id)
@@ -45,8 +74,15 @@ public class PowerController {
     }
     
     @PostMapping("/allocate")
-    public ResponseEntity<AllocationResponse> allocatePower(@Valid @RequestBody AllocationRequest request) {
-        AllocationResponse response = powerService.allocatePower(request);
+    public ResponseEntity<AllocationResponse> allocatePower(
+            @Valid @RequestBody AllocationRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        AllocationResponse response = powerService.allocatePower(request, idempotencyKey);
+        if (Boolean.TRUE.equals(response.replayed())) {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                    .body(response);
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
@@ -56,6 +92,37 @@ public class PowerController {
         return ResponseEntity.ok(Map.of("message", "Power deallocated successfully"));
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse> applyBatch(@Valid @RequestBody BatchRequest request) {
+        return ResponseEntity.ok(powerService.applyBatch(request));
+    }
+    
+    @GetMapping("/preemptions")
+    public ResponseEntity<List<PreemptionEvent>> getRecentPreemptions() {
+        return ResponseEntity.ok(preemptionEvents.recent());
+    }
+    
+    @GetMapping(path = "/preemptions/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPreemptions() {
+        return preemptionEvents.subscribe();
+    }
+    
+    @GetMapping("/history")
+    public ResponseEntity<PowerHistory> getHistory(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String resolution,
+            @RequestParam(required = false) String system) {
+        return ResponseEntity.ok(powerLogRollups.getHistory(from, to, resolution, system));
+    }
+    
+    @GetMapping("/forecast")
+    public ResponseEntity<CapacityForecast> getForecast(
+            @RequestParam(defaultValue = "15") int minutes,
+            @RequestParam(required = false) Double amountKw) {
+        return ResponseEntity.ok(capacityForecaster.forecast(minutes, amountKw));
+    }
+    
     @GetMapping("/allocations")
     public ResponseEntity<List<PowerAllocation>> getAllAllocations() {
         return ResponseEntity.ok(powerService.getAllAllocations());
@@ -75,6 +142,42 @@ public class PowerController {
                 .body(Map.of("error", ex.getMessage()));
     }
     
+    @ExceptionHandler(DatabaseAllocator.AllocationConflictException.class)
+    public ResponseEntity<Map<String, String>> handleAllocationConflict(DatabaseAllocator.AllocationConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", ex.getMessage()));
+    }
+    
+    @ExceptionHandler(PowerService.InvalidIdempotencyKeyException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidIdempotencyKey(PowerService.InvalidIdempotencyKeyException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", ex.getMessage()));
+    }
+    
+    @ExceptionHandler(GridLedger.IdempotencyKeyMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleIdempotencyKeyMismatch(GridLedger.IdempotencyKeyMismatchException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(Map.of("error", ex.getMessage()));
+    }
+    
+    @ExceptionHandler(PowerLogRollups.InvalidHistoryQueryException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidHistoryQuery(PowerLogRollups.InvalidHistoryQueryException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", ex.getMessage()));
+    }
+    
+    @ExceptionHandler(CapacityForecaster.InvalidForecastQueryException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidForecastQuery(CapacityForecaster.InvalidForecastQueryException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", ex.getMessage()));
+    }
+    
+    @ExceptionHandler(GridLedger.LedgerUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleLedgerUnavailable(GridLedger.LedgerUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", ex.getMessage()));
+    }
+    
     @ExceptionHandler(PowerService.AllocationNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleAllocationNotFound(PowerService.AllocationNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -1,10 +1,14 @@
 package com.nexus.power.dto;
 
+import java.util.List;
+
 public record AllocationResponse(
     Long id,
     String systemName,
     Double allocatedKw,
     Integer priority,
     Long sectionId,
-    String message
+    String message,
+    List<PreemptionEvent> preemptions,
+    Boolean replayed
 ) {}
@@ -0,0 +1,33 @@
+package com.nexus.power.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record BatchOperation(
+    @NotNull(message = "Operation is required")
+    OperationType op,
+    
+    @NotBlank(message = "System name is required")
+    String system,
+    
+    Double amountKw,
+    
+    Long sectionId,
+    
+    Integer priority,
+    
+    @Size(max = 200, message = "Idempotency key must be at most 200 characters")
+    String idempotencyKey
+) {
+    public BatchOperation {
+        if (priority == null) {
+            priority = 5; // Default priority
+        }
+    }
+    
+    public enum OperationType {
+        ALLOCATE,
+        DEALLOCATE
+    }
+}
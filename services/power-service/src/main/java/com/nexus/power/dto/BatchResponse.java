@@ -0,0 +1,9 @@
+package com.nexus.power.dto;
+
+import java.util.List;
+
+public record BatchResponse(
+    List<BatchResult> results,
+    int succeeded,
+    int failed
+) {}
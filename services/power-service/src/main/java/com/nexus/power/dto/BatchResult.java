@@ -0,0 +1,19 @@
+package com.nexus.power.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of one batch operation, in request order. allocatedKw is the system's total
+ * after an allocation; releasedKw is what a deallocation freed (0 if nothing was allocated).
+ */
+public record BatchResult(
+    int index,
+    String op,
+    String system,
+    boolean success,
+    Long id,
+    Double allocatedKw,
+    Double releasedKw,
+    String message,
+    List<PreemptionEvent> preemptions
+) {}
@@ -0,0 +1,28 @@
+package com.nexus.power.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Projected grid headroom after horizonMinutes, assuming each system group keeps allocating and
+ * releasing at its recent (exponentially decayed) rate. sufficient is only set when the caller asked
+ * about a specific amount.
+ */
+public record CapacityForecast(
+    Instant asOf,
+    int horizonMinutes,
+    double outputKw,
+    double allocatedKw,
+    double availableKw,
+    double projectedAvailableKw,
+    Double requestedKw,
+    Boolean sufficient,
+    List<SystemTrend> systems
+) {
+    public record SystemTrend(
+        String systemPrefix,
+        double allocateKwPerMinute,
+        double releaseKwPerMinute,
+        double projectedChangeKw
+    ) {}
+}
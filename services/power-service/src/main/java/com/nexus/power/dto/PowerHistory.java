@@ -0,0 +1,17 @@
+package com.nexus.power.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Rolled-up power log history for a time range. Only buckets in which a system's allocation
+ * changed are returned; its level holds at closingKw until its next point. Buckets newer than
+ * asOf (the last rollup pass) may not include the most recent changes yet.
+ */
+public record PowerHistory(
+    String resolution,
+    Instant from,
+    Instant to,
+    Instant asOf,
+    List<PowerHistoryPoint> points
+) {}
@@ -0,0 +1,31 @@
+package com.nexus.power.dto;
+
+import com.nexus.power.entity.PowerLogRollup;
+
+import java.time.Instant;
+
+public record PowerHistoryPoint(
+    Instant bucketStart,
+    String systemName,
+    Long allocateCount,
+    Long deallocateCount,
+    Long preemptCount,
+    Double allocatedKw,
+    Double releasedKw,
+    Double peakKw,
+    Double closingKw
+) {
+    public static PowerHistoryPoint fromEntity(PowerLogRollup rollup) {
+        return new PowerHistoryPoint(
+            rollup.getBucketStart(),
+            rollup.getSystemName(),
+            rollup.getAllocateCount(),
+            rollup.getDeallocateCount(),
+            rollup.getPreemptCount(),
+            rollup.getAllocatedKw(),
+            rollup.getReleasedKw(),
+            rollup.getPeakKw(),
+            rollup.getClosingKw()
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package com.nexus.power.dto;
+
+public record PowerSummary(
+    Double totalCapacityKw,
+    Double totalOutputKw,
+    Double totalAllocatedKw,
+    Double availableKw,
+    Double utilizationPercent,
+    Integer onlineSources,
+    Integer totalSources
+) {}
@@ -0,0 +1,18 @@
+package com.nexus.power.dto;
+
+import java.time.Instant;
+
+/**
+ * A lower-priority allocation that was scaled down (or removed, if preempted) so a
+ * higher-priority request could be admitted.
+ */
+public record PreemptionEvent(
+    String systemName,
+    Integer priority,
+    Double previousKw,
+    Double shedKw,
+    Boolean preempted,
+    String requestedBy,
+    Integer requestedPriority,
+    Instant timestamp
+) {}
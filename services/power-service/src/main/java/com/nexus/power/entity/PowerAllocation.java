@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "power_allocations")
+@Table(name = "power_allocations",
+       uniqueConstraints = @UniqueConstraint(name = "uk_power_allocations_system_name", columnNames = "system_name"))
 public class PowerAllocation {
     
     @Id
@@ -29,6 +30,11 @@ public class PowerAllocation {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
     
+    // Checked on update in optimistic allocation mode
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = Instant.now();
@@ -88,4 +94,8 @@ public class PowerAllocation {
     public Instant getUpdatedAt() {
         return updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
 }
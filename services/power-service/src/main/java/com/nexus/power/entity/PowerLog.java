@@ -4,7 +4,7 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "power_logs")
+@Table(name = "power_logs", indexes = @Index(name = "idx_power_logs_created_at", columnList = "created_at"))
 public class PowerLog {
     
     @Id
@@ -21,6 +21,10 @@ public class PowerLog {
     @Column(name = "system_name")
     private String systemName;
     
+    // The system's allocation after this change, for allocation actions
+    @Column(name = "resulting_kw")
+    private Double resultingKw;
+    
     @Column(name = "source_id")
     private Long sourceId;
     
@@ -29,7 +33,10 @@ public class PowerLog {
     
     @PrePersist
     protected void onCreate() {
-        createdAt = Instant.now();
+        // Entries written behind by LedgerWriter keep the time the change was admitted
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
     }
     
     // Getters and Setters
@@ -65,6 +72,14 @@ public class PowerLog {
         this.systemName = systemName;
     }
     
+    public Double getResultingKw() {
+        return resultingKw;
+    }
+    
+    public void setResultingKw(Double resultingKw) {
+        this.resultingKw = resultingKw;
+    }
+    
     public Long getSourceId() {
         return sourceId;
     }
@@ -77,9 +92,14 @@ public class PowerLog {
         return createdAt;
     }
     
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+    
     public enum PowerAction {
         ALLOCATE,
         DEALLOCATE,
+        PREEMPT,
         SOURCE_ONLINE,
         SOURCE_OFFLINE,
         OUTPUT_CHANGE
@@ -0,0 +1,146 @@
+package com.nexus.power.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Per-system aggregate of power_logs over one minute or one hour bucket.
+ * Maintained incrementally by PowerLogRollups; history queries read these instead of the raw log.
+ */
+@Entity
+@Table(name = "power_log_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_power_log_rollups_bucket",
+               columnNames = {"resolution", "bucket_start", "system_name"}))
+public class PowerLogRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private Resolution resolution;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "system_name", nullable = false)
+    private String systemName;
+
+    @Column(name = "allocate_count", nullable = false)
+    private Long allocateCount;
+
+    @Column(name = "deallocate_count", nullable = false)
+    private Long deallocateCount;
+
+    @Column(name = "preempt_count", nullable = false)
+    private Long preemptCount;
+
+    @Column(name = "allocated_kw", nullable = false)
+    private Double allocatedKw;
+
+    @Column(name = "released_kw", nullable = false)
+    private Double releasedKw;
+
+    // Highest allocation level the system reached in the bucket
+    @Column(name = "peak_kw", nullable = false)
+    private Double peakKw;
+
+    // Allocation level after the last change in the bucket
+    @Column(name = "closing_kw", nullable = false)
+    private Double closingKw;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(Resolution resolution) {
+        this.resolution = resolution;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public String getSystemName() {
+        return systemName;
+    }
+
+    public void setSystemName(String systemName) {
+        this.systemName = systemName;
+    }
+
+    public Long getAllocateCount() {
+        return allocateCount;
+    }
+
+    public void setAllocateCount(Long allocateCount) {
+        this.allocateCount = allocateCount;
+    }
+
+    public Long getDeallocateCount() {
+        return deallocateCount;
+    }
+
+    public void setDeallocateCount(Long deallocateCount) {
+        this.deallocateCount = deallocateCount;
+    }
+
+    public Long getPreemptCount() {
+        return preemptCount;
+    }
+
+    public void setPreemptCount(Long preemptCount) {
+        this.preemptCount = preemptCount;
+    }
+
+    public Double getAllocatedKw() {
+        return allocatedKw;
+    }
+
+    public void setAllocatedKw(Double allocatedKw) {
+        this.allocatedKw = allocatedKw;
+    }
+
+    public Double getReleasedKw() {
+        return releasedKw;
+    }
+
+    public void setReleasedKw(Double releasedKw) {
+        this.releasedKw = releasedKw;
+    }
+
+    public Double getPeakKw() {
+        return peakKw;
+    }
+
+    public void setPeakKw(Double peakKw) {
+        this.peakKw = peakKw;
+    }
+
+    public Double getClosingKw() {
+        return closingKw;
+    }
+
+    public void setClosingKw(Double closingKw) {
+        this.closingKw = closingKw;
+    }
+
+    public enum Resolution {
+        MINUTE,
+        HOUR
+    }
+}
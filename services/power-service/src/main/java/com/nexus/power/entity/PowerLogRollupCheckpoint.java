@@ -0,0 +1,53 @@
+package com.nexus.power.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Highest power_logs ID already folded into power_log_rollups. Advanced in the same
+ * transaction as the rollup upserts, so every log row is counted exactly once.
+ */
+@Entity
+@Table(name = "power_log_rollup_checkpoints")
+public class PowerLogRollupCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(name = "last_log_id", nullable = false)
+    private Long lastLogId;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getLastLogId() {
+        return lastLogId;
+    }
+
+    public void setLastLogId(Long lastLogId) {
+        this.lastLogId = lastLogId;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
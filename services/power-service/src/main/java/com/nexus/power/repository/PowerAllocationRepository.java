@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +16,8 @@ public interface PowerAllocationRepository extends JpaRepository<PowerAllocation
 
     Optional<PowerAllocation> findBySystemName(String systemName);
 
+    List<PowerAllocation> findBySystemNameIn(Collection<String> systemNames);
+
     /**
      * Find allocation by system name with pessimistic write lock.
      * Prevents race conditions when multiple requests try to allocate power
@@ -24,6 +27,34 @@ public interface PowerAllocationRepository extends JpaRepository<PowerAllocation
     @Query("SELECT pa FROM PowerAllocation pa WHERE pa.systemName = :systemName")
     Optional<PowerAllocation> findBySystemNameWithLock(String systemName);
 
+    /**
+     * Add amountKw to a system's allocation, creating it if needed, in one statement, but only if
+     * the grid's ONLINE output covers the new total. Returns the updated row, or empty if rejected.
+     *
+     * The capacity predicate sees the totals committed when the statement starts, so concurrent
+     * admissions for different systems can overshoot the grid by at most their own amounts.
+     */
+    @Query(value = "INSERT INTO power_allocations (system_name, section_id, allocated_kw, priority, created_at, updated_at, version) " +
+            "SELECT :systemName, CAST(:sectionId AS bigint), :amountKw, :priority, now(), now(), 0 " +
+            "WHERE (SELECT COALESCE(SUM(allocated_kw), 0) FROM power_allocations) + :amountKw " +
+            "   <= (SELECT COALESCE(SUM(current_output_kw), 0) FROM power_sources WHERE status = 'ONLINE') " +
+            "ON CONFLICT (system_name) DO UPDATE SET " +
+            "allocated_kw = power_allocations.allocated_kw + EXCLUDED.allocated_kw, " +
+            "priority = EXCLUDED.priority, " +
+            "section_id = COALESCE(power_allocations.section_id, EXCLUDED.section_id), " +
+            "updated_at = EXCLUDED.updated_at, " +
+            "version = power_allocations.version + 1 " +
+            "RETURNING *",
+            nativeQuery = true)
+    Optional<PowerAllocation> addIfCapacity(String systemName, double amountKw, int priority, Long sectionId);
+
+    /**
+     * Delete a system's allocation and return the amount it held, or empty if it had none.
+     */
+    @Query(value = "DELETE FROM power_allocations WHERE system_name = :systemName RETURNING allocated_kw",
+            nativeQuery = true)
+    Optional<Double> deleteBySystemNameReturningAmount(String systemName);
+
     List<PowerAllocation> findBySystemNameContainingIgnoreCase(String systemName);
     
     List<PowerAllocation> findBySectionId(Long sectionId);
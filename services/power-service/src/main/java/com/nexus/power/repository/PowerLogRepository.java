@@ -1,13 +1,17 @@
 package com.nexus.power.repository;
 
 import com.nexus.power.entity.PowerLog;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PowerLogRepository extends JpaRepository<PowerLog, Long> {
@@ -21,4 +25,18 @@ public interface PowerLogRepository extends JpaRepository<PowerLog, Long> {
     Page<PowerLog> findAllByOrderByCreatedAtDesc(Pageable pageable);
     
     List<PowerLog> findByCreatedAtAfter(Instant after);
+    
+    List<PowerLog> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    Optional<PowerLog> findFirstByCreatedAtGreaterThanEqualOrderByIdAsc(Instant since);
+    
+    @Query("SELECT MAX(l.id) FROM PowerLog l")
+    Long findMaxId();
+    
+    /**
+     * Prune raw entries that are past retention and already folded into the rollups.
+     */
+    @Modifying
+    @Query("DELETE FROM PowerLog l WHERE l.createdAt < :cutoff AND l.id <= :rolledUpThrough")
+    int deleteRolledUpBefore(Instant cutoff, Long rolledUpThrough);
 }
@@ -0,0 +1,9 @@
+package com.nexus.power.repository;
+
+import com.nexus.power.entity.PowerLogRollupCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PowerLogRollupCheckpointRepository extends JpaRepository<PowerLogRollupCheckpoint, String> {
+}
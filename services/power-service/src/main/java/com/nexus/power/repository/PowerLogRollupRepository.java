@@ -0,0 +1,50 @@
+package com.nexus.power.repository;
+
+import com.nexus.power.entity.PowerLogRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PowerLogRollupRepository extends JpaRepository<PowerLogRollup, Long> {
+
+    /**
+     * Add one batch's aggregates to a bucket, creating it if needed.
+     * Counts and kW sums accumulate, the peak keeps the larger value, and the closing level
+     * is replaced (batches are applied in log order).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO power_log_rollups " +
+            "(resolution, bucket_start, system_name, allocate_count, deallocate_count, preempt_count, allocated_kw, released_kw, peak_kw, closing_kw) " +
+            "VALUES (:resolution, :bucketStart, :systemName, :allocateCount, :deallocateCount, :preemptCount, :allocatedKw, :releasedKw, :peakKw, :closingKw) " +
+            "ON CONFLICT (resolution, bucket_start, system_name) DO UPDATE SET " +
+            "allocate_count = power_log_rollups.allocate_count + EXCLUDED.allocate_count, " +
+            "deallocate_count = power_log_rollups.deallocate_count + EXCLUDED.deallocate_count, " +
+            "preempt_count = power_log_rollups.preempt_count + EXCLUDED.preempt_count, " +
+            "allocated_kw = power_log_rollups.allocated_kw + EXCLUDED.allocated_kw, " +
+            "released_kw = power_log_rollups.released_kw + EXCLUDED.released_kw, " +
+            "peak_kw = GREATEST(power_log_rollups.peak_kw, EXCLUDED.peak_kw), " +
+            "closing_kw = EXCLUDED.closing_kw",
+            nativeQuery = true)
+    void upsert(String resolution, Instant bucketStart, String systemName,
+                long allocateCount, long deallocateCount, long preemptCount,
+                double allocatedKw, double releasedKw, double peakKw, double closingKw);
+
+    @Query("SELECT r FROM PowerLogRollup r WHERE r.resolution = :resolution " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "ORDER BY r.bucketStart ASC, r.systemName ASC")
+    List<PowerLogRollup> findRange(PowerLogRollup.Resolution resolution, Instant from, Instant to);
+
+    @Query("SELECT r FROM PowerLogRollup r WHERE r.resolution = :resolution AND r.systemName = :systemName " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "ORDER BY r.bucketStart ASC")
+    List<PowerLogRollup> findRangeForSystem(PowerLogRollup.Resolution resolution, String systemName, Instant from, Instant to);
+
+    @Modifying
+    @Query("DELETE FROM PowerLogRollup r WHERE r.resolution = :resolution AND r.bucketStart < :cutoff")
+    int deleteOlderThan(PowerLogRollup.Resolution resolution, Instant cutoff);
+}
@@ -20,5 +20,7 @@ public interface PowerSourceRepository extends JpaRepository<PowerSource, Long>
     @Query("SELECT SUM(ps.currentOutputKw) FROM PowerSource ps WHERE ps.status = 'ONLINE'")
     Double getTotalCurrentOutput();
     
+    long countByStatus(PowerSource.PowerSourceStatus status);
+    
     boolean existsByName(String name);
 }
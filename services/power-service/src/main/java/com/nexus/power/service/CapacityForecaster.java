@@ -0,0 +1,205 @@
+package com.nexus.power.service;
+
+import com.nexus.power.dto.CapacityForecast;
+import com.nexus.power.dto.PowerSummary;
+import com.nexus.power.entity.PowerLog;
+import com.nexus.power.repository.PowerLogRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Forecasts grid headroom from recent allocation activity.
+ *
+ * Each replica tails power_logs past the last ID it has seen (every nexus.power.forecast.poll-interval)
+ * and folds allocate and release amounts into exponentially decayed sums per system group, e.g.
+ * docking_bay_* or life_support_section_*. With half-life h, a sum S decays as S * 2^(-t/h), and
+ * S * ln2 / h is the recent rate in kW per second. A forecast is current headroom minus each group's
+ * net rate over the horizon, so answering never scans the log. On startup the sums are warmed from the
+ * last few half-lives of power_logs.
+ */
+@Service
+public class CapacityForecaster {
+
+    private static final Logger log = LoggerFactory.getLogger(CapacityForecaster.class);
+    private static final Pattern NUMBERED_SUFFIX = Pattern.compile("_\\d+$");
+    private static final int WARMUP_HALF_LIVES = 4;
+    private static final int POLL_BATCH_SIZE = 5000;
+
+    private final PowerLogRepository logRepository;
+    private final GridStatusCache gridStatusCache;
+    private final Duration pollInterval;
+    private final double decayPerSecond;
+    private final Duration halfLife;
+    private final int maxHorizonMinutes;
+    private final Map<String, GroupRates> groups = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private long lastLogId = -1;
+
+    public CapacityForecaster(
+            PowerLogRepository logRepository,
+            GridStatusCache gridStatusCache,
+            @Value("${nexus.power.forecast.poll-interval:5s}") Duration pollInterval,
+            @Value("${nexus.power.forecast.half-life:15m}") Duration halfLife,
+            @Value("${nexus.power.forecast.max-horizon:2h}") Duration maxHorizon) {
+        this.logRepository = logRepository;
+        this.gridStatusCache = gridStatusCache;
+        this.pollInterval = pollInterval;
+        this.halfLife = halfLife;
+        this.decayPerSecond = Math.log(2) / (halfLife.toMillis() / 1000.0);
+        this.maxHorizonMinutes = (int) maxHorizon.toMinutes();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Capacity forecast tracking power_logs every {} (half-life {})", pollInterval, halfLife);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public CapacityForecast forecast(int horizonMinutes, Double amountKw) {
+        if (horizonMinutes < 1 || horizonMinutes > maxHorizonMinutes) {
+            throw new InvalidForecastQueryException(
+                    "minutes must be between 1 and " + maxHorizonMinutes);
+        }
+        if (amountKw != null && amountKw <= 0) {
+            throw new InvalidForecastQueryException("amountKw must be positive");
+        }
+
+        double now = System.currentTimeMillis() / 1000.0;
+        double horizonSeconds = horizonMinutes * 60.0;
+        List<CapacityForecast.SystemTrend> systems = new ArrayList<>(groups.size());
+        double projectedChange = 0.0;
+        for (Map.Entry<String, GroupRates> entry : groups.entrySet()) {
+            double[] rates = entry.getValue().ratesAt(now, decayPerSecond);
+            double change = (rates[0] - rates[1]) * horizonSeconds;
+            projectedChange += change;
+            systems.add(new CapacityForecast.SystemTrend(entry.getKey(), rates[0] * 60, rates[1] * 60, change));
+        }
+        systems.sort(Comparator.comparingDouble(CapacityForecast.SystemTrend::projectedChangeKw).reversed());
+
+        PowerSummary summary = gridStatusCache.summary();
+        double projectedAllocated = Math.max(0.0, summary.totalAllocatedKw() + projectedChange);
+        double projectedAvailable = summary.totalOutputKw() - projectedAllocated;
+        return new CapacityForecast(
+                Instant.now(),
+                horizonMinutes,
+                summary.totalOutputKw(),
+                summary.totalAllocatedKw(),
+                summary.availableKw(),
+                projectedAvailable,
+                amountKw,
+                amountKw != null ? projectedAvailable >= amountKw : null,
+                systems);
+    }
+
+    void poll() {
+        try {
+            if (lastLogId < 0) {
+                lastLogId = warmupStart();
+            }
+            List<PowerLog> logs;
+            do {
+                logs = logRepository.findByIdGreaterThanOrderByIdAsc(lastLogId, Limit.of(POLL_BATCH_SIZE));
+                for (PowerLog entry : logs) {
+                    record(entry);
+                    lastLogId = entry.getId();
+                }
+            } while (logs.size() == POLL_BATCH_SIZE);
+        } catch (Exception e) {
+            // The watermark only moves past recorded entries, so the next poll picks up from here
+            log.warn("Capacity forecast poll failed: {}", e.getMessage());
+        }
+    }
+
+    private long warmupStart() {
+        Instant since = Instant.now().minus(halfLife.multipliedBy(WARMUP_HALF_LIVES));
+        return logRepository.findFirstByCreatedAtGreaterThanEqualOrderByIdAsc(since)
+                .map(first -> first.getId() - 1)
+                .orElseGet(() -> {
+                    Long maxId = logRepository.findMaxId();
+                    return maxId != null ? maxId : 0L;
+                });
+    }
+
+    private void record(PowerLog entry) {
+        if (entry.getSystemName() == null) {
+            return;
+        }
+        boolean allocate = entry.getAction() == PowerLog.PowerAction.ALLOCATE;
+        if (!allocate && entry.getAction() != PowerLog.PowerAction.DEALLOCATE
+                && entry.getAction() != PowerLog.PowerAction.PREEMPT) {
+            return;
+        }
+        double at = entry.getCreatedAt().toEpochMilli() / 1000.0;
+        groups.computeIfAbsent(systemPrefix(entry.getSystemName()), key -> new GroupRates())
+                .add(allocate, entry.getAmountKw(), at, decayPerSecond);
+    }
+
+    static String systemPrefix(String systemName) {
+        return NUMBERED_SUFFIX.matcher(systemName).replaceFirst("_*");
+    }
+
+    /**
+     * Decayed allocate and release sums for one system group, as of their last update.
+     */
+    private static final class GroupRates {
+        private double allocated;
+        private double released;
+        private double updatedAt;
+
+        synchronized void add(boolean allocate, double amountKw, double at, double decayPerSecond) {
+            decayTo(at, decayPerSecond);
+            if (allocate) {
+                allocated += amountKw;
+            } else {
+                released += amountKw;
+            }
+        }
+
+        /**
+         * @return allocate and release rates in kW per second
+         */
+        synchronized double[] ratesAt(double at, double decayPerSecond) {
+            double factor = Math.exp(-decayPerSecond * Math.max(0.0, at - updatedAt));
+            return new double[] {allocated * factor * decayPerSecond, released * factor * decayPerSecond};
+        }
+
+        // Entries from other replicas can land slightly out of order; never decay backwards
+        private void decayTo(double at, double decayPerSecond) {
+            if (at > updatedAt) {
+                double factor = Math.exp(-decayPerSecond * (at - updatedAt));
+                allocated *= factor;
+                released *= factor;
+                updatedAt = at;
+            }
+        }
+    }
+
+    public static class InvalidForecastQueryException extends RuntimeException {
+        public InvalidForecastQueryException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.nexus.power.service;
+
+import com.nexus.power.entity.PowerAllocation;
+import com.nexus.power.repository.PowerAllocationRepository;
+import com.nexus.power.repository.PowerSourceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Database-backed admission, selected per deployment with nexus.power.allocation.mode:
+ *
+ * - ledger (default): the Redis grid ledger admits allocations; this class is not used.
+ * - pessimistic: lock the system's row (SELECT ... FOR UPDATE), check grid headroom, update.
+ * - optimistic: read without locks and update with a @Version check, retrying on conflict.
+ * - atomic: a single INSERT ... ON CONFLICT DO UPDATE guarded by the capacity predicate.
+ *
+ * Conflicts (version mismatches, lock failures, two first allocations racing to insert) are
+ * retried up to nexus.power.allocation.max-attempts with jittered backoff and counted in
+ * power.allocation.conflicts. Committed changes are mirrored into the ledger so grid status,
+ * power_logs and idempotent replays behave as in ledger mode. These modes don't shed load, and an
+ * Idempotency-Key is checked before the change and stored after it commits, so only sequential
+ * retries are deduplicated.
+ */
+@Service
+public class DatabaseAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseAllocator.class);
+
+    private final PowerAllocationRepository allocationRepository;
+    private final PowerSourceRepository sourceRepository;
+    private final GridLedger gridLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final Mode mode;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Counter conflictCounter;
+    private final Counter exhaustedCounter;
+    private final DistributionSummary attemptsSummary;
+    private final Timer lockWaitTimer;
+
+    public DatabaseAllocator(
+            PowerAllocationRepository allocationRepository,
+            PowerSourceRepository sourceRepository,
+            GridLedger gridLedger,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${nexus.power.allocation.mode:ledger}") String mode,
+            @Value("${nexus.power.allocation.max-attempts:5}") int maxAttempts,
+            @Value("${nexus.power.allocation.retry-backoff:5ms}") Duration retryBackoff) {
+        this.allocationRepository = allocationRepository;
+        this.sourceRepository = sourceRepository;
+        this.gridLedger = gridLedger;
+        this.transactionTemplate = transactionTemplate;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        String modeTag = this.mode.name().toLowerCase(Locale.ROOT);
+        this.conflictCounter = Counter.builder("power.allocation.conflicts")
+                .tag("mode", modeTag)
+                .description("Allocation attempts that lost a concurrent update and were retried")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("power.allocation.retries_exhausted")
+                .tag("mode", modeTag)
+                .description("Allocations that gave up after max-attempts conflicts")
+                .register(meterRegistry);
+        this.attemptsSummary = DistributionSummary.builder("power.allocation.attempts")
+                .tag("mode", modeTag)
+                .description("Attempts needed per admitted or rejected allocation")
+                .register(meterRegistry);
+        this.lockWaitTimer = Timer.builder("power.allocation.lock_wait")
+                .tag("mode", modeTag)
+                .description("Time to lock a system's allocation row (pessimistic mode)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        if (this.mode != Mode.LEDGER) {
+            log.info("Power allocations admitted by the database ({} mode, up to {} attempts)", modeTag, maxAttempts);
+        }
+    }
+
+    public boolean isEnabled() {
+        return mode != Mode.LEDGER;
+    }
+
+    public String modeName() {
+        return mode.name().toLowerCase(Locale.ROOT);
+    }
+
+    public GridLedger.Reservation allocate(String system, double amountKw, int priority, Long sectionId,
+                                           String idempotencyKey) {
+        Optional<GridLedger.Reservation> replay = gridLedger.findReplay(idempotencyKey, system, amountKw, priority, sectionId);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Admitted admitted = transactionTemplate.execute(status -> switch (mode) {
+                    case PESSIMISTIC -> readModifyWrite(system, amountKw, priority, sectionId, true);
+                    case OPTIMISTIC -> readModifyWrite(system, amountKw, priority, sectionId, false);
+                    case ATOMIC -> addIfCapacity(system, amountKw, priority, sectionId);
+                    case LEDGER -> throw new IllegalStateException("Ledger mode doesn't use the database allocator");
+                });
+                attemptsSummary.record(attempt);
+                gridLedger.mirrorAllocation(admitted.row(), amountKw, admitted.availableKw(), idempotencyKey);
+                return new GridLedger.Reservation(admitted.row().getId(), admitted.row().getAllocatedKw(),
+                        admitted.availableKw(), admitted.row().getSectionId(), List.of(), false);
+            } catch (PowerService.InsufficientPowerException e) {
+                attemptsSummary.record(attempt);
+                throw e;
+            } catch (OptimisticLockingFailureException | PessimisticLockingFailureException
+                     | DataIntegrityViolationException e) {
+                conflictCounter.increment();
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    attemptsSummary.record(attempt);
+                    throw new AllocationConflictException("Allocation for " + system + " kept conflicting with concurrent updates after "
+                            + attempt + " attempts, try again");
+                }
+                log.debug("Allocation conflict for {} on attempt {}: {}", system, attempt, e.getMessage());
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Remove a system's allocation. A single DELETE ... RETURNING in every mode, so there is nothing to retry.
+     */
+    public Optional<Double> release(String system) {
+        Optional<Double> released = transactionTemplate.execute(status ->
+                allocationRepository.deleteBySystemNameReturningAmount(system));
+        if (released != null && released.isPresent()) {
+            gridLedger.mirrorRelease(system, released.get());
+            return released;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Apply batch operations one at a time; each succeeds or fails on its own, as in the ledger batch.
+     */
+    public List<GridLedger.OperationResult> applyBatch(List<GridLedger.LedgerOperation> operations) {
+        List<GridLedger.OperationResult> outcomes = new ArrayList<>(operations.size());
+        for (GridLedger.LedgerOperation operation : operations) {
+            if (!operation.allocate()) {
+                outcomes.add(new GridLedger.OperationResult(true, null, release(operation.system()).orElse(null), null));
+                continue;
+            }
+            try {
+                GridLedger.Reservation reservation = allocate(operation.system(), operation.amountKw(),
+                        operation.priority(), operation.sectionId(), operation.idempotencyKey());
+                outcomes.add(new GridLedger.OperationResult(true, reservation, null, null));
+            } catch (PowerService.InsufficientPowerException | AllocationConflictException
+                     | GridLedger.IdempotencyKeyMismatchException e) {
+                outcomes.add(new GridLedger.OperationResult(false, null, null, e.getMessage()));
+            }
+        }
+        return outcomes;
+    }
+
+    private Admitted readModifyWrite(String system, double amountKw, int priority, Long sectionId, boolean lockRow) {
+        Optional<PowerAllocation> existing = lockRow
+                ? lockWaitTimer.record(() -> allocationRepository.findBySystemNameWithLock(system))
+                : allocationRepository.findBySystemName(system);
+
+        double available = availableKw();
+        if (available < amountKw) {
+            throw new PowerService.InsufficientPowerException(
+                    "Insufficient power available. Requested: " + amountKw + " kW, Available: " + available + " kW");
+        }
+
+        PowerAllocation allocation = existing.orElseGet(() -> {
+            PowerAllocation created = new PowerAllocation();
+            created.setSystemName(system);
+            created.setSectionId(sectionId);
+            created.setAllocatedKw(0.0);
+            return created;
+        });
+        allocation.setAllocatedKw(allocation.getAllocatedKw() + amountKw);
+        allocation.setPriority(priority);
+        // Flush inside the attempt so a version or unique-key conflict surfaces here and is retried
+        return new Admitted(allocationRepository.saveAndFlush(allocation), available - amountKw);
+    }
+
+    private Admitted addIfCapacity(String system, double amountKw, int priority, Long sectionId) {
+        Optional<PowerAllocation> row = allocationRepository.addIfCapacity(system, amountKw, priority, sectionId);
+        double available = availableKw();
+        if (row.isEmpty()) {
+            throw new PowerService.InsufficientPowerException(
+                    "Insufficient power available. Requested: " + amountKw + " kW, Available: " + available + " kW");
+        }
+        return new Admitted(row.get(), available);
+    }
+
+    private double availableKw() {
+        Double output = sourceRepository.getTotalCurrentOutput();
+        Double allocated = allocationRepository.getTotalAllocated();
+        return (output != null ? output : 0.0) - (allocated != null ? allocated : 0.0);
+    }
+
+    private void backOff(int attempt) {
+        long baseNanos = retryBackoff.toNanos() * attempt;
+        long jittered = ThreadLocalRandom.current().nextLong(baseNanos / 2, baseNanos + baseNanos / 2 + 1);
+        try {
+            Thread.sleep(Duration.ofNanos(jittered).toMillis(), (int) (jittered % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AllocationConflictException("Interrupted while retrying allocation");
+        }
+    }
+
+    private record Admitted(PowerAllocation row, double availableKw) {}
+
+    enum Mode {
+        LEDGER,
+        PESSIMISTIC,
+        OPTIMISTIC,
+        ATOMIC
+    }
+
+    public static class AllocationConflictException extends RuntimeException {
+        public AllocationConflictException(String message) {
+            super(message);
+        }
+    }
+}
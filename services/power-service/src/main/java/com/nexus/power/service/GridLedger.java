@@ -0,0 +1,735 @@
+package com.nexus.power.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus.power.config.RedisDistributedLock;
+import com.nexus.power.entity.PowerAllocation;
+import com.nexus.power.entity.PowerLog;
+import com.nexus.power.entity.PowerSource;
+import com.nexus.power.repository.PowerAllocationRepository;
+import com.nexus.power.repository.PowerSourceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Grid totals and per-system allocations kept in Redis, so admitting or rejecting an
+ * allocation is a single atomic script instead of table scans under a row lock.
+ *
+ * Redis keys:
+ * - power:ledger:output       total output of ONLINE sources (kW)
+ * - power:ledger:allocated    total allocated (kW)
+ * - power:ledger:systems      hash system -> allocated kW
+ * - power:ledger:priorities   hash system -> priority
+ * - power:ledger:sections     hash system -> section ID
+ * - power:ledger:ids          hash system -> power_allocations ID (once persisted)
+ * - power:ledger:dirty        set of systems whose row needs writing (see LedgerWriter)
+ * - power:ledger:log          list of pending power_logs entries (JSON)
+ * - power:ledger:log:dead     log entries LedgerWriter could not write on their own (dead letters)
+ * - power:idempotency:{key}   result of an allocation made with an Idempotency-Key (expires after
+ *                             nexus.power.idempotency.ttl)
+ * - power:grid:version        incremented on every change to the totals or the power sources
+ * - power:sources:telemetry   stream of per-tick output from PowerSimulator (capped)
+ *
+ * Every script that changes the totals bumps the version and publishes the new totals on the
+ * power:grid:changes channel, which keeps each replica's GridStatusCache current.
+ *
+ * The ledger is authoritative for admission; power_allocations and power_logs are
+ * written behind by LedgerWriter. It is rebuilt from the database at startup when
+ * missing (e.g. Redis restarted) and after an admin table reset.
+ */
+@Service
+public class GridLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(GridLedger.class);
+
+    static final String KEY_OUTPUT = "power:ledger:output";
+    static final String KEY_ALLOCATED = "power:ledger:allocated";
+    static final String KEY_SYSTEMS = "power:ledger:systems";
+    static final String KEY_PRIORITIES = "power:ledger:priorities";
+    static final String KEY_SECTIONS = "power:ledger:sections";
+    static final String KEY_IDS = "power:ledger:ids";
+    static final String KEY_DIRTY = "power:ledger:dirty";
+    static final String KEY_LOG = "power:ledger:log";
+    static final String KEY_LOG_DEAD = "power:ledger:log:dead";
+    static final String KEY_VERSION = "power:grid:version";
+    static final String IDEMPOTENCY_PREFIX = "power:idempotency:";
+    static final String GRID_CHANNEL = "power:grid:changes";
+    static final String KEY_TELEMETRY = "power:sources:telemetry";
+
+    private static final List<String> KEYS = List.of(
+            KEY_OUTPUT, KEY_ALLOCATED, KEY_SYSTEMS, KEY_PRIORITIES,
+            KEY_SECTIONS, KEY_IDS, KEY_DIRTY, KEY_LOG, KEY_VERSION);
+
+    private static final List<String> TICK_KEYS = List.of(
+            KEY_OUTPUT, KEY_ALLOCATED, KEY_SYSTEMS, KEY_PRIORITIES,
+            KEY_SECTIONS, KEY_IDS, KEY_DIRTY, KEY_LOG, KEY_VERSION, KEY_TELEMETRY);
+
+    private static final String REBUILD_LOCK_KEY = "power:ledger:rebuild:lock";
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofSeconds(30);
+    private static final Duration REBUILD_WAIT_TIMEOUT = Duration.ofSeconds(5);
+
+    // reserve(system, amountKw, priority, sectionId ('' if none), timestamp millis, max victims (0 = no shedding),
+    //         idempotency key ('' if none), request fingerprint, key TTL seconds)
+    //
+    // A successful reservation with an idempotency key stores its result under power:idempotency:{key};
+    // a repeat with the same key returns that result ('replay') without touching the ledger again.
+    //
+    // When headroom is short and shedding is allowed, lower-priority allocations (higher numbers) are
+    // scaled down, least important and largest first, until the deficit is covered. Nothing is shed
+    // unless at most max-victims allocations can cover the whole deficit.
+    //
+    // release(system, timestamp millis)
+    //
+    // Scripts call announce() once at the end if anything changed, so a batch publishes a single update.
+    private static final String ANNOUNCE_FUNCTION =
+            "local changed = false " +
+            "local function announce() " +
+            "    local version = redis.call('incr', KEYS[9]) " +
+            "    redis.call('publish', '" + GRID_CHANNEL + "', cjson.encode({type='totals', version=version, " +
+            "            outputKw=redis.call('get', KEYS[1]), allocatedKw=redis.call('get', KEYS[2]) or '0'})) " +
+            "end ";
+
+    private static final String LEDGER_FUNCTIONS = ANNOUNCE_FUNCTION +
+            "local function reserve(system, amountArg, priorityArg, section, ts, maxVictims, idemKey, fingerprint, ttl) " +
+            "    if idemKey ~= '' then " +
+            "        local seen = redis.call('get', '" + IDEMPOTENCY_PREFIX + "' .. idemKey) " +
+            "        if seen then return {'replay', seen} end " +
+            "    end " +
+            "    local allocated = tonumber(redis.call('get', KEYS[2]) or '0') " +
+            "    local amount = tonumber(amountArg) " +
+            "    local priority = tonumber(priorityArg) " +
+            "    local available = tonumber(redis.call('get', KEYS[1])) - allocated " +
+            "    local shed = {} " +
+            "    if available < amount then " +
+            "        if maxVictims == 0 then return {'rejected', tostring(available)} end " +
+            "        local candidates = {} " +
+            "        local priorities = redis.call('hgetall', KEYS[4]) " +
+            "        for i = 1, #priorities, 2 do " +
+            "            local p = tonumber(priorities[i + 1]) " +
+            "            if p > priority and priorities[i] ~= system then " +
+            "                local kw = tonumber(redis.call('hget', KEYS[3], priorities[i]) or '0') " +
+            "                if kw > 0 then table.insert(candidates, {system=priorities[i], priority=p, kw=kw}) end " +
+            "            end " +
+            "        end " +
+            "        table.sort(candidates, function(a, b) " +
+            "            if a.priority ~= b.priority then return a.priority > b.priority end " +
+            "            return a.kw > b.kw end) " +
+            "        local deficit = amount - available " +
+            "        for i = 1, math.min(#candidates, maxVictims) do " +
+            "            if deficit <= 0 then break end " +
+            "            local c = candidates[i] " +
+            "            local take = math.min(c.kw, deficit) " +
+            "            table.insert(shed, {systemName=c.system, priority=c.priority, previousKw=c.kw, shedKw=take, preempted=(take >= c.kw)}) " +
+            "            deficit = deficit - take " +
+            "        end " +
+            "        if deficit > 0 then return {'rejected', tostring(available)} end " +
+            "        for _, v in ipairs(shed) do " +
+            "            if v.preempted then " +
+            "                redis.call('hdel', KEYS[3], v.systemName) " +
+            "                redis.call('hdel', KEYS[4], v.systemName) " +
+            "                redis.call('hdel', KEYS[5], v.systemName) " +
+            "                redis.call('hdel', KEYS[6], v.systemName) " +
+            "            else " +
+            "                redis.call('hincrbyfloat', KEYS[3], v.systemName, tostring(-v.shedKw)) " +
+            "            end " +
+            "            redis.call('incrbyfloat', KEYS[2], tostring(-v.shedKw)) " +
+            "            redis.call('sadd', KEYS[7], v.systemName) " +
+            "            redis.call('rpush', KEYS[8], cjson.encode({action='PREEMPT', systemName=v.systemName, amountKw=tostring(v.shedKw), resultingKw=tostring(v.previousKw - v.shedKw), timestamp=ts})) " +
+            "            available = available + v.shedKw " +
+            "        end " +
+            "    end " +
+            "    changed = true " +
+            "    local total = redis.call('hincrbyfloat', KEYS[3], system, amountArg) " +
+            "    redis.call('incrbyfloat', KEYS[2], amountArg) " +
+            "    redis.call('hset', KEYS[4], system, priorityArg) " +
+            "    if section ~= '' then redis.call('hsetnx', KEYS[5], system, section) end " +
+            "    redis.call('sadd', KEYS[7], system) " +
+            "    redis.call('rpush', KEYS[8], cjson.encode({action='ALLOCATE', systemName=system, amountKw=amountArg, resultingKw=total, timestamp=ts})) " +
+            "    local shedJson = '[]' " +
+            "    if #shed > 0 then shedJson = cjson.encode(shed) end " +
+            "    local result = {'ok', total, tostring(available - amount), " +
+            "            redis.call('hget', KEYS[6], system) or '', redis.call('hget', KEYS[5], system) or '', shedJson} " +
+            "    if idemKey ~= '' then " +
+            "        redis.call('set', '" + IDEMPOTENCY_PREFIX + "' .. idemKey, " +
+            "                   cjson.encode({fingerprint=fingerprint, result=result}), 'EX', ttl) " +
+            "    end " +
+            "    return result " +
+            "end " +
+            "local function release(system, ts) " +
+            "    local amount = redis.call('hget', KEYS[3], system) " +
+            "    if not amount then return {'none'} end " +
+            "    changed = true " +
+            "    redis.call('hdel', KEYS[3], system) " +
+            "    redis.call('hdel', KEYS[4], system) " +
+            "    redis.call('hdel', KEYS[5], system) " +
+            "    redis.call('hdel', KEYS[6], system) " +
+            "    redis.call('incrbyfloat', KEYS[2], tostring(-tonumber(amount))) " +
+            "    redis.call('sadd', KEYS[7], system) " +
+            "    redis.call('rpush', KEYS[8], cjson.encode({action='DEALLOCATE', systemName=system, amountKw=amount, resultingKw='0', timestamp=ts})) " +
+            "    return {'ok', amount} " +
+            "end " +
+            "if redis.call('exists', KEYS[1]) == 0 then return {'missing'} end ";
+
+    // ARGV: system, amountKw, priority, sectionId, timestamp millis, max victims, idempotency key, fingerprint, TTL
+    private static final String RESERVE_SCRIPT = LEDGER_FUNCTIONS +
+            "local result = reserve(ARGV[1], ARGV[2], ARGV[3], ARGV[4], ARGV[5], tonumber(ARGV[6]), ARGV[7], ARGV[8], ARGV[9]) " +
+            "if changed then announce() end " +
+            "return result";
+
+    // ARGV: system, timestamp millis
+    private static final String RELEASE_SCRIPT = LEDGER_FUNCTIONS +
+            "local result = release(ARGV[1], ARGV[2]) " +
+            "if changed then announce() end " +
+            "return result";
+
+    // ARGV: timestamp millis, JSON array of operations, idempotency key TTL; returns a JSON array of per-operation results
+    private static final String BATCH_SCRIPT = LEDGER_FUNCTIONS +
+            "local results = {} " +
+            "for i, op in ipairs(cjson.decode(ARGV[2])) do " +
+            "    if op.op == 'ALLOCATE' then " +
+            "        results[i] = reserve(op.system, op.amountKw, op.priority, op.sectionId, ARGV[1], tonumber(op.maxVictims), " +
+            "                             op.idempotencyKey, op.fingerprint, ARGV[3]) " +
+            "    else " +
+            "        results[i] = release(op.system, ARGV[1]) " +
+            "    end " +
+            "end " +
+            "if changed then announce() end " +
+            "return {'ok', cjson.encode(results)}";
+
+    // ARGV: output, then (system, kW, priority, sectionId, id) for each allocation.
+    // The version survives a rebuild so replicas never see it go backwards.
+    private static final String LOAD_SCRIPT = ANNOUNCE_FUNCTION +
+            "redis.call('del', unpack(KEYS, 1, 8)) " +
+            "redis.call('set', KEYS[1], ARGV[1]) " +
+            "local allocated = 0 " +
+            "for i = 2, #ARGV, 5 do " +
+            "    redis.call('hset', KEYS[3], ARGV[i], ARGV[i + 1]) " +
+            "    redis.call('hset', KEYS[4], ARGV[i], ARGV[i + 2]) " +
+            "    if ARGV[i + 3] ~= '' then redis.call('hset', KEYS[5], ARGV[i], ARGV[i + 3]) end " +
+            "    redis.call('hset', KEYS[6], ARGV[i], ARGV[i + 4]) " +
+            "    allocated = allocated + tonumber(ARGV[i + 1]) " +
+            "end " +
+            "redis.call('set', KEYS[2], tostring(allocated)) " +
+            "announce() " +
+            "return #ARGV";
+
+    // Mirror a change already committed to power_allocations (database allocation modes).
+    // ARGV: system, delta kW, priority, sectionId ('' if none), row ID ('' if removed), log entry JSON,
+    //       idempotency key ('' if none), idempotency record, key TTL seconds
+    // The system isn't marked dirty since its row is already written; the log entry still goes
+    // through LedgerWriter so power_logs keeps a single writer.
+    private static final String MIRROR_SCRIPT = ANNOUNCE_FUNCTION +
+            "if ARGV[7] ~= '' then " +
+            "    redis.call('set', '" + IDEMPOTENCY_PREFIX + "' .. ARGV[7], ARGV[8], 'EX', ARGV[9]) " +
+            "end " +
+            "if redis.call('exists', KEYS[1]) == 0 then return 0 end " +
+            "if ARGV[5] == '' then " +
+            "    redis.call('hdel', KEYS[3], ARGV[1]) " +
+            "    redis.call('hdel', KEYS[4], ARGV[1]) " +
+            "    redis.call('hdel', KEYS[5], ARGV[1]) " +
+            "    redis.call('hdel', KEYS[6], ARGV[1]) " +
+            "else " +
+            "    redis.call('hincrbyfloat', KEYS[3], ARGV[1], ARGV[2]) " +
+            "    redis.call('hset', KEYS[4], ARGV[1], ARGV[3]) " +
+            "    if ARGV[4] ~= '' then redis.call('hsetnx', KEYS[5], ARGV[1], ARGV[4]) end " +
+            "    redis.call('hset', KEYS[6], ARGV[1], ARGV[5]) " +
+            "end " +
+            "redis.call('incrbyfloat', KEYS[2], ARGV[2]) " +
+            "redis.call('rpush', KEYS[8], ARGV[6]) " +
+            "announce() " +
+            "return 1";
+
+    // Apply one simulation tick: new ONLINE output, source status log entries, and a telemetry record.
+    // ARGV: output kW, online count, offline count, tick, stream max length, then log entry JSON for each event
+    private static final String TICK_SCRIPT = ANNOUNCE_FUNCTION +
+            "if redis.call('exists', KEYS[1]) == 0 then return 0 end " +
+            "if redis.call('get', KEYS[1]) ~= ARGV[1] then " +
+            "    redis.call('set', KEYS[1], ARGV[1]) " +
+            "    changed = true " +
+            "end " +
+            "for i = 6, #ARGV do redis.call('rpush', KEYS[8], ARGV[i]) end " +
+            "redis.call('xadd', KEYS[10], 'MAXLEN', '~', ARGV[5], '*', 'tick', ARGV[4], 'outputKw', ARGV[1], " +
+            "        'online', ARGV[2], 'offline', ARGV[3], 'events', tostring(#ARGV - 5)) " +
+            "if changed then announce() end " +
+            "return 1";
+
+    private final PowerSourceRepository sourceRepository;
+    private final PowerAllocationRepository allocationRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration idempotencyTtl;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> reserveScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> releaseScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> batchScript;
+    private final DefaultRedisScript<Long> loadScript;
+    private final DefaultRedisScript<Long> mirrorScript;
+    private final DefaultRedisScript<Long> tickScript;
+
+    public GridLedger(
+            PowerSourceRepository sourceRepository,
+            PowerAllocationRepository allocationRepository,
+            RedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${nexus.power.idempotency.ttl:24h}") Duration idempotencyTtl) {
+        this.sourceRepository = sourceRepository;
+        this.allocationRepository = allocationRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.idempotencyTtl = idempotencyTtl;
+        this.reserveScript = new DefaultRedisScript<>(RESERVE_SCRIPT, List.class);
+        this.releaseScript = new DefaultRedisScript<>(RELEASE_SCRIPT, List.class);
+        this.batchScript = new DefaultRedisScript<>(BATCH_SCRIPT, List.class);
+        this.loadScript = new DefaultRedisScript<>(LOAD_SCRIPT, Long.class);
+        this.mirrorScript = new DefaultRedisScript<>(MIRROR_SCRIPT, Long.class);
+        this.tickScript = new DefaultRedisScript<>(TICK_SCRIPT, Long.class);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(KEY_OUTPUT))) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Admit an allocation if the grid has headroom for it, adding to the system's existing
+     * allocation. If maxVictims is positive, lower-priority allocations may be shed to make
+     * room. Throws InsufficientPowerException otherwise.
+     *
+     * With an idempotency key, a repeat of an already admitted request returns the original
+     * reservation (marked replayed) instead of allocating again.
+     */
+    public Reservation reserve(String system, double amountKw, int priority, Long sectionId, int maxVictims,
+                               String idempotencyKey) {
+        String fingerprint = fingerprint(system, amountKw, priority, sectionId);
+        List<?> result = executeLoaded(reserveScript, system, String.valueOf(amountKw),
+                String.valueOf(priority), sectionId != null ? sectionId.toString() : "",
+                String.valueOf(System.currentTimeMillis()), String.valueOf(maxVictims),
+                idempotencyKey != null ? idempotencyKey : "", fingerprint,
+                String.valueOf(idempotencyTtl.toSeconds()));
+
+        if ("rejected".equals(result.get(0))) {
+            throw new PowerService.InsufficientPowerException(rejectionMessage(amountKw, result.get(1)));
+        }
+        if ("replay".equals(result.get(0))) {
+            return toReplayedReservation(idempotencyKey, fingerprint, (String) result.get(1));
+        }
+        return toReservation(result);
+    }
+
+    /**
+     * Apply allocate and deallocate operations in order in a single atomic ledger step.
+     * Each operation succeeds or fails on its own; one rejection doesn't undo the others.
+     */
+    public List<OperationResult> applyBatch(List<LedgerOperation> operations) {
+        List<Map<String, String>> encoded = new ArrayList<>(operations.size());
+        for (LedgerOperation operation : operations) {
+            Map<String, String> op = new HashMap<>();
+            op.put("op", operation.allocate() ? "ALLOCATE" : "DEALLOCATE");
+            op.put("system", operation.system());
+            if (operation.allocate()) {
+                op.put("amountKw", String.valueOf(operation.amountKw()));
+                op.put("priority", String.valueOf(operation.priority()));
+                op.put("sectionId", operation.sectionId() != null ? operation.sectionId().toString() : "");
+                op.put("maxVictims", String.valueOf(operation.maxVictims()));
+                op.put("idempotencyKey", operation.idempotencyKey() != null ? operation.idempotencyKey() : "");
+                op.put("fingerprint", fingerprint(operation.system(), operation.amountKw(),
+                        operation.priority(), operation.sectionId()));
+            }
+            encoded.add(op);
+        }
+
+        List<List<String>> results;
+        try {
+            List<?> reply = executeLoaded(batchScript, String.valueOf(System.currentTimeMillis()),
+                    objectMapper.writeValueAsString(encoded), String.valueOf(idempotencyTtl.toSeconds()));
+            results = objectMapper.readValue((String) reply.get(1), new TypeReference<List<List<String>>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode power batch", e);
+        }
+
+        List<OperationResult> outcomes = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            LedgerOperation operation = operations.get(i);
+            List<String> result = results.get(i);
+            if (!operation.allocate()) {
+                Double released = "none".equals(result.get(0)) ? null : Double.parseDouble(result.get(1));
+                outcomes.add(new OperationResult(true, null, released, null));
+            } else if ("rejected".equals(result.get(0))) {
+                outcomes.add(new OperationResult(false, null, null, rejectionMessage(operation.amountKw(), result.get(1))));
+            } else if ("replay".equals(result.get(0))) {
+                try {
+                    Map<String, String> encodedOp = encoded.get(i);
+                    outcomes.add(new OperationResult(true, toReplayedReservation(operation.idempotencyKey(),
+                            encodedOp.get("fingerprint"), result.get(1)), null, null));
+                } catch (IdempotencyKeyMismatchException e) {
+                    outcomes.add(new OperationResult(false, null, null, e.getMessage()));
+                }
+            } else {
+                outcomes.add(new OperationResult(true, toReservation(result), null, null));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Remove a system's allocation. Returns the amount released, or empty if the system had none.
+     */
+    public Optional<Double> release(String system) {
+        List<?> result = executeLoaded(releaseScript, system, String.valueOf(System.currentTimeMillis()));
+        if ("none".equals(result.get(0))) {
+            return Optional.empty();
+        }
+        return Optional.of(Double.parseDouble((String) result.get(1)));
+    }
+
+    /**
+     * The stored result of an earlier allocation with this idempotency key, if any.
+     * Used by the database allocation modes; the ledger scripts check keys themselves.
+     */
+    public Optional<Reservation> findReplay(String idempotencyKey, String system, double amountKw, int priority,
+                                            Long sectionId) {
+        if (idempotencyKey == null) {
+            return Optional.empty();
+        }
+        String stored = redisTemplate.opsForValue().get(IDEMPOTENCY_PREFIX + idempotencyKey);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        return Optional.of(toReplayedReservation(idempotencyKey,
+                fingerprint(system, amountKw, priority, sectionId), stored));
+    }
+
+    /**
+     * Reflect an allocation committed to the database by a database allocation mode, so totals,
+     * the grid status cache, power_logs and idempotent replays stay the same as in ledger mode.
+     */
+    public void mirrorAllocation(PowerAllocation row, double amountKw, double availableKw, String idempotencyKey) {
+        String fingerprint = fingerprint(row.getSystemName(), amountKw, row.getPriority(), row.getSectionId());
+        List<String> result = List.of("ok", String.valueOf(row.getAllocatedKw()), String.valueOf(availableKw),
+                String.valueOf(row.getId()), row.getSectionId() != null ? row.getSectionId().toString() : "", "[]");
+        String record = "";
+        if (idempotencyKey != null) {
+            try {
+                record = objectMapper.writeValueAsString(new StoredReservation(fingerprint, result));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to encode idempotency record", e);
+            }
+        }
+        mirror(row.getSystemName(), amountKw, row.getPriority(), row.getSectionId(), String.valueOf(row.getId()),
+                logEntry("ALLOCATE", row.getSystemName(), amountKw, row.getAllocatedKw()),
+                idempotencyKey != null ? idempotencyKey : "", record);
+    }
+
+    public void mirrorRelease(String system, double releasedKw) {
+        mirror(system, -releasedKw, 0, null, "", logEntry("DEALLOCATE", system, releasedKw, 0.0), "", "");
+    }
+
+    private void mirror(String system, double deltaKw, int priority, Long sectionId, String rowId, String logEntry,
+                        String idempotencyKey, String record) {
+        Long applied = redisTemplate.execute(mirrorScript, KEYS, system, String.valueOf(deltaKw),
+                String.valueOf(priority), sectionId != null ? sectionId.toString() : "", rowId, logEntry,
+                idempotencyKey, record, String.valueOf(idempotencyTtl.toSeconds()));
+        if (applied == null || applied == 0) {
+            // The database is authoritative in these modes; reload the ledger from it
+            ensureLoaded();
+        }
+    }
+
+    /**
+     * Publish a simulation tick. Returns false if the ledger is missing (it is rebuilt on next use,
+     * from the last persisted source snapshot).
+     *
+     * @param events pre-encoded power_logs entries (see sourceLogEntry) for status changes this tick
+     */
+    public boolean applySourceTick(double outputKw, int online, int offline, long tick, int telemetryMaxLength,
+                                   List<String> events) {
+        Object[] args = new Object[5 + events.size()];
+        args[0] = String.valueOf(outputKw);
+        args[1] = String.valueOf(online);
+        args[2] = String.valueOf(offline);
+        args[3] = String.valueOf(tick);
+        args[4] = String.valueOf(telemetryMaxLength);
+        for (int i = 0; i < events.size(); i++) {
+            args[5 + i] = events.get(i);
+        }
+        Long applied = redisTemplate.execute(tickScript, TICK_KEYS, args);
+        return applied != null && applied == 1;
+    }
+
+    public String sourceLogEntry(PowerLog.PowerAction action, long sourceId, double amountKw, long timestamp) {
+        Map<String, String> entry = Map.of(
+                "action", action.name(),
+                "sourceId", String.valueOf(sourceId),
+                "amountKw", String.valueOf(amountKw),
+                "timestamp", String.valueOf(timestamp));
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode power log entry", e);
+        }
+    }
+
+    /**
+     * Most recent simulation ticks, newest first.
+     */
+    public List<SourceTelemetry> recentTelemetry(int count) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                .reverseRange(KEY_TELEMETRY, Range.unbounded(), Limit.limit().count(count));
+        if (records == null) {
+            return List.of();
+        }
+        return records.stream()
+                .map(record -> {
+                    Map<Object, Object> fields = record.getValue();
+                    return new SourceTelemetry(
+                            Instant.ofEpochMilli(record.getId().getTimestamp()),
+                            Long.parseLong((String) fields.get("tick")),
+                            Double.parseDouble((String) fields.get("outputKw")),
+                            Integer.parseInt((String) fields.get("online")),
+                            Integer.parseInt((String) fields.get("offline")),
+                            Integer.parseInt((String) fields.get("events")));
+                })
+                .toList();
+    }
+
+    private String logEntry(String action, String system, double amountKw, double resultingKw) {
+        Map<String, String> entry = Map.of(
+                "action", action,
+                "systemName", system,
+                "amountKw", String.valueOf(amountKw),
+                "resultingKw", String.valueOf(resultingKw),
+                "timestamp", String.valueOf(System.currentTimeMillis()));
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode power log entry", e);
+        }
+    }
+
+    public GridTotals totals() {
+        List<String> keys = List.of(KEY_OUTPUT, KEY_ALLOCATED, KEY_VERSION);
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values == null || values.get(0) == null) {
+            ensureLoaded();
+            values = redisTemplate.opsForValue().multiGet(keys);
+        }
+        double output = Double.parseDouble(values.get(0));
+        double allocated = values.get(1) != null ? Double.parseDouble(values.get(1)) : 0.0;
+        long version = values.get(2) != null ? Long.parseLong(values.get(2)) : 0L;
+        return new GridTotals(version, output, allocated);
+    }
+
+    /**
+     * Bump the grid version for a change outside the ledger (power sources) and return it.
+     */
+    public long nextVersion() {
+        Long version = redisTemplate.opsForValue().increment(KEY_VERSION);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * Replace the ledger with the current database state. Pending write-behind entries are
+     * discarded, so only call this when the database is known to be authoritative
+     * (startup with no ledger, or right after a table reset).
+     */
+    public void rebuild() {
+        RedisDistributedLock lock = new RedisDistributedLock(redisTemplate, REBUILD_LOCK_KEY, REBUILD_LOCK_TTL);
+        if (!lock.tryAcquire()) {
+            waitForRebuild(lock);
+            return;
+        }
+        try {
+            double output = sourceRepository.findAll().stream()
+                    .filter(s -> s.getStatus() == PowerSource.PowerSourceStatus.ONLINE)
+                    .mapToDouble(PowerSource::getCurrentOutputKw)
+                    .sum();
+
+            List<PowerAllocation> allocations = allocationRepository.findAll();
+            List<String> args = new ArrayList<>(1 + allocations.size() * 5);
+            args.add(String.valueOf(output));
+            for (PowerAllocation allocation : allocations) {
+                args.add(allocation.getSystemName());
+                args.add(String.valueOf(allocation.getAllocatedKw()));
+                args.add(String.valueOf(allocation.getPriority()));
+                args.add(allocation.getSectionId() != null ? allocation.getSectionId().toString() : "");
+                args.add(String.valueOf(allocation.getId()));
+            }
+
+            redisTemplate.execute(loadScript, KEYS, args.toArray());
+            log.info("Rebuilt power grid ledger: {} kW output, {} allocations", output, allocations.size());
+        } finally {
+            lock.release();
+        }
+    }
+
+    private List<?> executeLoaded(@SuppressWarnings("rawtypes") DefaultRedisScript<List> script, Object... args) {
+        List<?> result = redisTemplate.execute(script, KEYS, args);
+        if (result != null && "missing".equals(result.get(0))) {
+            ensureLoaded();
+            result = redisTemplate.execute(script, KEYS, args);
+        }
+        if (result == null || "missing".equals(result.get(0))) {
+            throw new LedgerUnavailableException("Power grid ledger is not available, try again shortly");
+        }
+        return result;
+    }
+
+    private void ensureLoaded() {
+        log.warn("Power grid ledger missing from Redis, rebuilding from database");
+        rebuild();
+    }
+
+    private void waitForRebuild(RedisDistributedLock lock) {
+        long startTime = System.currentTimeMillis();
+        while (System.currentTimeMillis() - startTime < REBUILD_WAIT_TIMEOUT.toMillis()) {
+            try {
+                Thread.sleep(100);
+                if (!lock.isLocked()) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        log.warn("Timeout waiting for power grid ledger rebuild");
+    }
+
+    private Reservation toReservation(List<?> result) {
+        return new Reservation(
+                parseLong((String) result.get(3)),
+                Double.parseDouble((String) result.get(1)),
+                Double.parseDouble((String) result.get(2)),
+                parseLong((String) result.get(4)),
+                parseShed((String) result.get(5)),
+                false);
+    }
+
+    private Reservation toReplayedReservation(String idempotencyKey, String fingerprint, String stored) {
+        StoredReservation original;
+        try {
+            original = objectMapper.readValue(stored, StoredReservation.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable idempotency record for key " + idempotencyKey, e);
+        }
+        if (!fingerprint.equals(original.fingerprint())) {
+            throw new IdempotencyKeyMismatchException(
+                    "Idempotency key " + idempotencyKey + " was already used for a different request");
+        }
+        Reservation reservation = toReservation(original.result());
+        return new Reservation(reservation.allocationId(), reservation.allocatedKw(), reservation.availableKw(),
+                reservation.sectionId(), reservation.shed(), true);
+    }
+
+    private static String fingerprint(String system, double amountKw, int priority, Long sectionId) {
+        return system + "|" + amountKw + "|" + priority + "|" + (sectionId != null ? sectionId : "");
+    }
+
+    private static String rejectionMessage(double amountKw, Object available) {
+        return "Insufficient power available. Requested: " + amountKw + " kW, Available: " + available + " kW";
+    }
+
+    private List<ShedAllocation> parseShed(String json) {
+        try {
+            return List.of(objectMapper.readValue(json, ShedAllocation[].class));
+        } catch (Exception e) {
+            log.warn("Failed to read shed allocations from ledger: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static Long parseLong(String value) {
+        return value == null || value.isEmpty() ? null : Long.valueOf(value);
+    }
+
+    /**
+     * @param allocationId ID of the system's power_allocations row, or null if not yet written
+     * @param allocatedKw the system's total allocation after this reservation
+     * @param availableKw grid headroom remaining after this reservation
+     * @param shed lower-priority allocations reduced to make room, if any
+     * @param replayed true if this is the stored result of an earlier request with the same idempotency key
+     */
+    public record Reservation(Long allocationId, double allocatedKw, double availableKw, Long sectionId,
+                              List<ShedAllocation> shed, boolean replayed) {}
+
+    private record StoredReservation(String fingerprint, List<String> result) {}
+
+    /**
+     * One entry of a batch: an allocation to add to (with its shedding allowance) or a system to release.
+     */
+    public record LedgerOperation(boolean allocate, String system, double amountKw, int priority,
+                                  Long sectionId, int maxVictims, String idempotencyKey) {
+        public static LedgerOperation allocate(String system, double amountKw, int priority, Long sectionId,
+                                               int maxVictims, String idempotencyKey) {
+            return new LedgerOperation(true, system, amountKw, priority, sectionId, maxVictims, idempotencyKey);
+        }
+
+        public static LedgerOperation deallocate(String system) {
+            return new LedgerOperation(false, system, 0, 0, null, 0, null);
+        }
+    }
+
+    /**
+     * Outcome of one batch entry: a reservation for allocations, the released amount for
+     * deallocations (null if there was nothing to release), or an error if rejected.
+     */
+    public record OperationResult(boolean success, Reservation reservation, Double releasedKw, String error) {}
+
+    /**
+     * A lower-priority allocation reduced by shedKw; preempted if it was removed entirely.
+     */
+    public record ShedAllocation(String systemName, int priority, double previousKw, double shedKw, boolean preempted) {}
+
+    /**
+     * One simulation tick from power:sources:telemetry: total output and how many sources were
+     * online, offline, and changed state (events) in that tick.
+     */
+    public record SourceTelemetry(Instant timestamp, long tick, double outputKw, int online, int offline, int events) {}
+
+    /**
+     * @param version power:grid:version when these totals were read
+     */
+    public record GridTotals(long version, double outputKw, double allocatedKw) {
+        public double availableKw() {
+            return outputKw - allocatedKw;
+        }
+
+        public double utilizationPercent() {
+            return outputKw > 0 ? (allocatedKw / outputKw) * 100 : 0;
+        }
+    }
+
+    public static class IdempotencyKeyMismatchException extends RuntimeException {
+        public IdempotencyKeyMismatchException(String message) {
+            super(message);
+        }
+    }
+
+    public static class LedgerUnavailableException extends RuntimeException {
+        public LedgerUnavailableException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.nexus.power.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus.power.dto.PowerGridStatus;
+import com.nexus.power.dto.PowerSummary;
+import com.nexus.power.entity.PowerSource;
+import com.nexus.power.repository.PowerSourceRepository;
+import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory, versioned snapshot of the power grid status, so /grid and /summary are served
+ * without touching the database or Redis.
+ *
+ * Ledger scripts publish the new totals with the grid version on power:grid:changes after every
+ * allocation change; each replica applies an update only if its version is newer than what it
+ * holds. Source changes publish an invalidation and the source list is reloaded on the next read.
+ * As a backstop for missed messages (e.g. a pub/sub reconnect), totals are re-read after
+ * nexus.power.grid-cache.totals-max-age and sources after nexus.power.grid-cache.sources-max-age.
+ *
+ * The power.grid.* gauges read the snapshot held here, so scraping them never touches Redis or the
+ * database; power.grid.snapshot.build and power.grid.sources.load time the rebuilds.
+ */
+@Service
+public class GridStatusCache {
+
+    private static final Logger log = LoggerFactory.getLogger(GridStatusCache.class);
+    private static final String TYPE_TOTALS = "totals";
+    private static final String TYPE_SOURCES = "sources";
+
+    private final PowerSourceRepository sourceRepository;
+    private final GridLedger gridLedger;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final long totalsMaxAgeNanos;
+    private final long sourcesMaxAgeNanos;
+    private final AtomicReference<Totals> totals = new AtomicReference<>();
+    // Source lists loaded at an older version than the last invalidation are not cached
+    private final AtomicLong sourcesInvalidatedVersion = new AtomicLong();
+    private volatile Sources sources;
+    private volatile Snapshot snapshot;
+    private final Timer snapshotBuildTimer;
+    private final Timer sourcesLoadTimer;
+
+    public GridStatusCache(
+            PowerSourceRepository sourceRepository,
+            GridLedger gridLedger,
+            RedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${nexus.power.grid-cache.totals-max-age:5s}") Duration totalsMaxAge,
+            @Value("${nexus.power.grid-cache.sources-max-age:60s}") Duration sourcesMaxAge) {
+        this.sourceRepository = sourceRepository;
+        this.gridLedger = gridLedger;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.listenerContainer = listenerContainer;
+        this.totalsMaxAgeNanos = totalsMaxAge.toNanos();
+        this.sourcesMaxAgeNanos = sourcesMaxAge.toNanos();
+        this.snapshotBuildTimer = Timer.builder("power.grid.snapshot.build")
+                .description("Time to build the grid status snapshot from cached sources and totals")
+                .register(meterRegistry);
+        this.sourcesLoadTimer = Timer.builder("power.grid.sources.load")
+                .description("Time to reload power sources from the database")
+                .register(meterRegistry);
+        Gauge.builder("power.grid.utilization", totals, t -> t.get() != null ? utilization(t.get()) : Double.NaN)
+                .description("Allocated share of online output, in percent")
+                .register(meterRegistry);
+        Gauge.builder("power.grid.output_kw", totals, t -> t.get() != null ? t.get().outputKw() : Double.NaN)
+                .description("Output of online power sources")
+                .register(meterRegistry);
+        Gauge.builder("power.grid.allocated_kw", totals, t -> t.get() != null ? t.get().allocatedKw() : Double.NaN)
+                .description("Power allocated to systems")
+                .register(meterRegistry);
+    }
+
+    private static double utilization(Totals totals) {
+        return new GridLedger.GridTotals(totals.version(), totals.outputKw(), totals.allocatedKw()).utilizationPercent();
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(GridLedger.GRID_CHANNEL));
+    }
+
+    public PowerGridStatus gridStatus() {
+        return current().status();
+    }
+
+    public PowerSummary summary() {
+        return current().summary();
+    }
+
+    /**
+     * Announce that power sources changed, so every replica reloads them on its next read.
+     */
+    public void sourcesChanged() {
+        try {
+            long version = gridLedger.nextVersion();
+            invalidateSources(version);
+            redisTemplate.convertAndSend(GridLedger.GRID_CHANNEL,
+                    objectMapper.writeValueAsString(new GridChange(TYPE_SOURCES, version, null, null)));
+        } catch (Exception e) {
+            log.warn("Failed to publish power source change: {}", e.getMessage());
+            sources = null;
+        }
+    }
+
+    private void invalidateSources(long version) {
+        sourcesInvalidatedVersion.accumulateAndGet(version, Math::max);
+        sources = null;
+    }
+
+    private Snapshot current() {
+        long now = System.nanoTime();
+        Sources currentSources = sources;
+        if (currentSources == null || now - currentSources.loadedAt() > sourcesMaxAgeNanos) {
+            currentSources = loadSources();
+        }
+        Totals currentTotals = totals.get();
+        if (currentTotals == null || now - currentTotals.receivedAt() > totalsMaxAgeNanos) {
+            GridLedger.GridTotals read = gridLedger.totals();
+            currentTotals = apply(new Totals(read.version(), read.outputKw(), read.allocatedKw(), System.nanoTime()));
+        }
+
+        Snapshot cached = snapshot;
+        if (cached != null && cached.sources() == currentSources && cached.totals() == currentTotals) {
+            return cached;
+        }
+        long start = System.nanoTime();
+        Snapshot built = Snapshot.of(currentSources, currentTotals);
+        snapshotBuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        snapshot = built;
+        return built;
+    }
+
+    private synchronized Sources loadSources() {
+        Sources current = sources;
+        if (current != null && System.nanoTime() - current.loadedAt() <= sourcesMaxAgeNanos) {
+            return current;
+        }
+        // Read the version before the sources, so a change committed in between invalidates this load
+        GridLedger.GridTotals read = gridLedger.totals();
+        apply(new Totals(read.version(), read.outputKw(), read.allocatedKw(), System.nanoTime()));
+        Sources loaded = sourcesLoadTimer.record(() ->
+                Sources.of(sourceRepository.findAll(), read.version(), System.nanoTime()));
+        if (loaded.version() >= sourcesInvalidatedVersion.get()) {
+            sources = loaded;
+        }
+        return loaded;
+    }
+
+    /**
+     * Keep whichever totals are newer, so a late message or a slow re-read never moves the snapshot back.
+     * A re-read of the same version still counts as fresh.
+     */
+    private Totals apply(Totals update) {
+        return totals.accumulateAndGet(update, (existing, incoming) ->
+                existing == null || incoming.version() >= existing.version() ? incoming : existing);
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        try {
+            GridChange change = objectMapper.readValue(message.getBody(), GridChange.class);
+            if (TYPE_SOURCES.equals(change.type())) {
+                invalidateSources(change.version());
+            } else if (TYPE_TOTALS.equals(change.type()) && change.outputKw() != null) {
+                apply(new Totals(change.version(), change.outputKw(),
+                        change.allocatedKw() != null ? change.allocatedKw() : 0.0, System.nanoTime()));
+            }
+        } catch (Exception e) {
+            log.debug("Ignoring malformed grid change message: {}", e.getMessage());
+        }
+    }
+
+    private record GridChange(String type, long version, Double outputKw, Double allocatedKw) {}
+
+    private record Totals(long version, double outputKw, double allocatedKw, long receivedAt) {}
+
+    private record Sources(List<PowerGridStatus.PowerSourceSummary> summaries, double onlineCapacityKw,
+                           double totalCapacityKw, int onlineCount, long version, long loadedAt) {
+        static Sources of(List<PowerSource> sources, long version, long loadedAt) {
+            List<PowerGridStatus.PowerSourceSummary> summaries = sources.stream()
+                    .map(s -> new PowerGridStatus.PowerSourceSummary(
+                            s.getId(),
+                            s.getName(),
+                            s.getType().name(),
+                            s.getStatus().name(),
+                            s.getMaxOutputKw(),
+                            s.getCurrentOutputKw(),
+                            s.getMaxOutputKw() > 0
+                                    ? (s.getCurrentOutputKw() / s.getMaxOutputKw()) * 100
+                                    : 0
+                    ))
+                    .toList();
+            List<PowerSource> online = sources.stream()
+                    .filter(s -> s.getStatus() == PowerSource.PowerSourceStatus.ONLINE)
+                    .toList();
+            return new Sources(
+                    summaries,
+                    online.stream().mapToDouble(PowerSource::getMaxOutputKw).sum(),
+                    sources.stream().mapToDouble(PowerSource::getMaxOutputKw).sum(),
+                    online.size(),
+                    version,
+                    loadedAt);
+        }
+    }
+
+    private record Snapshot(Sources sources, Totals totals, PowerGridStatus status, PowerSummary summary) {
+        static Snapshot of(Sources sources, Totals totals) {
+            GridLedger.GridTotals grid = new GridLedger.GridTotals(totals.version(), totals.outputKw(), totals.allocatedKw());
+            PowerGridStatus status = new PowerGridStatus(
+                    sources.onlineCapacityKw(),
+                    grid.outputKw(),
+                    grid.allocatedKw(),
+                    grid.availableKw(),
+                    grid.utilizationPercent(),
+                    sources.onlineCount(),
+                    sources.summaries().size(),
+                    sources.summaries());
+            PowerSummary summary = new PowerSummary(
+                    sources.totalCapacityKw(),
+                    grid.outputKw(),
+                    grid.allocatedKw(),
+                    grid.availableKw(),
+                    grid.utilizationPercent(),
+                    sources.onlineCount(),
+                    sources.summaries().size());
+            return new Snapshot(sources, totals, status, summary);
+        }
+    }
+}
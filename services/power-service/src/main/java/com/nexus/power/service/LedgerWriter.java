@@ -0,0 +1,335 @@
+package com.nexus.power.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus.power.config.RedisDistributedLock;
+import com.nexus.power.entity.PowerAllocation;
+import com.nexus.power.entity.PowerLog;
+import com.nexus.power.repository.PowerAllocationRepository;
+import com.nexus.power.repository.PowerLogRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the grid ledger behind to power_allocations and power_logs.
+ *
+ * Each flush pops a batch of dirty systems and writes their current ledger state (so several
+ * changes to one system collapse into a single row write, and flush order never matters), then
+ * appends the pending log entries, all in one transaction.
+ *
+ * If the batch fails while the database is reachable, it is written again one item at a time so a
+ * single bad row can't stall write-behind: a system that still fails goes back on the dirty set for
+ * the next flush, and a log entry that still fails (or can't be parsed) moves to
+ * power:ledger:log:dead. If the database is down, the systems are put back and the log entries stay
+ * queued for the next attempt.
+ *
+ * Only one replica flushes at a time. The flush lock is extended before every batch, re-checked
+ * before each transaction commits, and the log is only trimmed by the lock's holder, so a flusher
+ * that outlived its lock stops instead of writing or trimming entries a new holder also read.
+ */
+@Component
+public class LedgerWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerWriter.class);
+    private static final String FLUSH_LOCK_KEY = "power:ledger:flush:lock";
+    private static final Duration FLUSH_LOCK_TTL = Duration.ofSeconds(30);
+
+    // Drop the written entries from the head of the log only while still holding the flush lock
+    private static final String TRIM_LOG_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "    redis.call('ltrim', KEYS[2], ARGV[2], -1) " +
+            "    return 1 " +
+            "else " +
+            "    return 0 " +
+            "end";
+
+    // Record the row ID only if the system still has an allocation
+    private static final String SET_ID_SCRIPT =
+            "if redis.call('hexists', KEYS[1], ARGV[1]) == 1 then " +
+            "    return redis.call('hset', KEYS[2], ARGV[1], ARGV[2]) " +
+            "else " +
+            "    return 0 " +
+            "end";
+
+    private final PowerAllocationRepository allocationRepository;
+    private final PowerLogRepository logRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final DefaultRedisScript<Long> setIdScript;
+    private final DefaultRedisScript<Long> trimLogScript = new DefaultRedisScript<>(TRIM_LOG_SCRIPT, Long.class);
+    private final Duration flushInterval;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    public LedgerWriter(
+            PowerAllocationRepository allocationRepository,
+            PowerLogRepository logRepository,
+            RedisTemplate<String, String> redisTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${nexus.power.ledger.flush-interval:200ms}") Duration flushInterval,
+            @Value("${nexus.power.ledger.flush-batch-size:500}") int batchSize) {
+        this.allocationRepository = allocationRepository;
+        this.logRepository = logRepository;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.setIdScript = new DefaultRedisScript<>(SET_ID_SCRIPT, Long.class);
+        this.flushInterval = flushInterval;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::flush,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdown();
+        try {
+            if (scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                // Write out whatever this instance admitted last; another replica picks up anything left
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void flush() {
+        RedisDistributedLock lock = new RedisDistributedLock(redisTemplate, FLUSH_LOCK_KEY, FLUSH_LOCK_TTL);
+        if (!lock.tryAcquire()) {
+            return;
+        }
+        try {
+            boolean more;
+            do {
+                more = flushBatch(lock);
+            } while (more);
+        } catch (Exception e) {
+            log.warn("Failed to write power grid ledger to database: {}", e.getMessage());
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * @return true if a full batch was written and more may be pending
+     */
+    private boolean flushBatch(RedisDistributedLock lock) {
+        checkLock(lock);
+        List<String> systems = redisTemplate.opsForSet().pop(GridLedger.KEY_DIRTY, batchSize);
+        if (systems == null) {
+            systems = List.of();
+        }
+        List<String> entries = redisTemplate.opsForList().range(GridLedger.KEY_LOG, 0, batchSize - 1);
+        if (entries == null) {
+            entries = List.of();
+        }
+        if (systems.isEmpty() && entries.isEmpty()) {
+            return false;
+        }
+
+        List<PowerAllocation> inserted;
+        List<String> deadLetters = new ArrayList<>();
+        try {
+            List<String> dirty = systems;
+            List<PowerLog> logs = parseLogEntries(entries, deadLetters);
+            try {
+                inserted = transactionTemplate.execute(status -> {
+                    List<PowerAllocation> written = writeBatch(dirty, logs);
+                    checkLock(lock);
+                    return written;
+                });
+            } catch (FlushLockLostException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                inserted = writeIndividually(lock, dirty, entries, deadLetters, e);
+            }
+        } catch (RuntimeException e) {
+            if (!systems.isEmpty()) {
+                redisTemplate.opsForSet().add(GridLedger.KEY_DIRTY, systems.toArray(String[]::new));
+            }
+            throw e;
+        }
+
+        if (!deadLetters.isEmpty()) {
+            redisTemplate.opsForList().rightPushAll(GridLedger.KEY_LOG_DEAD, deadLetters);
+            log.error("Moved {} power log entries that could not be written to {}",
+                    deadLetters.size(), GridLedger.KEY_LOG_DEAD);
+        }
+        if (!entries.isEmpty()) {
+            Long trimmed = redisTemplate.execute(trimLogScript, List.of(FLUSH_LOCK_KEY, GridLedger.KEY_LOG),
+                    lock.getLockValue(), String.valueOf(entries.size()));
+            if (trimmed == null || trimmed == 0) {
+                throw new FlushLockLostException();
+            }
+        }
+        for (PowerAllocation allocation : inserted) {
+            redisTemplate.execute(setIdScript, List.of(GridLedger.KEY_SYSTEMS, GridLedger.KEY_IDS),
+                    allocation.getSystemName(), String.valueOf(allocation.getId()));
+        }
+
+        log.debug("Flushed {} power allocations and {} log entries", systems.size(), entries.size());
+        return systems.size() == batchSize || entries.size() == batchSize;
+    }
+
+    /**
+     * Writes a failed batch one system and one log entry per transaction, in log order. Systems that
+     * still fail are put back on the dirty set; log entries that still fail are added to deadLetters.
+     * If the database itself is unreachable nothing is written and the batch's failure is rethrown.
+     */
+    private List<PowerAllocation> writeIndividually(RedisDistributedLock lock, List<String> systems,
+                                                    List<String> entries, List<String> deadLetters,
+                                                    RuntimeException batchFailure) {
+        try {
+            logRepository.findMaxId();
+        } catch (RuntimeException e) {
+            throw batchFailure;
+        }
+        log.warn("Power ledger batch failed, writing {} systems and {} log entries one at a time: {}",
+                systems.size(), entries.size(), batchFailure.getMessage());
+        checkLock(lock);
+
+        List<PowerAllocation> inserted = new ArrayList<>();
+        List<String> retry = new ArrayList<>();
+        for (String system : systems) {
+            try {
+                inserted.addAll(transactionTemplate.execute(status -> {
+                    List<PowerAllocation> written = writeBatch(List.of(system), List.of());
+                    checkLock(lock);
+                    return written;
+                }));
+            } catch (FlushLockLostException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write power allocation for {}, retrying next flush: {}", system, e.getMessage());
+                retry.add(system);
+            }
+        }
+        if (!retry.isEmpty()) {
+            redisTemplate.opsForSet().add(GridLedger.KEY_DIRTY, retry.toArray(String[]::new));
+        }
+
+        for (String entry : entries) {
+            if (deadLetters.contains(entry)) {
+                continue;
+            }
+            List<PowerLog> parsed = parseLogEntries(List.of(entry), deadLetters);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    logRepository.saveAll(parsed);
+                    checkLock(lock);
+                });
+            } catch (FlushLockLostException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write power log entry {}: {}", entry, e.getMessage());
+                deadLetters.add(entry);
+            }
+        }
+        return inserted;
+    }
+
+    private void checkLock(RedisDistributedLock lock) {
+        if (!lock.extend()) {
+            throw new FlushLockLostException();
+        }
+    }
+
+    private List<PowerAllocation> writeBatch(List<String> systems, List<PowerLog> logs) {
+        List<PowerAllocation> inserted = new ArrayList<>();
+        if (!systems.isEmpty()) {
+            List<Object> fields = new ArrayList<>(systems);
+            List<Object> amounts = redisTemplate.opsForHash().multiGet(GridLedger.KEY_SYSTEMS, fields);
+            List<Object> priorities = redisTemplate.opsForHash().multiGet(GridLedger.KEY_PRIORITIES, fields);
+            List<Object> sections = redisTemplate.opsForHash().multiGet(GridLedger.KEY_SECTIONS, fields);
+
+            Map<String, PowerAllocation> existing = allocationRepository.findBySystemNameIn(systems).stream()
+                    .collect(Collectors.toMap(PowerAllocation::getSystemName, Function.identity(), (a, b) -> a));
+
+            List<PowerAllocation> toSave = new ArrayList<>();
+            List<PowerAllocation> toDelete = new ArrayList<>();
+            for (int i = 0; i < systems.size(); i++) {
+                String system = systems.get(i);
+                PowerAllocation allocation = existing.get(system);
+                if (amounts.get(i) == null) {
+                    if (allocation != null) {
+                        toDelete.add(allocation);
+                    }
+                    continue;
+                }
+                if (allocation == null) {
+                    allocation = new PowerAllocation();
+                    allocation.setSystemName(system);
+                    allocation.setSectionId(sections.get(i) != null ? Long.valueOf((String) sections.get(i)) : null);
+                    inserted.add(allocation);
+                }
+                allocation.setAllocatedKw(Double.parseDouble((String) amounts.get(i)));
+                allocation.setPriority(priorities.get(i) != null ? Integer.parseInt((String) priorities.get(i)) : 5);
+                toSave.add(allocation);
+            }
+            allocationRepository.deleteAllInBatch(toDelete);
+            allocationRepository.saveAll(toSave);
+        }
+        logRepository.saveAll(logs);
+        return inserted;
+    }
+
+    /**
+     * Parses log entries, adding any that are malformed to deadLetters.
+     */
+    private List<PowerLog> parseLogEntries(List<String> entries, List<String> deadLetters) {
+        List<PowerLog> logs = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            try {
+                Map<String, String> fields = objectMapper.readValue(entry, new TypeReference<HashMap<String, String>>() {});
+                PowerLog logEntry = new PowerLog();
+                logEntry.setAction(PowerLog.PowerAction.valueOf(fields.get("action")));
+                logEntry.setSystemName(fields.get("systemName"));
+                logEntry.setAmountKw(Double.parseDouble(fields.get("amountKw")));
+                if (fields.get("sourceId") != null) {
+                    logEntry.setSourceId(Long.valueOf(fields.get("sourceId")));
+                }
+                if (fields.get("resultingKw") != null) {
+                    logEntry.setResultingKw(Double.parseDouble(fields.get("resultingKw")));
+                }
+                logEntry.setCreatedAt(Instant.ofEpochMilli(Long.parseLong(fields.get("timestamp"))));
+                logs.add(logEntry);
+            } catch (Exception e) {
+                log.warn("Skipping malformed power log entry {}: {}", entry, e.getMessage());
+                deadLetters.add(entry);
+            }
+        }
+        return logs;
+    }
+
+    private static class FlushLockLostException extends RuntimeException {
+        FlushLockLostException() {
+            super("Lost the ledger flush lock; leaving the rest to its new holder");
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.nexus.power.service;
+
+import com.nexus.power.config.RedisDistributedLock;
+import com.nexus.power.dto.PowerHistory;
+import com.nexus.power.dto.PowerHistoryPoint;
+import com.nexus.power.entity.PowerLog;
+import com.nexus.power.entity.PowerLogRollup;
+import com.nexus.power.entity.PowerLogRollupCheckpoint;
+import com.nexus.power.repository.PowerLogRepository;
+import com.nexus.power.repository.PowerLogRollupCheckpointRepository;
+import com.nexus.power.repository.PowerLogRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains per-minute and per-hour rollups of power_logs and serves history queries from them.
+ *
+ * Every nexus.power.rollups.interval, log rows past the checkpoint are folded into their minute
+ * and hour buckets per system, and the checkpoint advances in the same transaction. power_logs
+ * has a single writer (LedgerWriter, under its flush lock), so IDs become visible in order and
+ * the checkpoint never skips a row. Each pass then prunes raw rows past raw-retention that are
+ * already rolled up, and rollups past their own retention. Only one replica runs a pass at a time.
+ */
+@Service
+public class PowerLogRollups {
+
+    private static final Logger log = LoggerFactory.getLogger(PowerLogRollups.class);
+    private static final String LOCK_KEY = "power:rollups:lock";
+    private static final String CHECKPOINT_NAME = "power_logs";
+    // Ranges up to this long default to minute buckets, longer ones to hour buckets
+    private static final Duration AUTO_MINUTE_RANGE = Duration.ofHours(6);
+    private static final Duration MAX_MINUTE_RANGE = Duration.ofDays(2);
+    private static final Duration DEFAULT_RANGE = Duration.ofHours(1);
+
+    private final PowerLogRepository logRepository;
+    private final PowerLogRollupRepository rollupRepository;
+    private final PowerLogRollupCheckpointRepository checkpointRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration interval;
+    private final int batchSize;
+    private final Duration rawRetention;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    public PowerLogRollups(
+            PowerLogRepository logRepository,
+            PowerLogRollupRepository rollupRepository,
+            PowerLogRollupCheckpointRepository checkpointRepository,
+            RedisTemplate<String, String> redisTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${nexus.power.rollups.interval:30s}") Duration interval,
+            @Value("${nexus.power.rollups.batch-size:5000}") int batchSize,
+            @Value("${nexus.power.rollups.raw-retention:24h}") Duration rawRetention,
+            @Value("${nexus.power.rollups.minute-retention:7d}") Duration minuteRetention,
+            @Value("${nexus.power.rollups.hour-retention:90d}") Duration hourRetention) {
+        this.logRepository = logRepository;
+        this.rollupRepository = rollupRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.redisTemplate = redisTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.rawRetention = rawRetention;
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::runPass,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Power log rollups every {} (raw retention {}, minute {}, hour {})",
+                interval, rawRetention, minuteRetention, hourRetention);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public PowerHistory getHistory(Instant from, Instant to, String resolution, String systemName) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_RANGE);
+        if (!start.isBefore(end)) {
+            throw new InvalidHistoryQueryException("'from' must be before 'to'");
+        }
+
+        Duration range = Duration.between(start, end);
+        PowerLogRollup.Resolution bucketSize = parseResolution(resolution, range);
+        if (bucketSize == PowerLogRollup.Resolution.MINUTE && range.compareTo(MAX_MINUTE_RANGE) > 0) {
+            throw new InvalidHistoryQueryException(
+                    "Minute resolution is limited to ranges of " + MAX_MINUTE_RANGE.toHours() + " hours; use resolution=hour");
+        }
+
+        List<PowerLogRollup> rollups = systemName != null && !systemName.isBlank()
+                ? rollupRepository.findRangeForSystem(bucketSize, systemName, start, end)
+                : rollupRepository.findRange(bucketSize, start, end);
+        Instant asOf = checkpointRepository.findById(CHECKPOINT_NAME)
+                .map(PowerLogRollupCheckpoint::getUpdatedAt)
+                .orElse(null);
+
+        return new PowerHistory(
+                bucketSize.name(),
+                start,
+                end,
+                asOf,
+                rollups.stream().map(PowerHistoryPoint::fromEntity).toList());
+    }
+
+    private PowerLogRollup.Resolution parseResolution(String resolution, Duration range) {
+        if (resolution == null || resolution.isBlank() || resolution.equalsIgnoreCase("auto")) {
+            return range.compareTo(AUTO_MINUTE_RANGE) <= 0
+                    ? PowerLogRollup.Resolution.MINUTE
+                    : PowerLogRollup.Resolution.HOUR;
+        }
+        try {
+            return PowerLogRollup.Resolution.valueOf(resolution.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidHistoryQueryException("Unknown resolution '" + resolution + "' (expected minute, hour or auto)");
+        }
+    }
+
+    void runPass() {
+        RedisDistributedLock lock = new RedisDistributedLock(redisTemplate, LOCK_KEY, interval.multipliedBy(2));
+        if (!lock.tryAcquire()) {
+            return;
+        }
+        try {
+            long rolledUp = 0;
+            int processed;
+            do {
+                Integer batch = transactionTemplate.execute(status -> rollUpBatch());
+                processed = batch != null ? batch : 0;
+                rolledUp += processed;
+            } while (processed == batchSize);
+
+            if (rolledUp > 0) {
+                log.debug("Rolled up {} power log entries", rolledUp);
+            }
+            prune();
+        } catch (Exception e) {
+            // The checkpoint only moves with its upserts, so the next pass resumes where this stopped
+            log.error("Power log rollup failed: {}", e.getMessage());
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * @return number of log rows folded in
+     */
+    private int rollUpBatch() {
+        PowerLogRollupCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .orElseGet(() -> {
+                    PowerLogRollupCheckpoint created = new PowerLogRollupCheckpoint();
+                    created.setName(CHECKPOINT_NAME);
+                    created.setLastLogId(0L);
+                    return created;
+                });
+
+        List<PowerLog> logs = logRepository.findByIdGreaterThanOrderByIdAsc(
+                checkpoint.getLastLogId(), Limit.of(batchSize));
+        if (logs.isEmpty()) {
+            return 0;
+        }
+
+        Map<BucketKey, Bucket> buckets = new HashMap<>();
+        for (PowerLog entry : logs) {
+            // Source events have no system; only allocation changes are charted
+            if (entry.getSystemName() == null || !isAllocationChange(entry.getAction())) {
+                continue;
+            }
+            for (PowerLogRollup.Resolution resolution : PowerLogRollup.Resolution.values()) {
+                buckets.computeIfAbsent(
+                        new BucketKey(resolution, bucketStart(entry.getCreatedAt(), resolution), entry.getSystemName()),
+                        key -> new Bucket()).add(entry);
+            }
+        }
+
+        buckets.forEach((key, bucket) -> rollupRepository.upsert(
+                key.resolution().name(), key.bucketStart(), key.systemName(),
+                bucket.allocateCount, bucket.deallocateCount, bucket.preemptCount,
+                bucket.allocatedKw, bucket.releasedKw, bucket.peakKw, bucket.closingKw));
+
+        checkpoint.setLastLogId(logs.get(logs.size() - 1).getId());
+        checkpointRepository.save(checkpoint);
+        return logs.size();
+    }
+
+    private void prune() {
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            Long rolledUpThrough = checkpointRepository.findById(CHECKPOINT_NAME)
+                    .map(PowerLogRollupCheckpoint::getLastLogId)
+                    .orElse(0L);
+            int raw = logRepository.deleteRolledUpBefore(now.minus(rawRetention), rolledUpThrough);
+            int minutes = rollupRepository.deleteOlderThan(PowerLogRollup.Resolution.MINUTE, now.minus(minuteRetention));
+            int hours = rollupRepository.deleteOlderThan(PowerLogRollup.Resolution.HOUR, now.minus(hourRetention));
+            if (raw + minutes + hours > 0) {
+                log.info("Pruned {} raw power logs, {} minute rollups and {} hour rollups", raw, minutes, hours);
+            }
+        });
+    }
+
+    private static boolean isAllocationChange(PowerLog.PowerAction action) {
+        return action == PowerLog.PowerAction.ALLOCATE
+                || action == PowerLog.PowerAction.DEALLOCATE
+                || action == PowerLog.PowerAction.PREEMPT;
+    }
+
+    private static Instant bucketStart(Instant timestamp, PowerLogRollup.Resolution resolution) {
+        return timestamp.truncatedTo(resolution == PowerLogRollup.Resolution.MINUTE ? ChronoUnit.MINUTES : ChronoUnit.HOURS);
+    }
+
+    private record BucketKey(PowerLogRollup.Resolution resolution, Instant bucketStart, String systemName) {}
+
+    private static final class Bucket {
+        private long allocateCount;
+        private long deallocateCount;
+        private long preemptCount;
+        private double allocatedKw;
+        private double releasedKw;
+        private double peakKw;
+        private double closingKw;
+
+        // Entries arrive in log order, so the last one sets the closing level
+        void add(PowerLog entry) {
+            double amount = entry.getAmountKw();
+            switch (entry.getAction()) {
+                case ALLOCATE -> {
+                    allocateCount++;
+                    allocatedKw += amount;
+                }
+                case DEALLOCATE -> {
+                    deallocateCount++;
+                    releasedKw += amount;
+                }
+                case PREEMPT -> {
+                    preemptCount++;
+                    releasedKw += amount;
+                }
+                default -> { }
+            }
+            closingKw = resultingLevel(entry);
+            // A release drops from closing + amount, which is the higher point of that change
+            peakKw = Math.max(peakKw, entry.getAction() == PowerLog.PowerAction.ALLOCATE ? closingKw : closingKw + amount);
+        }
+
+        // Entries written before resulting_kw existed only carry the change itself
+        private static double resultingLevel(PowerLog entry) {
+            if (entry.getResultingKw() != null) {
+                return entry.getResultingKw();
+            }
+            return entry.getAction() == PowerLog.PowerAction.ALLOCATE ? entry.getAmountKw() : 0.0;
+        }
+    }
+
+    public static class InvalidHistoryQueryException extends RuntimeException {
+        public InvalidHistoryQueryException(String message) {
+            super(message);
+        }
+    }
+}
@@ -2,60 +2,96 @@ package com.nexus.power.service;
 
 import com.nexus.power.dto.*;
 import com.nexus.power.entity.PowerAllocation;
-import com.nexus.power.entity.PowerLog;
 import com.nexus.power.entity.PowerSource;
 import com.nexus.power.repository.PowerAllocationRepository;
-import com.nexus.power.repository.PowerLogRepository;
 import com.nexus.power.repository.PowerSourceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Scope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Metrics (on /actuator/prometheus):
+ * - power.allocation.latency{priority,outcome}   end-to-end allocation time, with percentile histograms
+ * - power.allocation.admission{mode}             time in the admission step (ledger script or database)
+ * - power.allocation.rejections{reason}          rejected allocations, including batch operations
+ * See also GridStatusCache (grid gauges and snapshot build time) and DatabaseAllocator (row lock wait).
+ */
 @Service
 public class PowerService {
     
     private static final Logger log = LoggerFactory.getLogger(PowerService.class);
-    
-    private static final String REDIS_GRID_TOTAL = "power:grid:total";
-    private static final String REDIS_GRID_ALLOCATED = "power:grid:allocated";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 200;
+    // Priorities are caller-supplied; anything outside the documented range shares one tag value
+    private static final int MAX_TAGGED_PRIORITY = 10;
     
     private final PowerSourceRepository sourceRepository;
     private final PowerAllocationRepository allocationRepository;
-    private final PowerLogRepository logRepository;
-    private final RedisTemplate<String, String> redisTemplate;
+    private final GridLedger gridLedger;
+    private final DatabaseAllocator databaseAllocator;
+    private final PreemptionEvents preemptionEvents;
+    private final GridStatusCache gridStatusCache;
     private final Tracer tracer;
     private final boolean customSpansEnabled;
+    private final boolean sheddingEnabled;
+    private final int sheddingMaxRequesterPriority;
+    private final int sheddingMaxVictims;
+    private final MeterRegistry meterRegistry;
+    private final Timer admissionTimer;
+    private final Map<String, Timer> latencyTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
     
     public PowerService(
             PowerSourceRepository sourceRepository,
             PowerAllocationRepository allocationRepository,
-            PowerLogRepository logRepository,
-            RedisTemplate<String, String> redisTemplate,
+            GridLedger gridLedger,
+            DatabaseAllocator databaseAllocator,
+            PreemptionEvents preemptionEvents,
+            GridStatusCache gridStatusCache,
             Tracer tracer,
-            @Value("${nexus.telemetry.custom-spans:false}") boolean customSpansEnabled) {
+            MeterRegistry meterRegistry,
+            @Value("${nexus.telemetry.custom-spans:false}") boolean customSpansEnabled,
+            @Value("${nexus.power.shedding.enabled:true}") boolean sheddingEnabled,
+            @Value("${nexus.power.shedding.max-requester-priority:2}") int sheddingMaxRequesterPriority,
+            @Value("${nexus.power.shedding.max-victims:5}") int sheddingMaxVictims) {
         this.sourceRepository = sourceRepository;
         this.allocationRepository = allocationRepository;
-        this.logRepository = logRepository;
-        this.redisTemplate = redisTemplate;
+        this.gridLedger = gridLedger;
+        this.databaseAllocator = databaseAllocator;
+        this.preemptionEvents = preemptionEvents;
+        this.gridStatusCache = gridStatusCache;
         this.tracer = tracer;
         this.customSpansEnabled = customSpansEnabled;
+        this.sheddingEnabled = sheddingEnabled;
+        this.sheddingMaxRequesterPriority = sheddingMaxRequesterPriority;
+        this.sheddingMaxVictims = sheddingMaxVictims;
+        this.meterRegistry = meterRegistry;
+        this.admissionTimer = Timer.builder("power.allocation.admission")
+                .tag("mode", databaseAllocator.isEnabled() ? databaseAllocator.modeName() : "ledger")
+                .description("Time spent admitting an allocation against the grid")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
     
     public PowerGridStatus getGridStatus() {
         if (customSpansEnabled) {
             Span span = tracer.spanBuilder("power.getGridStatus").startSpan();
             try (Scope scope = span.makeCurrent()) {
-                PowerGridStatus status = buildGridStatus();
+                PowerGridStatus status = gridStatusCache.gridStatus();
                 span.setAttribute("power.total_capacity_kw", status.totalCapacityKw());
                 span.setAttribute("power.utilization_percent", status.utilizationPercent());
                 return status;
@@ -63,64 +99,22 @@ public class PowerService {
                 span.end();
             }
         }
-        return buildGridStatus();
+        return gridStatusCache.gridStatus();
     }
     
-    private PowerGridStatus buildGridStatus() {
-        List<PowerSource> sources = sourceRepository.findAll();
-        
-        double totalCapacity = sources.stream()
-                .filter(s -> s.getStatus() == PowerSource.PowerSourceStatus.ONLINE)
-                .mapToDouble(PowerSource::getMaxOutputKw)
-                .sum();
-        
-        double totalOutput = sources.stream()
-                .filter(s -> s.getStatus() == PowerSource.PowerSourceStatus.ONLINE)
-                .mapToDouble(PowerSource::getCurrentOutputKw)
-                .sum();
-        
-        Double totalAllocated = allocationRepository.getTotalAllocated();
-        if (totalAllocated == null) totalAllocated = 0.0;
-        
-        double available = totalOutput - totalAllocated;
-        double utilization = totalOutput > 0 ? (totalAllocated / totalOutput) * 100 : 0;
-        
-        long onlineSources = sources.stream()
-                .filter(s -> s.getStatus() == PowerSource.PowerSourceStatus.ONLINE)
-                .count();
-        
-        List<PowerGridStatus.PowerSourceSummary> sourceSummaries = sources.stream()
-                .map(s -> new PowerGridStatus.PowerSourceSummary(
-                        s.getId(),
-                        s.getName(),
-                        s.getType().name(),
-                        s.getStatus().name(),
-                        s.getMaxOutputKw(),
-                        s.getCurrentOutputKw(),
-                        s.getMaxOutputKw() > 0 
-                                ? (s.getCurrentOutputKw() / s.getMaxOutputKw()) * 100 
-                                : 0
-                ))
-                .toList();
-        
-        // Update Redis cache
-        try {
-            redisTemplate.opsForValue().set(REDIS_GRID_TOTAL, String.valueOf(totalOutput), Duration.ofMinutes(1));
-            redisTemplate.opsForValue().set(REDIS_GRID_ALLOCATED, String.valueOf(totalAllocated), Duration.ofMinutes(1));
-        } catch (Exception e) {
-            log.warn("Failed to update Redis cache: {}", e.getMessage());
+    public PowerSummary getSummary() {
+        if (customSpansEnabled) {
+            Span span = tracer.spanBuilder("power.getSummary").startSpan();
+            try (Scope scope = span.makeCurrent()) {
+                PowerSummary summary = gridStatusCache.summary();
+                span.setAttribute("power.total_capacity_kw", summary.totalCapacityKw());
+                span.setAttribute("power.utilization_percent", summary.utilizationPercent());
+                return summary;
+            } finally {
+                span.end();
+            }
         }
-        
-        return new PowerGridStatus(
-                totalCapacity,
-                totalOutput,
-                totalAllocated,
-                available,
-                utilization,
-                (int) onlineSources,
-                sources.size(),
-                sourceSummaries
-        );
+        return gridStatusCache.summary();
     }
     
     public List<PowerSource> getAllSources() {
@@ -131,8 +125,11 @@ public class PowerService {
         return sourceRepository.findById(id);
     }
     
-    @Transactional
-    public AllocationResponse allocatePower(AllocationRequest request) {
+    public List<GridLedger.SourceTelemetry> getSourceTelemetry(int count) {
+        return gridLedger.recentTelemetry(Math.max(1, Math.min(count, 3600)));
+    }
+    
+    public AllocationResponse allocatePower(AllocationRequest request, String idempotencyKey) {
         if (customSpansEnabled) {
             Span span = tracer.spanBuilder("power.allocate")
                     .setAttribute("power.system", request.system())
@@ -140,84 +137,110 @@ public class PowerService {
                     .startSpan();
             try (Scope scope = span.makeCurrent()) {
                 span.addEvent("checking_available_power");
-                AllocationResponse response = performAllocation(request);
+                AllocationResponse response = performAllocation(request, idempotencyKey);
                 span.addEvent("power_allocated");
-                span.setAttribute("power.allocation_id", response.id());
+                // In ledger mode a system's first allocation has no id until LedgerWriter writes it
+                if (response.id() != null) {
+                    span.setAttribute("power.allocation_id", response.id());
+                }
                 return response;
             } finally {
                 span.end();
             }
         }
-        return performAllocation(request);
+        return performAllocation(request, idempotencyKey);
+    }
+    
+    private AllocationResponse performAllocation(AllocationRequest request, String idempotencyKey) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            AllocationResponse response = admit(request, idempotencyKey);
+            outcome = Boolean.TRUE.equals(response.replayed()) ? "replayed"
+                    : response.preemptions().isEmpty() ? "allocated" : "allocated_with_preemption";
+            return response;
+        } catch (InsufficientPowerException e) {
+            outcome = "rejected";
+            recordRejection("insufficient_power");
+            throw e;
+        } catch (DatabaseAllocator.AllocationConflictException e) {
+            outcome = "rejected";
+            recordRejection("conflict");
+            throw e;
+        } catch (InvalidIdempotencyKeyException | GridLedger.IdempotencyKeyMismatchException e) {
+            outcome = "rejected";
+            recordRejection("idempotency_key");
+            throw e;
+        } catch (GridLedger.LedgerUnavailableException e) {
+            recordRejection("ledger_unavailable");
+            throw e;
+        } finally {
+            latencyTimer(request.priority(), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
     
-    private AllocationResponse performAllocation(AllocationRequest request) {
+    private AllocationResponse admit(AllocationRequest request, String idempotencyKey) {
         log.info("Allocating {} kW to system: {}", request.amountKw(), request.system());
-
-        // Initial check for available power (fast-fail for obvious insufficiency)
-        PowerGridStatus grid = buildGridStatus();
-        if (grid.availableKw() < request.amountKw()) {
-            throw new InsufficientPowerException(
-                    "Insufficient power available. Requested: " + request.amountKw() +
-                    " kW, Available: " + grid.availableKw() + " kW");
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new InvalidIdempotencyKeyException(
+                    "Idempotency-Key must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
         }
 
-        // Create or update allocation with pessimistic lock to prevent race conditions
-        PowerAllocation allocation = allocationRepository.findBySystemNameWithLock(request.system())
-                .map(existing -> {
-                    existing.setAllocatedKw(existing.getAllocatedKw() + request.amountKw());
-                    if (request.priority() != null) {
-                        existing.setPriority(request.priority());
-                    }
-                    return existing;
-                })
-                .orElseGet(() -> {
-                    PowerAllocation newAllocation = new PowerAllocation();
-                    newAllocation.setSystemName(request.system());
-                    newAllocation.setAllocatedKw(request.amountKw());
-                    newAllocation.setPriority(request.priority() != null ? request.priority() : 5);
-                    newAllocation.setSectionId(request.sectionId());
-                    return newAllocation;
-                });
+        // Critical requests (priority <= max-requester-priority) may shed lower-priority load
+        // when the grid is saturated, instead of failing alongside everything else
+        int maxVictims = sheddingEnabled && request.priority() <= sheddingMaxRequesterPriority
+                ? sheddingMaxVictims : 0;
 
-        // Re-validate available power after acquiring lock to prevent race conditions
-        // This ensures that concurrent requests don't over-allocate
-        PowerGridStatus gridAfterLock = buildGridStatus();
-        double availableAfterLock = gridAfterLock.availableKw();
-        // For existing allocations, the amount is already counted, so we don't need to subtract again
-        // For new allocations, we need to check if there's enough room for this amount
-        boolean isNewAllocation = allocation.getId() == null;
-        double effectiveAvailable = isNewAllocation ? availableAfterLock : availableAfterLock + request.amountKw();
+        // Admission check and update in one atomic ledger step; the row and log are written behind.
+        // Deployments running a database allocation mode admit against power_allocations instead.
+        long admissionStart = System.nanoTime();
+        GridLedger.Reservation reservation;
+        try {
+            reservation = databaseAllocator.isEnabled()
+                    ? databaseAllocator.allocate(request.system(), request.amountKw(), request.priority(),
+                            request.sectionId(), idempotencyKey)
+                    : gridLedger.reserve(request.system(), request.amountKw(), request.priority(), request.sectionId(),
+                            maxVictims, idempotencyKey);
+        } finally {
+            admissionTimer.record(System.nanoTime() - admissionStart, TimeUnit.NANOSECONDS);
+        }
 
-        if (effectiveAvailable < request.amountKw()) {
-            throw new InsufficientPowerException(
-                    "Insufficient power available after lock. Requested: " + request.amountKw() +
-                    " kW, Available: " + effectiveAvailable + " kW");
+        if (reservation.replayed()) {
+            log.info("Replaying allocation for system: {} (idempotency key {})", request.system(), idempotencyKey);
+            return new AllocationResponse(
+                    reservation.allocationId(),
+                    request.system(),
+                    reservation.allocatedKw(),
+                    request.priority(),
+                    reservation.sectionId(),
+                    "Power allocated successfully",
+                    List.of(),
+                    true
+            );
+        }
+
+        List<PreemptionEvent> preemptions = List.of();
+        if (!reservation.shed().isEmpty()) {
+            preemptions = preemptionEvents.record(request.system(), request.priority(), reservation.shed());
         }
 
-        allocation = allocationRepository.save(allocation);
-        
-        // Log the action
-        PowerLog logEntry = new PowerLog();
-        logEntry.setAction(PowerLog.PowerAction.ALLOCATE);
-        logEntry.setAmountKw(request.amountKw());
-        logEntry.setSystemName(request.system());
-        logRepository.save(logEntry);
-        
         log.info("Successfully allocated {} kW to system: {}, total allocation: {} kW",
-                request.amountKw(), request.system(), allocation.getAllocatedKw());
+                request.amountKw(), request.system(), reservation.allocatedKw());
         
         return new AllocationResponse(
-                allocation.getId(),
-                allocation.getSystemName(),
-                allocation.getAllocatedKw(),
-                allocation.getPriority(),
-                allocation.getSectionId(),
-                "Power allocated successfully"
+                reservation.allocationId(),
+                request.system(),
+                reservation.allocatedKw(),
+                request.priority(),
+                reservation.sectionId(),
+                preemptions.isEmpty()
+                        ? "Power allocated successfully"
+                        : "Power allocated successfully after shedding " + preemptions.size() + " lower-priority allocation(s)",
+                preemptions,
+                false
         );
     }
     
-    @Transactional
     public void deallocatePower(DeallocateRequest request) {
         if (customSpansEnabled) {
             Span span = tracer.spanBuilder("power.deallocate")
@@ -237,26 +260,112 @@ public class PowerService {
     private void performDeallocation(DeallocateRequest request) {
         log.info("Deallocating power from system: {}", request.system());
 
-        Optional<PowerAllocation> allocationOpt = allocationRepository.findBySystemName(request.system());
+        Optional<Double> released = databaseAllocator.isEnabled()
+                ? databaseAllocator.release(request.system())
+                : gridLedger.release(request.system());
 
-        if (allocationOpt.isEmpty()) {
+        if (released.isEmpty()) {
             log.info("No allocation found for system: {}, nothing to deallocate", request.system());
             return;
         }
 
-        PowerAllocation allocation = allocationOpt.get();
-
-        // Log the action
-        PowerLog logEntry = new PowerLog();
-        logEntry.setAction(PowerLog.PowerAction.DEALLOCATE);
-        logEntry.setAmountKw(allocation.getAllocatedKw());
-        logEntry.setSystemName(request.system());
-        logRepository.save(logEntry);
-
-        allocationRepository.delete(allocation);
-
-        log.info("Successfully deallocated {} kW from system: {}",
-                allocation.getAllocatedKw(), request.system());
+        log.info("Successfully deallocated {} kW from system: {}", released.get(), request.system());
+    }
+    
+    public BatchResponse applyBatch(BatchRequest request) {
+        if (customSpansEnabled) {
+            Span span = tracer.spanBuilder("power.batch")
+                    .setAttribute("power.batch_size", request.operations().size())
+                    .startSpan();
+            try (Scope scope = span.makeCurrent()) {
+                BatchResponse response = performBatch(request);
+                span.setAttribute("power.batch_failed", response.failed());
+                return response;
+            } finally {
+                span.end();
+            }
+        }
+        return performBatch(request);
+    }
+    
+    private BatchResponse performBatch(BatchRequest request) {
+        List<BatchOperation> operations = request.operations();
+        log.info("Applying power batch of {} operations", operations.size());
+        
+        BatchResult[] results = new BatchResult[operations.size()];
+        List<GridLedger.LedgerOperation> ledgerOperations = new ArrayList<>();
+        List<Integer> ledgerIndexes = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation op = operations.get(i);
+            if (op.op() == BatchOperation.OperationType.ALLOCATE) {
+                if (op.amountKw() == null || op.amountKw() < 1) {
+                    recordRejection("invalid_amount");
+                    results[i] = new BatchResult(i, op.op().name(), op.system(), false, null, null, null,
+                            "Amount must be at least 1 kW", List.of());
+                    continue;
+                }
+                int maxVictims = sheddingEnabled && op.priority() <= sheddingMaxRequesterPriority
+                        ? sheddingMaxVictims : 0;
+                ledgerOperations.add(GridLedger.LedgerOperation.allocate(
+                        op.system(), op.amountKw(), op.priority(), op.sectionId(), maxVictims, op.idempotencyKey()));
+            } else {
+                ledgerOperations.add(GridLedger.LedgerOperation.deallocate(op.system()));
+            }
+            ledgerIndexes.add(i);
+        }
+        
+        // One validation pass over the grid for the whole batch; rows and logs are written behind together
+        List<GridLedger.OperationResult> outcomes;
+        if (ledgerOperations.isEmpty()) {
+            outcomes = List.of();
+        } else if (databaseAllocator.isEnabled()) {
+            outcomes = databaseAllocator.applyBatch(ledgerOperations);
+        } else {
+            outcomes = gridLedger.applyBatch(ledgerOperations);
+        }
+        
+        for (int j = 0; j < outcomes.size(); j++) {
+            int i = ledgerIndexes.get(j);
+            BatchOperation op = operations.get(i);
+            GridLedger.OperationResult outcome = outcomes.get(j);
+            if (op.op() == BatchOperation.OperationType.DEALLOCATE) {
+                double released = outcome.releasedKw() != null ? outcome.releasedKw() : 0.0;
+                results[i] = new BatchResult(i, op.op().name(), op.system(), true, null, null, released,
+                        outcome.releasedKw() != null ? "Power deallocated successfully" : "No allocation to deallocate",
+                        List.of());
+            } else if (!outcome.success()) {
+                recordRejection("batch_operation");
+                results[i] = new BatchResult(i, op.op().name(), op.system(), false, null, null, null,
+                        outcome.error(), List.of());
+            } else {
+                GridLedger.Reservation reservation = outcome.reservation();
+                List<PreemptionEvent> preemptions = reservation.shed().isEmpty() || reservation.replayed()
+                        ? List.of() : preemptionEvents.record(op.system(), op.priority(), reservation.shed());
+                results[i] = new BatchResult(i, op.op().name(), op.system(), true, reservation.allocationId(),
+                        reservation.allocatedKw(), null, "Power allocated successfully", preemptions);
+            }
+        }
+        
+        int failed = (int) Arrays.stream(results).filter(r -> !r.success()).count();
+        log.info("Power batch applied: {} succeeded, {} failed", results.length - failed, failed);
+        return new BatchResponse(List.of(results), results.length - failed, failed);
+    }
+    
+    private Timer latencyTimer(int priority, String outcome) {
+        String priorityTag = priority >= 0 && priority <= MAX_TAGGED_PRIORITY ? String.valueOf(priority) : "other";
+        return latencyTimers.computeIfAbsent(priorityTag + ":" + outcome, key -> Timer.builder("power.allocation.latency")
+                .tag("priority", priorityTag)
+                .tag("outcome", outcome)
+                .description("Allocation request time by requester priority and outcome")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+    
+    private void recordRejection(String reason) {
+        rejectionCounters.computeIfAbsent(reason, key -> Counter.builder("power.allocation.rejections")
+                .tag("reason", reason)
+                .description("Allocations rejected, by reason")
+                .register(meterRegistry)).increment();
     }
     
     public List<PowerAllocation> getAllAllocations() {
@@ -274,6 +383,12 @@ public class PowerService {
         }
     }
     
+    public static class InvalidIdempotencyKeyException extends RuntimeException {
+        public InvalidIdempotencyKeyException(String message) {
+            super(message);
+        }
+    }
+    
     public static class AllocationNotFoundException extends RuntimeException {
         public AllocationNotFoundException(String message) {
             super(message);
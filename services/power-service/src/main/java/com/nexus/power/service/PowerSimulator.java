@@ -0,0 +1,381 @@
+package com.nexus.power.service;
+
+import com.nexus.power.config.RedisDistributedLock;
+import com.nexus.power.entity.PowerLog;
+import com.nexus.power.entity.PowerSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evolves power source output over time so grid behavior can be exercised without manual changes.
+ *
+ * - Solar arrays follow a sine cycle of nexus.power.simulation.solar-period between solar-min-fraction
+ *   and their seeded output, each with its own phase.
+ * - Fusion reactors ramp toward their seeded output at reactor-ramp-per-second (a fraction of max output).
+ * - Fuel cells hold their seeded output with a little noise.
+ * - Any ONLINE source fails at failure-rate-per-hour, goes OFFLINE for failure-duration, then comes back
+ *   (reactors ramp up again from zero). Sources in other states are left alone.
+ *
+ * Every tick the total ONLINE output goes to the grid ledger in one script, which also appends a record to
+ * the power:sources:telemetry stream and SOURCE_OFFLINE/SOURCE_ONLINE entries for power_logs. Changed
+ * sources are written back in a JDBC batch every persist-interval. Only the replica holding
+ * power:simulation:lock simulates; a replica that takes over reloads the state from the database.
+ *
+ * Source state lives in parallel arrays sized once per load, so a tick allocates nothing per source
+ * and thousands of sources (see synthetic-sources) cost one pass over primitive arrays.
+ */
+@Service
+public class PowerSimulator {
+
+    private static final Logger log = LoggerFactory.getLogger(PowerSimulator.class);
+    private static final String LOCK_KEY = "power:simulation:lock";
+    private static final String SYNTHETIC_PREFIX = "Simulated Source ";
+    private static final String UPDATE_SQL =
+            "UPDATE power_sources SET current_output_kw = ?, status = ?, updated_at = ? WHERE id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO power_sources (name, type, max_output_kw, current_output_kw, status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, 'ONLINE', ?, ?)";
+    private static final PowerSource.PowerSourceType[] SYNTHETIC_TYPES = {
+            PowerSource.PowerSourceType.SOLAR_ARRAY,
+            PowerSource.PowerSourceType.FUSION_REACTOR,
+            PowerSource.PowerSourceType.FUEL_CELL
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GridLedger gridLedger;
+    private final GridStatusCache gridStatusCache;
+    private final boolean enabled;
+    private final Duration tickInterval;
+    private final long persistEveryTicks;
+    private final double tickSeconds;
+    private final double solarPeriodSeconds;
+    private final double solarMinFraction;
+    private final double reactorRampPerTick;
+    private final double failureChancePerTick;
+    private final int failureTicks;
+    private final int syntheticSources;
+    private final int telemetryMaxLength;
+    private final RedisDistributedLock lock;
+    private final SplittableRandom random = new SplittableRandom();
+    private final List<String> events = new ArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    // Simulation state, only touched on the scheduler thread
+    private boolean leader;
+    private long tick;
+    private int count;
+    private long[] ids = new long[0];
+    private PowerSource.PowerSourceType[] types = new PowerSource.PowerSourceType[0];
+    private PowerSource.PowerSourceStatus[] statuses = new PowerSource.PowerSourceStatus[0];
+    private double[] maxOutput = new double[0];
+    private double[] targetFraction = new double[0];
+    private double[] phase = new double[0];
+    private double[] output = new double[0];
+    private int[] recoverInTicks = new int[0];
+    private boolean[] dirty = new boolean[0];
+    private int[] dirtyIndexes = new int[0];
+
+    public PowerSimulator(
+            JdbcTemplate jdbcTemplate,
+            GridLedger gridLedger,
+            GridStatusCache gridStatusCache,
+            RedisTemplate<String, String> redisTemplate,
+            @Value("${nexus.power.simulation.enabled:false}") boolean enabled,
+            @Value("${nexus.power.simulation.tick-interval:1s}") Duration tickInterval,
+            @Value("${nexus.power.simulation.persist-interval:10s}") Duration persistInterval,
+            @Value("${nexus.power.simulation.solar-period:90m}") Duration solarPeriod,
+            @Value("${nexus.power.simulation.solar-min-fraction:0.2}") double solarMinFraction,
+            @Value("${nexus.power.simulation.reactor-ramp-per-second:0.01}") double reactorRampPerSecond,
+            @Value("${nexus.power.simulation.failure-rate-per-hour:0.5}") double failureRatePerHour,
+            @Value("${nexus.power.simulation.failure-duration:30s}") Duration failureDuration,
+            @Value("${nexus.power.simulation.synthetic-sources:0}") int syntheticSources,
+            @Value("${nexus.power.simulation.telemetry-max-length:3600}") int telemetryMaxLength) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.gridLedger = gridLedger;
+        this.gridStatusCache = gridStatusCache;
+        this.enabled = enabled;
+        this.tickInterval = tickInterval;
+        this.persistEveryTicks = Math.max(1, persistInterval.toMillis() / tickInterval.toMillis());
+        this.tickSeconds = tickInterval.toMillis() / 1000.0;
+        this.solarPeriodSeconds = solarPeriod.toMillis() / 1000.0;
+        this.solarMinFraction = solarMinFraction;
+        this.reactorRampPerTick = reactorRampPerSecond * tickSeconds;
+        this.failureChancePerTick = failureRatePerHour * tickSeconds / 3600.0;
+        this.failureTicks = (int) Math.max(1, failureDuration.toMillis() / tickInterval.toMillis());
+        this.syntheticSources = syntheticSources;
+        this.telemetryMaxLength = telemetryMaxLength;
+        // A leader that stops ticking loses the lock within a few ticks
+        this.lock = new RedisDistributedLock(redisTemplate, LOCK_KEY, tickInterval.multipliedBy(3));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler.scheduleAtFixedRate(this::runTick,
+                tickInterval.toMillis(), tickInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Power source simulation every {} (persisting every {} ticks)", tickInterval, persistEveryTicks);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        if (leader) {
+            lock.release();
+        }
+    }
+
+    void runTick() {
+        try {
+            if (!holdLeadership()) {
+                return;
+            }
+            tick++;
+            double onlineOutput = advance();
+            int online = countOnline();
+            if (!gridLedger.applySourceTick(onlineOutput, online, count - online, tick, telemetryMaxLength, events)) {
+                log.debug("Power grid ledger not loaded, skipping simulation tick {}", tick);
+            }
+            if (tick % persistEveryTicks == 0) {
+                persist();
+            }
+        } catch (Exception e) {
+            // Keep the schedule alive; the next tick retries from the in-memory state
+            log.error("Power source simulation tick failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean holdLeadership() {
+        if (leader) {
+            if (lock.extend()) {
+                return true;
+            }
+            log.info("Lost power simulation lock, another replica is simulating");
+            leader = false;
+        }
+        if (!lock.tryAcquire()) {
+            return false;
+        }
+        leader = true;
+        ensureSyntheticSources();
+        load();
+        log.info("Simulating {} power sources", count);
+        return true;
+    }
+
+    /**
+     * Advance every source by one tick.
+     *
+     * @return total output of ONLINE sources
+     */
+    private double advance() {
+        events.clear();
+        long timestamp = System.currentTimeMillis();
+        double elapsedSeconds = tick * tickSeconds;
+        double total = 0.0;
+        for (int i = 0; i < count; i++) {
+            PowerSource.PowerSourceStatus status = statuses[i];
+            if (status == PowerSource.PowerSourceStatus.OFFLINE && recoverInTicks[i] > 0) {
+                if (--recoverInTicks[i] == 0) {
+                    statuses[i] = PowerSource.PowerSourceStatus.ONLINE;
+                    dirty[i] = true;
+                    events.add(gridLedger.sourceLogEntry(PowerLog.PowerAction.SOURCE_ONLINE, ids[i], 0.0, timestamp));
+                }
+                continue;
+            }
+            if (status != PowerSource.PowerSourceStatus.ONLINE) {
+                continue;
+            }
+            if (random.nextDouble() < failureChancePerTick) {
+                events.add(gridLedger.sourceLogEntry(PowerLog.PowerAction.SOURCE_OFFLINE, ids[i], output[i], timestamp));
+                statuses[i] = PowerSource.PowerSourceStatus.OFFLINE;
+                output[i] = 0.0;
+                recoverInTicks[i] = failureTicks;
+                dirty[i] = true;
+                continue;
+            }
+
+            double next = nextOutput(i, elapsedSeconds);
+            if (next != output[i]) {
+                output[i] = next;
+                dirty[i] = true;
+            }
+            total += next;
+        }
+        return total;
+    }
+
+    private double nextOutput(int i, double elapsedSeconds) {
+        double max = maxOutput[i];
+        double target = targetFraction[i];
+        return switch (types[i]) {
+            case SOLAR_ARRAY -> {
+                double daylight = 0.5 * (1 + Math.sin(2 * Math.PI * (elapsedSeconds / solarPeriodSeconds + phase[i])));
+                yield max * (solarMinFraction + (target - solarMinFraction) * daylight);
+            }
+            case FUSION_REACTOR -> {
+                double fraction = output[i] / max;
+                yield max * (fraction < target
+                        ? Math.min(target, fraction + reactorRampPerTick)
+                        : Math.max(target, fraction - reactorRampPerTick));
+            }
+            case FUEL_CELL -> max * Math.min(1.0, target * (0.98 + 0.04 * random.nextDouble()));
+            case BATTERY_BANK -> output[i];
+        };
+    }
+
+    private int countOnline() {
+        int online = 0;
+        for (int i = 0; i < count; i++) {
+            if (statuses[i] == PowerSource.PowerSourceStatus.ONLINE) {
+                online++;
+            }
+        }
+        return online;
+    }
+
+    /**
+     * Write changed sources back in one batch. A source that no longer exists (e.g. the tables were
+     * reset) or a change in the number of sources reloads the state from the database.
+     */
+    private void persist() {
+        int changed = 0;
+        for (int i = 0; i < count; i++) {
+            if (dirty[i]) {
+                dirtyIndexes[changed++] = i;
+            }
+        }
+
+        boolean stale = false;
+        if (changed > 0) {
+            Timestamp now = Timestamp.from(Instant.now());
+            int batchSize = changed;
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int n) throws SQLException {
+                    int i = dirtyIndexes[n];
+                    ps.setDouble(1, output[i]);
+                    ps.setString(2, statuses[i].name());
+                    ps.setTimestamp(3, now);
+                    ps.setLong(4, ids[i]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batchSize;
+                }
+            });
+            for (int n = 0; n < changed; n++) {
+                dirty[dirtyIndexes[n]] = false;
+                stale |= updated[n] == 0;
+            }
+            gridStatusCache.sourcesChanged();
+        }
+
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM power_sources", Integer.class);
+        if (stale || rows == null || rows != count) {
+            log.info("Power sources changed outside the simulation, reloading");
+            ensureSyntheticSources();
+            load();
+        }
+    }
+
+    private void load() {
+        List<PowerSource> sources = jdbcTemplate.query(
+                "SELECT id, type, max_output_kw, current_output_kw, status FROM power_sources ORDER BY id",
+                (rs, n) -> {
+                    PowerSource source = new PowerSource();
+                    source.setId(rs.getLong("id"));
+                    source.setType(PowerSource.PowerSourceType.valueOf(rs.getString("type")));
+                    source.setMaxOutputKw(rs.getDouble("max_output_kw"));
+                    source.setCurrentOutputKw(rs.getDouble("current_output_kw"));
+                    source.setStatus(PowerSource.PowerSourceStatus.valueOf(rs.getString("status")));
+                    return source;
+                });
+
+        int size = sources.size();
+        if (ids.length < size) {
+            ids = new long[size];
+            types = new PowerSource.PowerSourceType[size];
+            statuses = new PowerSource.PowerSourceStatus[size];
+            maxOutput = new double[size];
+            targetFraction = new double[size];
+            phase = new double[size];
+            output = new double[size];
+            recoverInTicks = new int[size];
+            dirty = new boolean[size];
+            dirtyIndexes = new int[size];
+        }
+        for (int i = 0; i < size; i++) {
+            PowerSource source = sources.get(i);
+            ids[i] = source.getId();
+            types[i] = source.getType();
+            statuses[i] = source.getStatus();
+            maxOutput[i] = source.getMaxOutputKw();
+            output[i] = source.getCurrentOutputKw();
+            // The output a source had when loaded is what it settles at; offline sources aim for 90%
+            double fraction = maxOutput[i] > 0 ? output[i] / maxOutput[i] : 0.0;
+            targetFraction[i] = fraction > 0 ? fraction : 0.9;
+            phase[i] = random.nextDouble();
+            recoverInTicks[i] = 0;
+            dirty[i] = false;
+        }
+        count = size;
+    }
+
+    private void ensureSyntheticSources() {
+        if (syntheticSources <= 0) {
+            return;
+        }
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM power_sources WHERE name LIKE ?", Integer.class, SYNTHETIC_PREFIX + "%");
+        int missing = syntheticSources - (existing != null ? existing : 0);
+        if (missing <= 0) {
+            return;
+        }
+        int first = syntheticSources - missing + 1;
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int n) throws SQLException {
+                int number = first + n;
+                PowerSource.PowerSourceType type = SYNTHETIC_TYPES[number % SYNTHETIC_TYPES.length];
+                double max = 500.0 + random.nextInt(1500);
+                ps.setString(1, SYNTHETIC_PREFIX + number);
+                ps.setString(2, type.name());
+                ps.setDouble(3, max);
+                ps.setDouble(4, max * 0.8);
+                ps.setTimestamp(5, now);
+                ps.setTimestamp(6, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return missing;
+            }
+        });
+        log.info("Created {} synthetic power sources for simulation", missing);
+        gridStatusCache.sourcesChanged();
+    }
+}
@@ -0,0 +1,156 @@
+package com.nexus.power.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexus.power.dto.PreemptionEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records load-shedding decisions: metrics, a capped list of recent preemptions in Redis
+ * (power:shedding:recent) and a live SSE stream. Events are published on the
+ * power:shedding:events channel so subscribers on every replica see every preemption.
+ */
+@Service
+public class PreemptionEvents {
+
+    private static final Logger log = LoggerFactory.getLogger(PreemptionEvents.class);
+    private static final String CHANNEL = "power:shedding:events";
+    private static final String RECENT_KEY = "power:shedding:recent";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final int recentLimit;
+    private final long emitterTimeoutMs;
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter preemptedCounter;
+    private final Counter scaledDownCounter;
+    private final DistributionSummary shedKwSummary;
+
+    public PreemptionEvents(
+            RedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${nexus.power.shedding.recent-events:100}") int recentLimit,
+            @Value("${nexus.power.shedding.stream-timeout:30m}") Duration emitterTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.listenerContainer = listenerContainer;
+        this.recentLimit = recentLimit;
+        this.emitterTimeoutMs = emitterTimeout.toMillis();
+        this.preemptedCounter = Counter.builder("power.shedding.allocations")
+                .tag("outcome", "preempted")
+                .description("Lower-priority allocations shed to admit a higher-priority request")
+                .register(meterRegistry);
+        this.scaledDownCounter = Counter.builder("power.shedding.allocations")
+                .tag("outcome", "scaled_down")
+                .description("Lower-priority allocations shed to admit a higher-priority request")
+                .register(meterRegistry);
+        this.shedKwSummary = DistributionSummary.builder("power.shedding.shed_kw")
+                .baseUnit("kW")
+                .description("Power reclaimed from each shed allocation")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(CHANNEL));
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    public List<PreemptionEvent> record(String requestedBy, int requestedPriority, List<GridLedger.ShedAllocation> shed) {
+        Instant now = Instant.now();
+        List<PreemptionEvent> events = new ArrayList<>(shed.size());
+        for (GridLedger.ShedAllocation allocation : shed) {
+            (allocation.preempted() ? preemptedCounter : scaledDownCounter).increment();
+            shedKwSummary.record(allocation.shedKw());
+            log.warn("Shed {} kW from '{}' (priority {}{}) to admit '{}' (priority {})",
+                    allocation.shedKw(), allocation.systemName(), allocation.priority(),
+                    allocation.preempted() ? ", preempted" : "", requestedBy, requestedPriority);
+
+            PreemptionEvent event = new PreemptionEvent(
+                    allocation.systemName(),
+                    allocation.priority(),
+                    allocation.previousKw(),
+                    allocation.shedKw(),
+                    allocation.preempted(),
+                    requestedBy,
+                    requestedPriority,
+                    now);
+            events.add(event);
+            try {
+                String json = objectMapper.writeValueAsString(event);
+                redisTemplate.opsForList().leftPush(RECENT_KEY, json);
+                redisTemplate.opsForList().trim(RECENT_KEY, 0, recentLimit - 1);
+                redisTemplate.convertAndSend(CHANNEL, json);
+            } catch (Exception e) {
+                log.warn("Failed to publish preemption event: {}", e.getMessage());
+            }
+        }
+        return events;
+    }
+
+    public List<PreemptionEvent> recent() {
+        List<String> entries = redisTemplate.opsForList().range(RECENT_KEY, 0, recentLimit - 1);
+        List<PreemptionEvent> events = new ArrayList<>();
+        if (entries != null) {
+            for (String entry : entries) {
+                try {
+                    events.add(objectMapper.readValue(entry, PreemptionEvent.class));
+                } catch (Exception e) {
+                    log.debug("Skipping malformed preemption event: {}", e.getMessage());
+                }
+            }
+        }
+        return events;
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        return emitter;
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        String json = new String(message.getBody(), StandardCharsets.UTF_8);
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("preemption")
+                        .data(json, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(emitter);
+            }
+        }
+    }
+}